@@ -10,6 +10,7 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
+import androidx.core.content.ContextCompat;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -19,6 +20,7 @@ import ru.goman.checkers.BaseActivity;
 import ru.goman.checkers.LevelSelectActivity;
 import ru.goman.checkers.MainActivity;
 import ru.goman.checkers.R;
+import ru.goman.checkers.engine.AiDifficulty;
 import ru.goman.checkers.engine.AiEngine;
 import ru.goman.checkers.logic.GameLogic;
 import ru.goman.checkers.model.BoardState;
@@ -67,6 +69,11 @@ public class GameActivity extends BaseActivity {
     // Движок ИИ
     private AiEngine aiEngine;
 
+    /** Отложенный запуск поиска ИИ (ждёт "раздумья"), или null. */
+    private Runnable pendingAiStart;
+    /** Идущий в фоне поиск ИИ, или null. */
+    private AiEngine.SearchTask pendingAiSearch;
+
     // Режим сложности (0 = easy, 1 = medium, 2 = hard, 3 = expert, 4 = grandmaster)
     private int difficultyLevel = 0;
 
@@ -190,6 +197,7 @@ public class GameActivity extends BaseActivity {
         tvScore.setText("0 : 0");
 
         btnHome.setOnClickListener(withClickSound(v -> {
+            cancelPendingAiMove();
             startActivity(new Intent(GameActivity.this, MainActivity.class));
             finish();
         }));
@@ -213,6 +221,7 @@ public class GameActivity extends BaseActivity {
         } else if (soundEnabled && !bgMusicPlayer.isPlaying()) {
             bgMusicPlayer.start();
         }
+        maybeStartPondering();
     }
 
     @Override
@@ -221,11 +230,19 @@ public class GameActivity extends BaseActivity {
         if (bgMusicPlayer != null && bgMusicPlayer.isPlaying()) {
             bgMusicPlayer.pause();
         }
+        // В фоне не жжём батарею — продолжим в onResume.
+        if (aiEngine != null) {
+            aiEngine.stopPondering();
+        }
     }
 
     @Override
     protected void onDestroy() {
         super.onDestroy();
+        cancelPendingAiMove();
+        if (aiEngine != null) {
+            aiEngine.shutdown();
+        }
         if (bgMusicPlayer != null) {
             bgMusicPlayer.release();
             bgMusicPlayer = null;
@@ -305,6 +322,7 @@ public class GameActivity extends BaseActivity {
 
     /** Полный старт новой партии. */
     private void startGame() {
+        cancelPendingAiMove();
         history.clear();
         moveHistory.clear();          // <--- ВАЖНО: чистим историю ходов
         selectedRow = selectedCol = -1;
@@ -492,7 +510,8 @@ public class GameActivity extends BaseActivity {
             return;
         }
 
-        GameLogic.MoveResult result = gameLogic.applyMove(move);
+        // Легальность только что проверена — повторно ходы не генерируем.
+        GameLogic.MoveResult result = gameLogic.applyTrustedMove(move);
 
         refreshBoardViewFromLogic();
 
@@ -516,6 +535,7 @@ public class GameActivity extends BaseActivity {
 
                 boardView.selectPiece(chainRow, chainCol, true);
                 showMoveHintsForCurrentSelection();
+                maybeStartPondering();
             }
             updateUndoButtonState();
             return;
@@ -631,6 +651,7 @@ public class GameActivity extends BaseActivity {
             return;
         }
 
+        cancelPendingAiMove();
         isUndoInProgress = true;
         updateUndoButtonState();
 
@@ -681,6 +702,7 @@ public class GameActivity extends BaseActivity {
         undoMultipleMoves(movesToUndo, () -> {
             isUndoInProgress = false;
             updateUndoButtonState();
+            maybeStartPondering();
         });
     }
 
@@ -761,6 +783,7 @@ public class GameActivity extends BaseActivity {
         updateTurnText();
         updateScoreFromBoard();
         updateUndoButtonState();
+        maybeStartPondering();
     }
 
     // ------------------------------------------------------------------------
@@ -879,29 +902,68 @@ public class GameActivity extends BaseActivity {
     private void maybeMakeAIMoveIfNeeded() {
         if (!vsAi || gameLogic == null || boardState == null) return;
         if (aiEngine == null) return;
-        if (gameLogic.getCurrentPlayer() != aiPlaysFor) return;
+        if (gameLogic.getCurrentPlayer() != aiPlaysFor) {
+            // Ход человека — ИИ пока думает на его времени.
+            maybeStartPondering();
+            return;
+        }
 
         if (isFirstAIMove) {
             isFirstAIMove = false;
         }
 
+        cancelPendingAiMove();
+
         long delay = getRandomAiDelayMs();
 
-        boardView.postDelayed(() -> {
+        pendingAiStart = () -> {
+            pendingAiStart = null;
             if (!vsAi || gameLogic == null || aiEngine == null) return;
             if (gameLogic.getCurrentPlayer() != aiPlaysFor) return;
 
-            Move aiMove = computeAIMove(difficultyLevel);
-            if (aiMove != null) {
-                makeMove(aiMove);
-            }
-        }, delay);
+            // Сам перебор идёт в рабочем потоке движка, UI не блокируется.
+            // Ход вернётся сюда же (в главный поток), только если позиция не изменилась.
+            pendingAiSearch = aiEngine.chooseMoveAsync(
+                    gameLogic,
+                    AiDifficulty.fromLevelIndex(difficultyLevel),
+                    ContextCompat.getMainExecutor(this),
+                    aiMove -> {
+                        pendingAiSearch = null;
+                        if (aiMove != null) {
+                            makeMove(aiMove);
+                        }
+                    }
+            );
+        };
+        boardView.postDelayed(pendingAiStart, delay);
     }
 
-    private Move computeAIMove(int difficultyLevel) {
-        if (!vsAi || gameLogic == null || aiEngine == null) {
-            return null;
+    /**
+     * Запустить размышление ИИ на времени человека, если сейчас ход человека.
+     * Повторный вызов для той же позиции ничего не делает.
+     */
+    private void maybeStartPondering() {
+        if (!vsAi || gameLogic == null || aiEngine == null) return;
+        if (gameLogic.getCurrentPlayer() == aiPlaysFor) return;
+        if (isUndoInProgress) return;
+
+        aiEngine.startPondering(gameLogic, AiDifficulty.fromLevelIndex(difficultyLevel));
+    }
+
+    /** Отменить отложенный или уже идущий поиск хода ИИ (и размышление). */
+    private void cancelPendingAiMove() {
+        if (pendingAiStart != null) {
+            if (boardView != null) {
+                boardView.removeCallbacks(pendingAiStart);
+            }
+            pendingAiStart = null;
+        }
+        if (pendingAiSearch != null) {
+            pendingAiSearch.cancel();
+            pendingAiSearch = null;
+        }
+        if (aiEngine != null) {
+            aiEngine.stopPondering();
         }
-        return aiEngine.chooseMove(gameLogic, difficultyLevel);
     }
 }
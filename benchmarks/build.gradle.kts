@@ -0,0 +1,29 @@
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    implementation(project(":core"))
+    // TestBoards: те же позиции строками, что и в тестах
+    jmhImplementation(testFixtures(project(":core")))
+}
+
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+// Запуск: ./gradlew :benchmarks:jmh
+// Один класс или метод: ./gradlew :benchmarks:jmh -Pjmh.includes=MoveGenerationBenchmark
+// Или готовый jar: java -jar benchmarks/build/libs/benchmarks-jmh.jar -prof gc
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    providers.gradleProperty("jmh.includes").orNull?.let { includes.add(it) }
+    profilers.add("gc")
+    resultFormat.set("JSON")
+}
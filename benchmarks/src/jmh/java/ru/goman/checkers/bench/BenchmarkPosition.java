@@ -0,0 +1,56 @@
+package ru.goman.checkers.bench;
+
+import androidx.annotation.NonNull;
+
+import ru.goman.checkers.logic.BitboardPosition;
+import ru.goman.checkers.logic.GameLogic;
+import ru.goman.checkers.logic.TestBoards;
+import ru.goman.checkers.model.Player;
+
+/**
+ * Фиксированный набор позиций для замеров — чтобы результаты разных
+ * версий можно было сравнивать между собой.
+ * Доска записана строками, как в TestBoards. Везде ход белых,
+ * обязательное взятие включено.
+ */
+public enum BenchmarkPosition {
+
+    /** Начальная расстановка. */
+    OPENING(null),
+
+    /** Дебют после нескольких ходов: почти полный комплект фигур. */
+    EARLY(".b.b.b.b/b.b...b./...b.b.b/..b.b.../.w...w../w.w...w./...w.w.w/w.w.w.w."),
+
+    /** Миттельшпиль без дамок. */
+    MIDDLEGAME(".b...b.b/..b.b.../.b.b...b/......../.w...w.w/w......./......../w.w.w.w."),
+
+    /** Миттельшпиль, где у белых уже есть дамка. */
+    MIDDLEGAME_KING("...b.b.W/b.b.b.../.b.b...b/..b...../.w.....b/w......./.w.w...w/w.w.w..."),
+
+    /** Дамки с обеих сторон вперемешку с шашками. */
+    KING_ENDGAME(".B.B..../......../...b.b../....W.../.b.b..../W......./.......w/..W....."),
+
+    /** Две дамки и шашка против дамки: длинные лучи, мало фигур. */
+    KINGS_ONLY(".W....../......../.......w/......../......../..B.W.../......../........");
+
+    private final String rows;
+
+    BenchmarkPosition(String rows) {
+        this.rows = rows;
+    }
+
+    /** Новая партия из этой позиции. */
+    @NonNull
+    public GameLogic newGame() {
+        if (rows == null) {
+            return GameLogic.newGame(Player.WHITE, true);
+        }
+        return TestBoards.logic(rows, Player.WHITE);
+    }
+
+    /** Та же позиция в представлении поиска. */
+    @NonNull
+    public BitboardPosition newBitboardPosition() {
+        return BitboardPosition.fromGameLogic(newGame());
+    }
+}
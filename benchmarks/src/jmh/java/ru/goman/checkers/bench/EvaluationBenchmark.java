@@ -0,0 +1,84 @@
+package ru.goman.checkers.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import ru.goman.checkers.engine.SimpleAiStrategy;
+import ru.goman.checkers.logic.BitboardPosition;
+import ru.goman.checkers.logic.PieceSquareTable;
+
+/**
+ * Статическая оценка SimpleAiStrategy.
+ * В поиске она ведётся инкрементально в makeMove()/unmakeMove(), поэтому
+ * сравниваем три вещи: полный пересчёт по таблице, make/unmake всех ходов
+ * позиции с обновлением сумм и те же make/unmake без таблицы.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluationBenchmark {
+
+    @Param
+    public BenchmarkPosition position;
+
+    private PieceSquareTable table;
+    private BitboardPosition scored;
+    private BitboardPosition plain;
+    private long[] moves;
+    private int moveCount;
+
+    @Setup
+    public void setUp() {
+        table = SimpleAiStrategy.getScoreTable();
+        scored = position.newBitboardPosition();
+        scored.setScoreTable(table);
+        plain = position.newBitboardPosition();
+        moves = new long[BitboardPosition.MAX_MOVES];
+        moveCount = plain.generateMoves(moves);
+    }
+
+    /** Оценка с нуля: обход всех фигур по таблице. */
+    @Benchmark
+    public int fullRecount() {
+        int kings = scored.getKings();
+        return table.sum(true, scored.getWhite(), kings) - table.sum(false, scored.getBlack(), kings);
+    }
+
+    /** Оценка после каждого хода, как в листьях поиска. */
+    @Benchmark
+    public int incrementalMakeUnmake() {
+        int total = 0;
+        for (int i = 0; i < moveCount; i++) {
+            long undo = scored.makeMove(moves[i]);
+            total += scored.getWhiteScore() - scored.getBlackScore();
+            scored.unmakeMove(moves[i], undo);
+        }
+        return total;
+    }
+
+    /** Те же ходы без таблицы — цена самих make/unmake. */
+    @Benchmark
+    public long makeUnmakeWithoutScores() {
+        long total = 0L;
+        for (int i = 0; i < moveCount; i++) {
+            long undo = plain.makeMove(moves[i]);
+            total += plain.getHash();
+            plain.unmakeMove(moves[i], undo);
+        }
+        return total;
+    }
+}
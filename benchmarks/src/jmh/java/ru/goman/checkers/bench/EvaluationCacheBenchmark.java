@@ -0,0 +1,98 @@
+package ru.goman.checkers.bench;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import ru.goman.checkers.engine.AiDifficulty;
+import ru.goman.checkers.engine.SearchStats;
+import ru.goman.checkers.engine.SimpleAiStrategy;
+import ru.goman.checkers.engine.TranspositionTable;
+import ru.goman.checkers.logic.GameLogic;
+import ru.goman.checkers.model.Move;
+
+/**
+ * Кэш статических оценок: поиск с фиксированным бюджетом узлов без кэша
+ * и с кэшем разного размера. Дерево одно и то же (оценки из кэша совпадают
+ * с пересчётом), так что разница во времени — чистая цена или выигрыш кэша,
+ * а счётчики "evalCacheProbes"/"evalCacheHits" показывают долю попаданий.
+ * Оценка — разность двух инкрементальных сумм, поэтому уровни
+ * поставляются с evalCacheKb = 0; этот замер показывает, когда это изменится.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class EvaluationCacheBenchmark {
+
+    private static final int TT_SIZE_BITS = 16;
+
+    @Param({"0", "16", "64"})
+    public int evalCacheKb;
+
+    @Param({"MIDDLEGAME", "KING_ENDGAME"})
+    public BenchmarkPosition position;
+
+    private GameLogic logic;
+    private SimpleAiStrategy strategy;
+
+    /** Обращения к кэшу оценок и попадания за замер. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class CacheCounters {
+
+        public long evalCacheProbes;
+        public long evalCacheHits;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            evalCacheProbes = 0L;
+            evalCacheHits = 0L;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        logic = position.newGame();
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        strategy = new SimpleAiStrategy(new TranspositionTable(TT_SIZE_BITS,
+                TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED), 1);
+        strategy.setEvalCacheKb(evalCacheKb);
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDownInvocation() {
+        strategy.shutdown();
+    }
+
+    /** EXPERT: бюджет по узлам (600 тыс.) обычно кончается раньше времени. */
+    @Benchmark
+    public Move chooseMove(NodeCounter nodes, CacheCounters cache) {
+        Move move = strategy.chooseMove(logic, logic.getCurrentPlayer(), AiDifficulty.EXPERT);
+        SearchStats stats = strategy.getLastSearchStats();
+        if (stats != null) {
+            nodes.nodes += stats.getTotalNodes();
+            cache.evalCacheProbes += stats.getEvalCacheProbes();
+            cache.evalCacheHits += stats.getEvalCacheHits();
+        }
+        return move;
+    }
+}
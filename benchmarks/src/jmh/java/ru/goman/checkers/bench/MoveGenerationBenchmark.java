@@ -0,0 +1,102 @@
+package ru.goman.checkers.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import ru.goman.checkers.logic.BitboardPosition;
+import ru.goman.checkers.logic.GameLogic;
+import ru.goman.checkers.logic.Perft;
+import ru.goman.checkers.model.BoardState;
+
+/**
+ * Генераторы ходов: GameLogic (UI и правила) и BitboardPosition (поиск).
+ * Одиночная генерация — в наносекундах на вызов, perft — в узлах в секунду
+ * (счётчик "nodes").
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGenerationBenchmark {
+
+    private static final int GAME_LOGIC_PERFT_DEPTH = 3;
+    private static final int BITBOARD_PERFT_DEPTH = 4;
+
+    @Param
+    public BenchmarkPosition position;
+
+    private GameLogic logic;
+    private BoardState board;
+    private int touchCode;
+    private BitboardPosition bitboard;
+    private long[][] moveBuffers;
+
+    @Setup
+    public void setUp() {
+        logic = position.newGame();
+        board = logic.getBoard();
+        touchCode = board.getCode(0, 1);
+        bitboard = position.newBitboardPosition();
+        moveBuffers = new long[BITBOARD_PERFT_DEPTH + 1][BitboardPosition.MAX_MOVES];
+    }
+
+    /** Полный пересчёт ходов GameLogic (recomputeCurrentMoves()). */
+    @Benchmark
+    public int[] gameLogicMoves() {
+        // Запись того же кода сбрасывает кэш ходов GameLogic
+        // (см. BoardState.getModificationCount()), позиция не меняется.
+        board.setCode(0, 1, touchCode);
+        return logic.getAllMoveCodesForCurrentPlayer();
+    }
+
+    @Benchmark
+    public int bitboardMoves() {
+        return bitboard.generateMoves(moveBuffers[0]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public long gameLogicPerft(NodeCounter counter) {
+        long nodes = Perft.count(logic, GAME_LOGIC_PERFT_DEPTH);
+        counter.nodes += nodes;
+        return nodes;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public long bitboardPerft(NodeCounter counter) {
+        long nodes = perft(BITBOARD_PERFT_DEPTH);
+        counter.nodes += nodes;
+        return nodes;
+    }
+
+    private long perft(int depth) {
+        long[] moves = moveBuffers[depth];
+        int count = bitboard.generateMoves(moves);
+        if (depth == 1) {
+            return count;
+        }
+        long nodes = 0L;
+        for (int i = 0; i < count; i++) {
+            long undo = bitboard.makeMove(moves[i]);
+            nodes += perft(depth - 1);
+            bitboard.unmakeMove(moves[i], undo);
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,80 @@
+package ru.goman.checkers.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import ru.goman.checkers.engine.AiDifficulty;
+import ru.goman.checkers.engine.SearchStats;
+import ru.goman.checkers.engine.SimpleAiStrategy;
+import ru.goman.checkers.engine.TranspositionTable;
+import ru.goman.checkers.logic.GameLogic;
+import ru.goman.checkers.model.Move;
+
+/**
+ * Задержка полного chooseMove() на каждом уровне сложности — то, сколько
+ * пользователь ждёт ответа ИИ. Каждый вызов начинается с пустой таблицы
+ * транспозиций, чтобы замеры не зависели от предыдущих.
+ * Узлы поиска (SearchStats) идут в счётчик "nodes".
+ * Число потоков поиска — параметр: -p threads=4.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class SearchBenchmark {
+
+    private static final int TT_SIZE_BITS = 16;
+
+    @Param
+    public AiDifficulty difficulty;
+
+    @Param({"OPENING", "MIDDLEGAME", "KING_ENDGAME"})
+    public BenchmarkPosition position;
+
+    @Param({"1"})
+    public int threads;
+
+    private GameLogic logic;
+    private SimpleAiStrategy strategy;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        logic = position.newGame();
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        strategy = new SimpleAiStrategy(new TranspositionTable(TT_SIZE_BITS,
+                TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED), threads);
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDownInvocation() {
+        strategy.shutdown();
+    }
+
+    @Benchmark
+    public Move chooseMove(NodeCounter counter) {
+        Move move = strategy.chooseMove(logic, logic.getCurrentPlayer(), difficulty);
+        SearchStats stats = strategy.getLastSearchStats();
+        if (stats != null) {
+            counter.nodes += stats.getTotalNodes();
+        }
+        return move;
+    }
+}
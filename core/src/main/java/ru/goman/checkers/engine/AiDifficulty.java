@@ -0,0 +1,183 @@
+package ru.goman.checkers.engine;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Уровень сложности ИИ.
+ * levelIndex — целочисленное значение (0..4), которое удобно хранить во внешнем коде.
+ * searchDepth — для "глубоких" уровней: предельная глубина итеративного углубления
+ * в полуходах (поиск идёт 1, 2, 3, ... пока хватает бюджета, но не глубже).
+ * timeBudgetMs / nodeBudget — бюджет на один ход: как только он исчерпан,
+ * берётся лучший ход последней полностью завершённой итерации.
+ * 0 — без ограничения.
+ * allowRandomness — можно ли использовать рандом между равноценными ходами.
+ * Выборочный поиск (0 — выключено):
+ *  - lmrMinMoveIndex — с какого по счёту хода узла тихие ходы сначала
+ *    считаются на полуход мельче (late move reductions);
+ *  - futilityMargin — запас futility pruning у листьев: если даже оценка
+ *    плюс запас не дотягивает до alpha, тихие ходы не перебираются;
+ *  - razorMargin — запас razoring: при оценке намного ниже alpha узел
+ *    сразу сводится к квази-поиску.
+ * evalCacheKb — размер кэша статических оценок на поток поиска, КБ
+ * (0 — без кэша); долю попаданий показывает SearchStats. Пока оценка —
+ * разность двух инкрементальных сумм, кэш дороже пересчёта, поэтому
+ * у всех уровней он выключен (замер — EvaluationCacheBenchmark).
+ */
+public enum AiDifficulty {
+
+    /**
+     * EASY:
+     *  - без поиска вперёд, просто случайный допустимый ход.
+     */
+    EASY(0, 0, 0L, 0L, true, 0, 0, 0, 0),
+
+    /**
+     * MEDIUM:
+     *  - один ход вперёд, смотрим материал;
+     *  - между равноценными ходами добавляем немного случайности.
+     */
+    MEDIUM(1, 1, 0L, 0L, true, 0, 0, 0, 0),
+
+    /**
+     * HARD:
+     *  - минимакс с альфа-бета, умеренная глубина и короткое раздумье;
+     *  - без выборочного поиска: предельную глубину уровень и так
+     *    обычно успевает досчитать, а сокращения только теряют точность.
+     */
+    HARD(2, 6, 250L, 150_000L, false, 0, 0, 0, 0),
+
+    /**
+     * EXPERT:
+     *  - минимакс с альфа-бета, повышенная глубина.
+     */
+    EXPERT(3, 12, 700L, 600_000L, false, 4, 120, 250, 0),
+
+    /**
+     * GRANDMASTER:
+     *  - максимальная глубина, фактически ограниченная только бюджетом
+     *    времени/узлов — так задержка хода одинаково предсказуема
+     *    на любом телефоне. При необходимости бюджет можно подкрутить.
+     */
+    GRANDMASTER(4, 40, 1_500L, 2_000_000L, false, 3, 100, 220, 0);
+
+    private final int levelIndex;
+    private final int searchDepth;
+    private final long timeBudgetMs;
+    private final long nodeBudget;
+    private final boolean allowRandomness;
+    private final int lmrMinMoveIndex;
+    private final int futilityMargin;
+    private final int razorMargin;
+    private final int evalCacheKb;
+
+    AiDifficulty(int levelIndex,
+                 int searchDepth,
+                 long timeBudgetMs,
+                 long nodeBudget,
+                 boolean allowRandomness,
+                 int lmrMinMoveIndex,
+                 int futilityMargin,
+                 int razorMargin,
+                 int evalCacheKb) {
+        this.levelIndex = levelIndex;
+        this.searchDepth = searchDepth;
+        this.timeBudgetMs = timeBudgetMs;
+        this.nodeBudget = nodeBudget;
+        this.allowRandomness = allowRandomness;
+        this.lmrMinMoveIndex = lmrMinMoveIndex;
+        this.futilityMargin = futilityMargin;
+        this.razorMargin = razorMargin;
+        this.evalCacheKb = evalCacheKb;
+    }
+
+    /**
+     * Целочисленный индекс сложности (0..4),
+     * который удобно хранить/передавать снаружи (например, через Intent).
+     */
+    public int getLevelIndex() {
+        return levelIndex;
+    }
+
+    /**
+     * Предельная глубина поиска (в полуходах).
+     * 0 — без поиска вперёд (чистый рандом), 1 — один ход вперёд,
+     * больше — верхняя граница итеративного углубления.
+     */
+    public int getSearchDepth() {
+        return searchDepth;
+    }
+
+    /**
+     * Бюджет времени на ход, мс (0 — не ограничен).
+     */
+    public long getTimeBudgetMs() {
+        return timeBudgetMs;
+    }
+
+    /**
+     * Бюджет узлов поиска на ход (0 — не ограничен).
+     */
+    public long getNodeBudget() {
+        return nodeBudget;
+    }
+
+    /**
+     * Можно ли использовать случайность между равноценными ходами.
+     */
+    public boolean isRandomnessAllowed() {
+        return allowRandomness;
+    }
+
+    /**
+     * С какого по счёту хода узла (0 — первый) тихие ходы проверяются
+     * сначала с уменьшенной глубиной. 0 — без сокращений.
+     */
+    public int getLmrMinMoveIndex() {
+        return lmrMinMoveIndex;
+    }
+
+    /**
+     * Запас futility pruning на каждый оставшийся полуход (в единицах оценки,
+     * простая шашка — 100). 0 — выключено.
+     */
+    public int getFutilityMargin() {
+        return futilityMargin;
+    }
+
+    /**
+     * Запас razoring на каждый оставшийся полуход. 0 — выключено.
+     */
+    public int getRazorMargin() {
+        return razorMargin;
+    }
+
+    /**
+     * Размер кэша статических оценок на один поток поиска, КБ. 0 — без кэша.
+     */
+    public int getEvalCacheKb() {
+        return evalCacheKb;
+    }
+
+    /**
+     * Безопасное преобразование int → AiDifficulty.
+     * Меньше минимума → EASY, больше максимума → GRANDMASTER.
+     */
+    @NonNull
+    public static AiDifficulty fromLevelIndex(int levelIndex) {
+        for (AiDifficulty d : values()) {
+            if (d.levelIndex == levelIndex) {
+                return d;
+            }
+        }
+
+        if (levelIndex <= EASY.levelIndex) {
+            return EASY;
+        }
+        if (levelIndex >= GRANDMASTER.levelIndex) {
+            return GRANDMASTER;
+        }
+
+        // На всякий случай, если попадём "между" известными индексами.
+        return MEDIUM;
+    }
+}
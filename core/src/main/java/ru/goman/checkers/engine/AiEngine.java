@@ -0,0 +1,392 @@
+package ru.goman.checkers.engine;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import ru.goman.checkers.logic.GameLogic;
+import ru.goman.checkers.model.Move;
+import ru.goman.checkers.model.Player;
+
+/**
+ * Движок ИИ.
+ * Знает:
+ *  - за какой цвет играет ИИ;
+ *  - какие стратегии доступны;
+ *  - как сопоставить уровень сложности с конкретной стратегией.
+ * Сам по себе не зависит от Android и ничего не рисует.
+ * Поиск можно запускать асинхронно (chooseMoveAsync): он идёт
+ * в отдельном рабочем потоке, а результат отдаётся через переданный Executor
+ * (например, главный поток UI).
+ * Пока думает человек, движок может "думать на чужом времени" (startPondering):
+ * тот же рабочий поток перебирает позицию с ходом человека и заполняет
+ * таблицу транспозиций стратегии. Какой бы ход человек ни сделал, позиция
+ * после него — уже просчитанное поддерево, и поиск ИИ либо сразу упирается
+ * в готовые оценки, либо за то же время уходит глубже.
+ * Любой настоящий поиск хода сначала останавливает размышление.
+ */
+public final class AiEngine {
+
+    private static final String SEARCH_THREAD_NAME = "checkers-ai-search";
+
+    /**
+     * Колбэк с результатом асинхронного поиска.
+     */
+    public interface MoveCallback {
+
+        /**
+         * Вызывается на callbackExecutor, только если поиск не отменён
+         * и позиция с момента запуска не изменилась.
+         *
+         * @param move выбранный ход или null, если ходов нет.
+         */
+        void onMoveChosen(@Nullable Move move);
+    }
+
+    /**
+     * Запущенный асинхронный поиск.
+     * cancel() останавливает перебор кооперативно (через SearchControl)
+     * и гарантирует, что колбэк уже не будет вызван.
+     */
+    public static final class SearchTask {
+
+        @NonNull
+        private final SearchControl control = new SearchControl();
+
+        private volatile boolean cancelled;
+
+        @Nullable
+        private volatile Future<?> future;
+
+        private SearchTask() {
+        }
+
+        /** Отменить поиск. Повторный вызов ничего не делает. */
+        public void cancel() {
+            cancelled = true;
+            control.stop();
+            Future<?> f = future;
+            if (f != null) {
+                f.cancel(false);
+            }
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /** Завершился ли поиск (успешно, с ошибкой или отменой). */
+        public boolean isDone() {
+            Future<?> f = future;
+            return f != null && f.isDone();
+        }
+    }
+
+    @NonNull
+    private final Player aiPlayer;
+
+    @NonNull
+    private final AiStrategy simpleStrategy;
+
+    /** Рабочий поток поиска; создаётся лениво при первом асинхронном запросе. */
+    @Nullable
+    private ExecutorService searchExecutor;
+
+    /** Управление текущим размышлением на времени человека (null — не идёт). */
+    @Nullable
+    private SearchControl ponderControl;
+
+    /**
+     * Задача последнего размышления. После stopPondering() остаётся здесь,
+     * пока перебор сворачивается: синхронный поиск и shutdown() её дожидаются.
+     */
+    @Nullable
+    private Future<?> ponderFuture;
+
+    /** Позиция, над которой идёт размышление. */
+    @Nullable
+    private GameLogic.GameSnapshot ponderState;
+
+    /**
+     * Создаёт движок ИИ для указанного цвета.
+     * По умолчанию используется SimpleAiStrategy.
+     */
+    public AiEngine(@NonNull Player aiPlayer) {
+        this(aiPlayer, new SimpleAiStrategy());
+    }
+
+    /**
+     * Конструктор с возможностью подменить стратегию (для тестов / будущих улучшений).
+     */
+    public AiEngine(@NonNull Player aiPlayer,
+                    @NonNull AiStrategy simpleStrategy) {
+
+        this.aiPlayer = Objects.requireNonNull(aiPlayer, "aiPlayer");
+        this.simpleStrategy = Objects.requireNonNull(simpleStrategy, "simpleStrategy");
+    }
+
+    /**
+     * Цвет, за который играет ИИ.
+     */
+    @NonNull
+    public Player getAiPlayer() {
+        return aiPlayer;
+    }
+
+    /**
+     * Удобный вход: уровень сложности приходит как int (0..4).
+     */
+    @Nullable
+    public Move chooseMove(@NonNull GameLogic logic, int difficultyLevel) {
+        AiDifficulty difficulty = AiDifficulty.fromLevelIndex(difficultyLevel);
+        return chooseMove(logic, difficulty);
+    }
+
+    /**
+     * Основной метод: выбор хода для ИИ при заданной сложности.
+     * Сейчас все уровни используют SimpleAiStrategy, но позже
+     * здесь можно сделать switch по difficulty и подключить
+     * более тяжёлые/быстрые стратегии.
+     */
+    @Nullable
+    public Move chooseMove(@NonNull GameLogic logic,
+                           @NonNull AiDifficulty difficulty) {
+        return chooseMove(logic, difficulty, new SearchControl());
+    }
+
+    /**
+     * Синхронный выбор хода с возможностью остановить поиск извне.
+     */
+    @Nullable
+    public Move chooseMove(@NonNull GameLogic logic,
+                           @NonNull AiDifficulty difficulty,
+                           @NonNull SearchControl control) {
+
+        Objects.requireNonNull(logic, "logic");
+        Objects.requireNonNull(difficulty, "difficulty");
+        Objects.requireNonNull(control, "control");
+
+        // На всякий случай: если сейчас не очередь ИИ — ход не выбираем.
+        if (logic.getCurrentPlayer() != aiPlayer) {
+            return null;
+        }
+
+        // Стратегия не рассчитана на параллельные вызовы: размышление
+        // в рабочем потоке должно закончиться до синхронного поиска.
+        awaitQuietly(stopPonderingInternal());
+
+        return simpleStrategy.chooseMove(logic, aiPlayer, difficulty, control);
+    }
+
+    /**
+     * Асинхронный выбор хода.
+     * Должен вызываться из потока, который владеет logic (обычно UI):
+     * здесь снимается копия позиции, и дальше поиск идёт только по ней,
+     * живой объект рабочий поток не трогает.
+     * Результат передаётся в callback через callbackExecutor, если:
+     *  - задача не отменена (SearchTask.cancel());
+     *  - позиция в logic совпадает с той, что была на момент запуска.
+     *
+     * @return задача, через которую поиск можно отменить.
+     */
+    @NonNull
+    public SearchTask chooseMoveAsync(@NonNull GameLogic logic,
+                                      @NonNull AiDifficulty difficulty,
+                                      @NonNull Executor callbackExecutor,
+                                      @NonNull MoveCallback callback) {
+
+        Objects.requireNonNull(logic, "logic");
+        Objects.requireNonNull(difficulty, "difficulty");
+        Objects.requireNonNull(callbackExecutor, "callbackExecutor");
+        Objects.requireNonNull(callback, "callback");
+
+        // Рабочий поток один, поэтому поиск начнётся, как только
+        // остановленное размышление освободит поток.
+        stopPondering();
+
+        final SearchTask task = new SearchTask();
+        final GameLogic.GameSnapshot startState = logic.createSnapshot();
+        final GameLogic searchCopy = logic.copy();
+
+        task.future = getSearchExecutor().submit(() -> {
+            if (task.isCancelled()) {
+                return;
+            }
+
+            final Move move;
+            try {
+                move = searchCopy.getCurrentPlayer() == aiPlayer
+                        ? simpleStrategy.chooseMove(searchCopy, aiPlayer, difficulty, task.control)
+                        : null;
+            } catch (RuntimeException e) {
+                // Ошибку пробрасываем в поток колбэка, чтобы она не потерялась в Future.
+                callbackExecutor.execute(() -> {
+                    if (!task.isCancelled()) {
+                        throw e;
+                    }
+                });
+                return;
+            }
+
+            callbackExecutor.execute(() -> {
+                if (task.isCancelled()) {
+                    return;
+                }
+                if (!logic.isSameStateAs(startState)) {
+                    // Позиция изменилась (Undo, рестарт и т.п.) — ход устарел.
+                    return;
+                }
+                callback.onMoveChosen(move);
+            });
+        });
+
+        return task;
+    }
+
+    // ------------------------------------------------------------------
+    // Размышление на времени человека (pondering)
+    // ------------------------------------------------------------------
+
+    /**
+     * Начать размышление над позицией, в которой ходит человек.
+     * Вызывается из потока, который владеет logic (обычно UI), — как и
+     * chooseMoveAsync, работает с копией. Если размышление над этой же
+     * позицией уже идёт, ничего не делает; над другой — перезапускает.
+     * Для уровней без поиска вперёд (EASY / MEDIUM), в очередь ИИ
+     * и в законченной партии размышлять не о чем.
+     */
+    public synchronized void startPondering(@NonNull GameLogic logic,
+                                            @NonNull AiDifficulty difficulty) {
+        Objects.requireNonNull(logic, "logic");
+        Objects.requireNonNull(difficulty, "difficulty");
+
+        if (ponderControl != null && ponderState != null && logic.isSameStateAs(ponderState)) {
+            return;
+        }
+        stopPonderingInternal();
+
+        if (difficulty.getSearchDepth() < 2
+                || logic.getCurrentPlayer() == aiPlayer
+                || logic.getAllMoveCodesForCurrentPlayer().length == 0) {
+            return;
+        }
+
+        final SearchControl control = new SearchControl();
+        final GameLogic ponderCopy = logic.copy();
+        ponderControl = control;
+        ponderState = logic.createSnapshot();
+        ponderFuture = getSearchExecutor().submit(() -> {
+            if (!control.isCancelled()) {
+                simpleStrategy.ponder(ponderCopy, difficulty, control);
+            }
+        });
+    }
+
+    /**
+     * Остановить размышление (человек походил, экран ушёл в onPause и т.п.).
+     * Не ждёт, пока перебор на самом деле свернётся: асинхронный поиск
+     * в том же рабочем потоке начнётся только после этого, а синхронный
+     * chooseMove() и shutdown() дожидаются остановленной задачи.
+     */
+    public void stopPondering() {
+        stopPonderingInternal();
+    }
+
+    /** Идёт ли сейчас размышление. */
+    public synchronized boolean isPondering() {
+        return ponderControl != null && ponderFuture != null && !ponderFuture.isDone();
+    }
+
+    /** Остановить размышление; возвращает его задачу, чтобы её можно было дождаться. */
+    @Nullable
+    private synchronized Future<?> stopPonderingInternal() {
+        if (ponderControl != null) {
+            ponderControl.stop();
+        }
+        ponderControl = null;
+        ponderState = null;
+        return ponderFuture;
+    }
+
+    /** Дождаться остановленной задачи; её ошибки здесь не интересны. */
+    private static void awaitQuietly(@Nullable Future<?> future) {
+        if (future == null) {
+            return;
+        }
+        boolean interrupted = false;
+        while (true) {
+            try {
+                future.get();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            } catch (ExecutionException | CancellationException e) {
+                break;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Статистика последнего поиска (узлы по потокам, ускорение параллельного
+     * поиска) или null, если её нет или стратегия её не ведёт.
+     */
+    @Nullable
+    public SearchStats getLastSearchStats() {
+        if (simpleStrategy instanceof SimpleAiStrategy) {
+            return ((SimpleAiStrategy) simpleStrategy).getLastSearchStats();
+        }
+        return null;
+    }
+
+    /**
+     * Остановить рабочий поток (и помощников параллельного поиска),
+     * размышление тоже прекращается: метод дожидается, пока оно свернётся,
+     * чтобы помощники не останавливались под идущим перебором.
+     * После вызова асинхронный поиск недоступен до следующего chooseMoveAsync
+     * (поток будет создан заново).
+     */
+    public synchronized void shutdown() {
+        Future<?> ponder = stopPonderingInternal();
+        ponderFuture = null;
+        if (searchExecutor != null) {
+            // Задачи, которые так и не начались, отменяем: иначе их Future
+            // никогда не завершится и ждать его было бы нельзя.
+            List<Runnable> pending = searchExecutor.shutdownNow();
+            for (Runnable runnable : pending) {
+                if (runnable instanceof Future) {
+                    ((Future<?>) runnable).cancel(false);
+                }
+            }
+            searchExecutor = null;
+        }
+        awaitQuietly(ponder);
+        if (simpleStrategy instanceof SimpleAiStrategy) {
+            ((SimpleAiStrategy) simpleStrategy).shutdown();
+        }
+    }
+
+    @NonNull
+    private synchronized ExecutorService getSearchExecutor() {
+        if (searchExecutor == null) {
+            searchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, SEARCH_THREAD_NAME);
+                thread.setDaemon(true);
+                // Чуть ниже обычного, чтобы не конкурировать с отрисовкой.
+                thread.setPriority(Thread.NORM_PRIORITY - 1);
+                return thread;
+            });
+        }
+        return searchExecutor;
+    }
+}
@@ -0,0 +1,57 @@
+package ru.goman.checkers.engine;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import ru.goman.checkers.logic.GameLogic;
+import ru.goman.checkers.model.Move;
+import ru.goman.checkers.model.Player;
+
+/**
+ * Стратегия выбора хода для ИИ.
+ * Абсолютно независима от Android / UI, работает только с GameLogic.
+ */
+public interface AiStrategy {
+
+    /**
+     * Выбрать ход ИИ в текущем положении.
+     *
+     * @param logic      текущая логика игры (живой объект).
+     *                   Стратегия обязана восстанавливать состояние через снапшоты,
+     *                   чтобы после выхода из метода позиция НЕ изменилась.
+     * @param aiPlayer   цвет, за который играет ИИ (WHITE / BLACK).
+     * @param difficulty уровень сложности.
+     * @return выбранный ход или null, если допустимых ходов нет.
+     */
+    @Nullable
+    Move chooseMove(@NonNull GameLogic logic,
+                    @NonNull Player aiPlayer,
+                    @NonNull AiDifficulty difficulty);
+
+    /**
+     * То же, что chooseMove(logic, aiPlayer, difficulty), но с возможностью
+     * остановить поиск извне (см. SearchControl).
+     * Если поиск был остановлен, результат может быть null — вызывающий
+     * код в этом случае ход не применяет.
+     * Реализация по умолчанию остановку не поддерживает.
+     */
+    @Nullable
+    default Move chooseMove(@NonNull GameLogic logic,
+                            @NonNull Player aiPlayer,
+                            @NonNull AiDifficulty difficulty,
+                            @NonNull SearchControl control) {
+        return chooseMove(logic, aiPlayer, difficulty);
+    }
+
+    /**
+     * Подумать над позицией, пока ходит соперник ИИ, чтобы следующий
+     * chooseMove воспользовался накопленным (например, таблицей транспозиций).
+     * Работает, пока не остановят через control; бюджета уровня не соблюдает.
+     * Вызывается в том же рабочем потоке, что и поиск, с копией позиции.
+     * Реализация по умолчанию ничего не делает.
+     */
+    default void ponder(@NonNull GameLogic logic,
+                        @NonNull AiDifficulty difficulty,
+                        @NonNull SearchControl control) {
+    }
+}
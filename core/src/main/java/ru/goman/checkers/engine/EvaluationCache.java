@@ -0,0 +1,80 @@
+package ru.goman.checkers.engine;
+
+/**
+ * Кэш статических оценок по хешу Zobrist: в квази-поиске одна и та же
+ * позиция часто достигается разным порядком взятий.
+ * Один long[] без объектов, запись:
+ *  - биты 0..31  — оценка (int) с точки зрения белых;
+ *  - биты 32..63 — старшие 32 бита хеша, для проверки.
+ * Индекс — младшие биты хеша, при коллизии запись просто вытесняется
+ * (кэш "с потерями"). Пустая ячейка — 0, поэтому позиции, у которых
+ * запись целиком совпала бы с нулём, просто никогда не попадают в кэш.
+ * Размер задаётся в килобайтах (см. AiDifficulty.getEvalCacheKb()),
+ * счётчики попаданий — чтобы подбирать размер под уровень.
+ * Экземпляр не потокобезопасен: у каждого потока поиска свой.
+ */
+final class EvaluationCache {
+
+    /** Промах probe(). Реальная оценка такой не бывает. */
+    static final int MISS = Integer.MIN_VALUE;
+
+    private static final int BYTES_PER_ENTRY = 8;
+    private static final int KEY_SHIFT = 32;
+    private static final long SCORE_MASK = 0xFFFFFFFFL;
+
+    private final long[] entries;
+    private final int indexMask;
+    private final int sizeKb;
+
+    private long probes;
+    private long hits;
+
+    /**
+     * @param sizeKb размер в килобайтах (> 0); число записей округляется
+     *               вниз до степени двойки
+     */
+    EvaluationCache(int sizeKb) {
+        if (sizeKb <= 0) {
+            throw new IllegalArgumentException("sizeKb must be > 0, got " + sizeKb);
+        }
+        int size = Integer.highestOneBit(sizeKb * 1024 / BYTES_PER_ENTRY);
+        this.entries = new long[size];
+        this.indexMask = size - 1;
+        this.sizeKb = sizeKb;
+    }
+
+    int getSizeKb() {
+        return sizeKb;
+    }
+
+    /**
+     * Оценка позиции с точки зрения белых или MISS.
+     */
+    int probe(long hash) {
+        probes++;
+        long entry = entries[(int) hash & indexMask];
+        if (entry == 0L || (entry >>> KEY_SHIFT) != (hash >>> KEY_SHIFT)) {
+            return MISS;
+        }
+        hits++;
+        return (int) entry;
+    }
+
+    void store(long hash, int whiteScore) {
+        entries[(int) hash & indexMask] = (hash & ~SCORE_MASK) | (whiteScore & SCORE_MASK);
+    }
+
+    /** Обнулить счётчики (записи остаются: статическая оценка от поиска не зависит). */
+    void resetStats() {
+        probes = 0L;
+        hits = 0L;
+    }
+
+    long getProbes() {
+        return probes;
+    }
+
+    long getHits() {
+        return hits;
+    }
+}
@@ -0,0 +1,181 @@
+package ru.goman.checkers.engine;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+
+import ru.goman.checkers.logic.Bitboards;
+
+/**
+ * Сортировка ходов для альфа-беты одного потока поиска.
+ * Чем раньше попадается лучший ход, тем больше отсечений, поэтому
+ * ходы перебираются в порядке убывания оценки:
+ *  1. ход из таблицы транспозиций;
+ *  2. взятия — чем длиннее цепочка, тем раньше;
+ *  3. превращения в дамку;
+ *  4. два "хода-убийцы" (killer moves) этого полухода — тихие ходы,
+ *     которые недавно дали отсечение в соседних ветках;
+ *  5. остальные тихие ходы — по таблице истории (history heuristic):
+ *     чем чаще ход from→to давал отсечение и чем глубже, тем выше.
+ * Оценки пишутся в свой буфер на полуход, а ходы выбираются по одному
+ * (pickNext) — после раннего отсечения хвост так и не сортируется.
+ * Статистика отсечений (getCutoffs и др.) показывает, насколько хорош порядок:
+ * в идеале почти все отсечения дают первый же ход.
+ * Экземпляр не потокобезопасен: у каждого потока поиска свой.
+ */
+final class MoveOrderer {
+
+    private static final int HASH_MOVE_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 28;
+    /** Сдвиг длины цепочки: даже 12 взятых фигур не дотягивают до HASH_MOVE_SCORE. */
+    private static final int CAPTURE_LENGTH_SHIFT = 20;
+    private static final int PROMOTION_SCORE = 1 << 27;
+    private static final int KILLER_1_SCORE = 1 << 26;
+    private static final int KILLER_2_SCORE = 1 << 25;
+    /** Потолок истории: при переполнении вся таблица делится пополам. */
+    private static final int HISTORY_MAX = 1 << 20;
+
+    private static final int SIDES = 2;
+    private static final int KILLERS_PER_PLY = 2;
+
+    private final int maxPly;
+
+    /** Оценки ходов по полуходам, параллельно буферам ходов поиска. */
+    @NonNull
+    private final int[][] scoreStack;
+
+    /** killers[ply * 2], killers[ply * 2 + 1] — полные ходы Bitboards (0 — пусто). */
+    @NonNull
+    private final long[] killers;
+
+    /** history[side * 1024 + from * 32 + to]. */
+    @NonNull
+    private final int[] history = new int[SIDES * Bitboards.SQUARES * Bitboards.SQUARES];
+
+    private long cutoffs;
+    private long firstMoveCutoffs;
+
+    MoveOrderer(int maxPly, int maxMoves) {
+        this.maxPly = maxPly;
+        this.scoreStack = new int[maxPly][maxMoves];
+        this.killers = new long[maxPly * KILLERS_PER_PLY];
+    }
+
+    /**
+     * Начало нового поиска: ходы-убийцы забываем (они привязаны к полуходам
+     * прошлой позиции), историю ослабляем вдвое, статистику обнуляем.
+     */
+    void newSearch() {
+        Arrays.fill(killers, 0L);
+        for (int i = 0; i < history.length; i++) {
+            history[i] >>= 1;
+        }
+        cutoffs = 0L;
+        firstMoveCutoffs = 0L;
+    }
+
+    /**
+     * Оценить ходы узла на глубине ply.
+     *
+     * @param hashMove подпись хода из таблицы транспозиций (0 — нет); вперёд
+     *                 встают все совпавшие с ней ходы, между собой — в порядке генерации
+     * @param white    ходят белые
+     */
+    void scoreMoves(@NonNull long[] moves, int count, int ply, int hashMove, boolean white) {
+        int[] scores = scoreStack[ply];
+        int killerBase = ply * KILLERS_PER_PLY;
+        long killer1 = killers[killerBase];
+        long killer2 = killers[killerBase + 1];
+        int historyBase = white ? 0 : Bitboards.SQUARES * Bitboards.SQUARES;
+
+        for (int i = 0; i < count; i++) {
+            long move = moves[i];
+            int score;
+            if (hashMove != 0 && Bitboards.signature(move) == hashMove) {
+                score = HASH_MOVE_SCORE;
+            } else if (Bitboards.pathIsCapture(move)) {
+                score = CAPTURE_SCORE
+                        + (Integer.bitCount(Bitboards.pathCapturedMask(move)) << CAPTURE_LENGTH_SHIFT);
+                if (Bitboards.pathPromotes(move)) {
+                    // При равной длине цепочки — та, что кончается дамкой.
+                    score += 1 << (CAPTURE_LENGTH_SHIFT - 1);
+                }
+            } else if (Bitboards.pathPromotes(move)) {
+                score = PROMOTION_SCORE;
+            } else if (move == killer1) {
+                score = KILLER_1_SCORE;
+            } else if (move == killer2) {
+                score = KILLER_2_SCORE;
+            } else {
+                score = history[historyBase + historyIndex(move)];
+            }
+            scores[i] = score;
+        }
+    }
+
+    /**
+     * Поставить на место index лучший из ещё не перебранных ходов
+     * (частичная сортировка выбором) и вернуть его.
+     */
+    long pickNext(@NonNull long[] moves, int count, int index, int ply) {
+        int[] scores = scoreStack[ply];
+        int best = index;
+        for (int i = index + 1; i < count; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        if (best != index) {
+            long move = moves[best];
+            moves[best] = moves[index];
+            moves[index] = move;
+            int score = scores[best];
+            scores[best] = scores[index];
+            scores[index] = score;
+        }
+        return moves[index];
+    }
+
+    /**
+     * Ход move на месте moveIndex дал отсечение в узле глубины depth.
+     * Тихий ход запоминаем как ход-убийцу и поднимаем ему историю.
+     */
+    void onCutoff(long move, int ply, int depth, int moveIndex, boolean white) {
+        cutoffs++;
+        if (moveIndex == 0) {
+            firstMoveCutoffs++;
+        }
+
+        if (Bitboards.pathIsCapture(move) || ply >= maxPly) {
+            return;
+        }
+
+        int killerBase = ply * KILLERS_PER_PLY;
+        if (killers[killerBase] != move) {
+            killers[killerBase + 1] = killers[killerBase];
+            killers[killerBase] = move;
+        }
+
+        int index = (white ? 0 : Bitboards.SQUARES * Bitboards.SQUARES) + historyIndex(move);
+        history[index] += depth * depth;
+        if (history[index] >= HISTORY_MAX) {
+            for (int i = 0; i < history.length; i++) {
+                history[i] >>= 1;
+            }
+        }
+    }
+
+    /** Сколько узлов закончилось отсечением с начала поиска. */
+    long getCutoffs() {
+        return cutoffs;
+    }
+
+    /** Сколько из них дал первый же перебранный ход. */
+    long getFirstMoveCutoffs() {
+        return firstMoveCutoffs;
+    }
+
+    private static int historyIndex(long move) {
+        return Bitboards.pathFrom(move) * Bitboards.SQUARES + Bitboards.pathTo(move);
+    }
+}
@@ -0,0 +1,99 @@
+package ru.goman.checkers.engine;
+
+/**
+ * Управление одним запуском поиска ИИ.
+ * Две причины остановиться:
+ *  - внешняя отмена (stop()) — результат поиска не нужен вовсе;
+ *  - исчерпан бюджет времени/узлов (startBudget()) — поиск сворачивается
+ *    и отдаёт лучший ход последней завершённой итерации.
+ * Остановка кооперативная: стратегия на каждом узле вызывает countNode()
+ * и опрашивает isStopped(). stop() можно вызывать из любого потока,
+ * всё остальное — только из потока поиска.
+ */
+public final class SearchControl {
+
+    /** Как часто (в узлах) смотреть на часы: System.nanoTime() не бесплатный. */
+    private static final int CLOCK_CHECK_INTERVAL = 1024;
+
+    private volatile boolean stopped;
+
+    private boolean budgetExhausted;
+    private long startNanos;
+    private long timeBudgetNanos;
+    private long nodeBudget;
+    private long nodes;
+
+    /**
+     * Попросить поиск остановиться как можно скорее (внешняя отмена).
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Был ли поиск отменён извне через stop().
+     */
+    public boolean isCancelled() {
+        return stopped;
+    }
+
+    /**
+     * Нужно ли прекратить перебор (отмена или кончился бюджет).
+     */
+    public boolean isStopped() {
+        return stopped || budgetExhausted;
+    }
+
+    /**
+     * Запустить отсчёт бюджета.
+     *
+     * @param timeBudgetMs время в мс, 0 — без ограничения
+     * @param nodeBudget   количество узлов, 0 — без ограничения
+     */
+    public void startBudget(long timeBudgetMs, long nodeBudget) {
+        this.startNanos = System.nanoTime();
+        this.timeBudgetNanos = timeBudgetMs * 1_000_000L;
+        this.nodeBudget = nodeBudget;
+        this.nodes = 0L;
+        this.budgetExhausted = false;
+    }
+
+    /**
+     * Учесть очередной узел поиска и при необходимости проверить бюджет.
+     */
+    public void countNode() {
+        nodes++;
+        if (nodeBudget > 0 && nodes >= nodeBudget) {
+            budgetExhausted = true;
+        }
+        if (timeBudgetNanos > 0 && (nodes & (CLOCK_CHECK_INTERVAL - 1)) == 0
+                && System.nanoTime() - startNanos >= timeBudgetNanos) {
+            budgetExhausted = true;
+        }
+    }
+
+    /**
+     * Есть ли смысл начинать следующую итерацию углубления.
+     * Каждая итерация обычно дороже всех предыдущих вместе взятых,
+     * поэтому после половины бюджета новую уже не начинаем.
+     */
+    public boolean hasBudgetForNextIteration() {
+        if (isStopped()) {
+            return false;
+        }
+        if (nodeBudget > 0 && nodes * 2 >= nodeBudget) {
+            return false;
+        }
+        return timeBudgetNanos <= 0 || (System.nanoTime() - startNanos) * 2 < timeBudgetNanos;
+    }
+
+    /** Сколько узлов посчитано с начала бюджета. */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /** Сколько миллисекунд прошло с начала бюджета. */
+    public long getElapsedMs() {
+        return (System.nanoTime() - startNanos) / 1_000_000L;
+    }
+}
@@ -0,0 +1,198 @@
+package ru.goman.checkers.engine;
+
+import androidx.annotation.NonNull;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Статистика одного поиска хода (неизменяемая).
+ *  - nodesPerThread — узлы каждого потока, [0] — основной поток,
+ *    дальше — помощники параллельного поиска;
+ *  - completedDepth — глубина последней завершённой итерации основного потока,
+ *    именно она даёт ход;
+ *  - depthTimesNanos[d] — за сколько наносекунд от старта основной поток
+ *    завершил итерацию глубины d (0 — не завершил);
+ *  - cutoffs / firstMoveCutoffs — сколько узлов всех потоков закончилось
+ *    отсечением и сколько из них на первом же ходу: по этой доле видно,
+ *    насколько хорошо работает сортировка ходов (MoveOrderer);
+ *  - evalCacheProbes / evalCacheHits — обращения к кэшу статических оценок
+ *    (EvaluationCache) и попадания: по доле попаданий подбирается размер
+ *    кэша для уровня (AiDifficulty.getEvalCacheKb()).
+ * Ускорение параллельного поиска можно смотреть двумя способами:
+ *  - getThroughputSpeedup() — во сколько раз больше узлов просчитано
+ *    за то же время по сравнению с одним основным потоком;
+ *  - timeToDepthSpeedup(baseline) — во сколько раз быстрее достигнута та же
+ *    глубина, чем в однопоточном поиске той же позиции. Это честная мера:
+ *    узлы помощников полезны только через общую таблицу транспозиций.
+ */
+public final class SearchStats {
+
+    @NonNull
+    private final long[] nodesPerThread;
+
+    @NonNull
+    private final long[] depthTimesNanos;
+
+    private final int completedDepth;
+    private final long elapsedNanos;
+    private final long cutoffs;
+    private final long firstMoveCutoffs;
+    private final long evalCacheProbes;
+    private final long evalCacheHits;
+
+    SearchStats(@NonNull long[] nodesPerThread,
+                @NonNull long[] depthTimesNanos,
+                int completedDepth,
+                long elapsedNanos,
+                long cutoffs,
+                long firstMoveCutoffs,
+                long evalCacheProbes,
+                long evalCacheHits) {
+        Objects.requireNonNull(nodesPerThread, "nodesPerThread");
+        Objects.requireNonNull(depthTimesNanos, "depthTimesNanos");
+        if (nodesPerThread.length == 0) {
+            throw new IllegalArgumentException("At least one search thread expected");
+        }
+        this.nodesPerThread = nodesPerThread.clone();
+        this.depthTimesNanos = depthTimesNanos.clone();
+        this.completedDepth = completedDepth;
+        this.elapsedNanos = elapsedNanos;
+        this.cutoffs = cutoffs;
+        this.firstMoveCutoffs = firstMoveCutoffs;
+        this.evalCacheProbes = evalCacheProbes;
+        this.evalCacheHits = evalCacheHits;
+    }
+
+    /** Сколько потоков участвовало в поиске (основной + помощники). */
+    public int getThreadCount() {
+        return nodesPerThread.length;
+    }
+
+    /** Узлы потока index (0 — основной поток). */
+    public long getNodes(int index) {
+        return nodesPerThread[index];
+    }
+
+    /** Копия узлов по потокам. */
+    @NonNull
+    public long[] getNodesPerThread() {
+        return nodesPerThread.clone();
+    }
+
+    public long getTotalNodes() {
+        long total = 0L;
+        for (long nodes : nodesPerThread) {
+            total += nodes;
+        }
+        return total;
+    }
+
+    /** Глубина последней завершённой итерации основного потока. */
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    public long getElapsedMs() {
+        return elapsedNanos / 1_000_000L;
+    }
+
+    /** Узлов в секунду по всем потокам вместе. */
+    public long getNodesPerSecond() {
+        return elapsedNanos <= 0 ? 0L : getTotalNodes() * 1_000_000_000L / elapsedNanos;
+    }
+
+    /**
+     * Отношение всех узлов к узлам основного потока (1.0 — однопоточный поиск).
+     */
+    public double getThroughputSpeedup() {
+        long main = nodesPerThread[0];
+        return main <= 0 ? 1.0 : (double) getTotalNodes() / main;
+    }
+
+    /** Сколько узлов закончилось отсечением (все потоки). */
+    public long getCutoffs() {
+        return cutoffs;
+    }
+
+    /** Сколько отсечений дал первый же перебранный ход. */
+    public long getFirstMoveCutoffs() {
+        return firstMoveCutoffs;
+    }
+
+    /**
+     * Доля отсечений на первом ходу (0..1): чем ближе к 1, тем лучше сортировка.
+     */
+    public double getFirstMoveCutoffRate() {
+        return cutoffs == 0 ? 0.0 : (double) firstMoveCutoffs / cutoffs;
+    }
+
+    /** Обращений к кэшу оценок (все потоки; 0 — кэш выключен). */
+    public long getEvalCacheProbes() {
+        return evalCacheProbes;
+    }
+
+    /** Попаданий в кэш оценок (все потоки). */
+    public long getEvalCacheHits() {
+        return evalCacheHits;
+    }
+
+    /** Доля попаданий в кэш оценок (0..1). */
+    public double getEvalCacheHitRate() {
+        return evalCacheProbes == 0 ? 0.0 : (double) evalCacheHits / evalCacheProbes;
+    }
+
+    /**
+     * Время (нс), за которое основной поток завершил итерацию глубины depth,
+     * или 0, если не завершил.
+     */
+    public long getTimeToDepthNanos(int depth) {
+        if (depth <= 0 || depth >= depthTimesNanos.length) {
+            return 0L;
+        }
+        return depthTimesNanos[depth];
+    }
+
+    /**
+     * Ускорение по времени до глубины относительно baseline
+     * (обычно — однопоточного поиска той же позиции с пустой таблицей).
+     * Сравнивается самая глубокая итерация, завершённая в обоих поисках.
+     *
+     * @return baseline / this; 0, если общей завершённой глубины нет
+     */
+    public double timeToDepthSpeedup(@NonNull SearchStats baseline) {
+        Objects.requireNonNull(baseline, "baseline");
+        int depth = Math.min(completedDepth, baseline.completedDepth);
+        long ours = getTimeToDepthNanos(depth);
+        long theirs = baseline.getTimeToDepthNanos(depth);
+        if (ours <= 0 || theirs <= 0) {
+            return 0.0;
+        }
+        return (double) theirs / ours;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("SearchStats{depth=").append(completedDepth)
+                .append(", elapsedMs=").append(getElapsedMs())
+                .append(", nodes=[");
+        for (int i = 0; i < nodesPerThread.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(nodesPerThread[i]);
+        }
+        sb.append("], nps=").append(getNodesPerSecond())
+                .append(", throughput=").append(String.format(Locale.US,
+                        "%.2f", getThroughputSpeedup()))
+                .append(", cutoffs=").append(cutoffs)
+                .append(", firstMoveCutoffRate=").append(String.format(Locale.US,
+                        "%.3f", getFirstMoveCutoffRate()))
+                .append(", evalCacheHitRate=").append(String.format(Locale.US,
+                        "%.3f", getEvalCacheHitRate()))
+                .append('}');
+        return sb.toString();
+    }
+}
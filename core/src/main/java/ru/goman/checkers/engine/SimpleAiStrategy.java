@@ -0,0 +1,1481 @@
+package ru.goman.checkers.engine;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import ru.goman.checkers.logic.BitboardPosition;
+import ru.goman.checkers.logic.Bitboards;
+import ru.goman.checkers.logic.GameLogic;
+import ru.goman.checkers.logic.PieceSquareTable;
+import ru.goman.checkers.model.BoardState;
+import ru.goman.checkers.model.Move;
+import ru.goman.checkers.model.Player;
+import ru.goman.checkers.tablebase.TablebaseProbe;
+import ru.goman.checkers.tablebase.TablebaseValue;
+
+/**
+ * Базовая стратегия ИИ.
+ * Поведение по уровням сложности:
+ *  - EASY:
+ *      * выбор случайного хода (все правила обязательного взятия уже внутри GameLogic);
+ *  - MEDIUM:
+ *      * один ход вперёд — считаем материал после хода;
+ *      * при равенстве оценки между лучшими ходами:
+ *          - если allowRandomness == true → выбираем случайный,
+ *          - иначе берём первый лучший;
+ *  - HARD / EXPERT / GRANDMASTER:
+ *      * negamax с альфа-бета-отсечениями и итеративным углублением
+ *        до searchDepth в пределах бюджета времени/узлов уровня;
+ *      * PVS (principal variation search): после первого хода остальные
+ *        проверяются нулевым окном, и только "выстрелившие" — полным;
+ *      * итерации ищут в окне аспирации вокруг оценки прошлой итерации;
+ *      * выборочный поиск (LMR, futility, razoring) с запасами из AiDifficulty;
+ *      * на "листе" вместо голой оценки используется квази-поиск (quiescence):
+ *          - если есть рубки, продолжаем их просчитывать до спокойной позиции;
+ *          - это важно для шашек, где длинные обязательные цепочки бьющих ходов.
+ * Перебор идёт не по GameLogic, а по одной BitboardPosition (три int-маски)
+ * через makeMove()/unmakeMove() — без снапшотов и копий доски на каждый узел.
+ * Живой объект GameLogic стратегия только читает, поэтому после выхода
+ * из метода позиция гарантированно не изменилась.
+ * Ход поиска — целый ход игрока (вся цепочка взятий сразу, long-код Bitboards),
+ * так что глубина считается в настоящих ходах. Наружу отдаётся первый прыжок
+ * выбранной цепочки; остальную цепочку стратегия запоминает и при следующем
+ * вызове посреди той же цепочки продолжает её без нового поиска.
+ * Ходы лежат в заранее выделенных буферах на каждый полуход; объект Move
+ * создаётся только для выбранного хода. Поэтому экземпляр стратегии
+ * не рассчитан на параллельные вызовы.
+ * Начиная с HARD поиск параллельный (Lazy SMP): вместе с вызывающим потоком
+ * тот же корень перебирают потоки-помощники со сдвинутой глубиной
+ * и своим порядком ходов корня. Друг с другом они общаются только через
+ * общую таблицу транспозиций (без блокировок), ход выбирает основной поток.
+ * Число потоков задаётся в конструкторе, по умолчанию — ядра минус одно,
+ * чтобы UI оставалось своё ядро. Статистика последнего поиска (узлы
+ * по потокам, ускорение) — getLastSearchStats().
+ * Пока ходит соперник, ponder() тем же поиском заполняет таблицу транспозиций.
+ * Результаты узлов сохраняются в TranspositionTable по хешу Zobrist:
+ * повторная позиция (транспозиция) либо сразу даёт оценку, либо
+ * подсказывает лучший ход, с которого начинать перебор.
+ * Если подключена база окончаний (setTablebase), позиции с малым материалом
+ * не ищутся: в корне ход берётся прямо из базы, а внутри поиска узел сразу
+ * получает точную оценку (выигрыш/проигрыш с длиной или ничья).
+ * Поиск можно прервать через SearchControl.stop(): тогда chooseMove вернёт null.
+ * Исчерпанный бюджет — не отмена: возвращается ход последней завершённой итерации.
+ */
+public final class SimpleAiStrategy implements AiStrategy {
+
+    private static final int WIN_SCORE   = 100_000;
+    private static final int LOSS_SCORE  = -100_000;
+
+    private static final int MAN_VALUE  = 100;
+    private static final int KING_VALUE = 180;
+
+    /** Больше любой оценки (включая MATE_SCORE); -INFINITY не переполняется. */
+    private static final int INFINITY = 1_000_000;
+
+    /** С какой глубины итерации ищут в окне аспирации. */
+    private static final int ASPIRATION_MIN_DEPTH = 4;
+    /** Полуширина начального окна аспирации — четверть простой шашки. */
+    private static final int ASPIRATION_WINDOW = MAN_VALUE / 4;
+    private static final int ASPIRATION_GROWTH = 4;
+    /** После такого расширения окно в сторону провала становится бесконечным. */
+    private static final int MAX_ASPIRATION_DELTA = 1_000;
+
+    /** Razoring и futility pruning — только на последних полуходах перед квази-поиском. */
+    private static final int SELECTIVE_MAX_DEPTH = 2;
+    /** Сокращать поздние ходы имеет смысл, только если после сокращения что-то остаётся. */
+    private static final int LMR_MIN_DEPTH = 3;
+
+    /**
+     * Оценка фигуры на каждой из 32 клеток (материал + позиционные бонусы).
+     * Позиция поиска держит суммы по этой таблице инкрементально
+     * (BitboardPosition.setScoreTable), поэтому оценка листа — O(1).
+     */
+    @NonNull
+    private static final PieceSquareTable SCORE_TABLE = buildScoreTable();
+
+    @NonNull
+    private static PieceSquareTable buildScoreTable() {
+        int[] whiteMen = new int[Bitboards.SQUARES];
+        int[] blackMen = new int[Bitboards.SQUARES];
+        int[] kings = new int[Bitboards.SQUARES];
+        for (int square = 0; square < Bitboards.SQUARES; square++) {
+            int row = Bitboards.row(square);
+            int col = Bitboards.col(square);
+            int center = centerBonus(row, col);
+            whiteMen[square] = MAN_VALUE + advancementBonusForMan(true, row) + center;
+            blackMen[square] = MAN_VALUE + advancementBonusForMan(false, row) + center;
+            kings[square] = KING_VALUE + centerBonusForKing(row, col);
+        }
+        return new PieceSquareTable(whiteMen, kings, blackMen, kings);
+    }
+
+    /** По умолчанию 2^16 записей — 1 МБ, разумно для телефона. */
+    private static final int DEFAULT_TT_SIZE_BITS = 16;
+
+    /** Предельная глубина стека поиска (основной поиск + квази-поиск), в полуходах. */
+    private static final int MAX_PLY = 128;
+
+    /**
+     * Конец партии в поиске: победа — MATE_SCORE - (полуходов от корня до конца),
+     * поражение — минус столько же (см. winIn/lossIn). Так же считаются
+     * и результаты базы окончаний, поэтому настоящая победа и победа по базе
+     * лежат на одной шкале: более короткая всегда лучше, а проигрывающий
+     * тянет партию как можно дольше. По модулю такая оценка не меньше WIN_SCORE.
+     */
+    private static final int MATE_SCORE = WIN_SCORE + MAX_PLY + TablebaseValue.MAX_PLIES + 1;
+
+    /**
+     * Выигрыш по WLD-файлу базы, где длины нет: TABLEBASE_WLD_SCORE плюс
+     * обычная оценка позиции (чтобы выигрывающий всё же шёл вперёд),
+     * проигрыш — минус столько же. Ниже любого настоящего выигрыша и выигрыша
+     * с известной длиной, но выше любой обычной оценки.
+     */
+    private static final int TABLEBASE_WLD_SCORE = WIN_SCORE / 2;
+
+    /** probeTablebase(): позиции нет в базе. */
+    private static final int NO_TABLEBASE_SCORE = Integer.MIN_VALUE;
+
+    private static final String HELPER_THREAD_NAME = "checkers-ai-helper-";
+
+    /** Сколько простаивающий поток-помощник живёт без работы. */
+    private static final long HELPER_KEEP_ALIVE_SECONDS = 30L;
+
+    private final Random random = new Random();
+
+    /** Потоков поиска всего (вызывающий + помощники), не меньше одного. */
+    private final int searchThreads;
+
+    /**
+     * Состояние поиска каждого потока: [0] — вызывающий поток, остальные — помощники.
+     * Создаются один раз и переиспользуются между ходами.
+     */
+    @NonNull
+    private final Searcher[] searchers;
+
+    /** Пул помощников; создаётся лениво при первом параллельном поиске. */
+    @Nullable
+    private ThreadPoolExecutor helperExecutor;
+
+    @Nullable
+    private volatile SearchStats lastSearchStats;
+
+    /**
+     * Отладочный режим: каждая оценка листа сверяется с полным пересчётом,
+     * расхождение инкрементальных сумм — IllegalStateException.
+     */
+    private volatile boolean evaluationCrossCheck;
+
+    /** Размер кэша оценок вместо уровня, КБ (отрицательный — как у уровня). */
+    private volatile int evalCacheKbOverride = -1;
+
+    /**
+     * Полный ход, выбранный последним поиском, если отдан только его первый прыжок
+     * (0 — нет). По нему продолжаем цепочку без повторного поиска.
+     */
+    private long plannedMove;
+
+    @NonNull
+    private final TranspositionTable transpositionTable;
+
+    /** База окончаний (null — не подключена). Общая для всех потоков поиска. */
+    @Nullable
+    private volatile TablebaseProbe tablebase;
+
+    public SimpleAiStrategy() {
+        this(new TranspositionTable(DEFAULT_TT_SIZE_BITS,
+                TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED));
+    }
+
+    /**
+     * Конструктор с явной таблицей транспозиций (размер и политика замещения).
+     * Таблица живёт между ходами, поэтому знания из прошлого поиска переиспользуются.
+     */
+    public SimpleAiStrategy(@NonNull TranspositionTable transpositionTable) {
+        this(transpositionTable, defaultSearchThreads());
+    }
+
+    /**
+     * Конструктор с явным числом потоков поиска (1 — без помощников).
+     */
+    public SimpleAiStrategy(@NonNull TranspositionTable transpositionTable, int searchThreads) {
+        this.transpositionTable = Objects.requireNonNull(transpositionTable, "transpositionTable");
+        if (searchThreads < 1) {
+            throw new IllegalArgumentException("searchThreads must be >= 1, got " + searchThreads);
+        }
+        this.searchThreads = searchThreads;
+        this.searchers = new Searcher[searchThreads];
+        for (int i = 0; i < searchThreads; i++) {
+            searchers[i] = new Searcher();
+        }
+    }
+
+    /**
+     * Число потоков поиска по умолчанию: все ядра, кроме одного (оно остаётся UI).
+     */
+    public static int defaultSearchThreads() {
+        return Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    }
+
+    public int getSearchThreads() {
+        return searchThreads;
+    }
+
+    /**
+     * Таблица оценок клеток, по которой поиск оценивает листья
+     * (для тестов и замеров: оценка позиции — разность сумм по ней).
+     */
+    @NonNull
+    public static PieceSquareTable getScoreTable() {
+        return SCORE_TABLE;
+    }
+
+    /**
+     * Включить/выключить сверку инкрементальной оценки с полным пересчётом
+     * (для отладки и тестов: заметно замедляет поиск).
+     */
+    public void setEvaluationCrossCheck(boolean enabled) {
+        this.evaluationCrossCheck = enabled;
+    }
+
+    public boolean isEvaluationCrossCheck() {
+        return evaluationCrossCheck;
+    }
+
+    /**
+     * Размер кэша статических оценок на поток, КБ, вместо AiDifficulty.getEvalCacheKb()
+     * (0 — без кэша, отрицательный — как у уровня). Для замеров и экспериментов.
+     */
+    public void setEvalCacheKb(int sizeKb) {
+        this.evalCacheKbOverride = sizeKb;
+    }
+
+    /** Размер кэша оценок, с которым пойдёт поиск на уровне difficulty. */
+    public int getEvalCacheKb(@NonNull AiDifficulty difficulty) {
+        int override = evalCacheKbOverride;
+        return override >= 0 ? override : difficulty.getEvalCacheKb();
+    }
+
+    /**
+     * Подключить базу окончаний (null — отключить). Используется уровнями
+     * с минимаксом (HARD и выше) и только с обязательным взятием —
+     * по этим правилам база и посчитана.
+     */
+    public void setTablebase(@Nullable TablebaseProbe tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    @Nullable
+    public TablebaseProbe getTablebase() {
+        return tablebase;
+    }
+
+    /**
+     * Статистика последнего поиска с минимаксом (HARD и выше)
+     * или null, если такого поиска ещё не было.
+     */
+    @Nullable
+    public SearchStats getLastSearchStats() {
+        return lastSearchStats;
+    }
+
+    @Override
+    @Nullable
+    public Move chooseMove(@NonNull GameLogic logic,
+                           @NonNull Player aiPlayer,
+                           @NonNull AiDifficulty difficulty) {
+        return chooseMove(logic, aiPlayer, difficulty, new SearchControl());
+    }
+
+    @Override
+    @Nullable
+    public Move chooseMove(@NonNull GameLogic logic,
+                           @NonNull Player aiPlayer,
+                           @NonNull AiDifficulty difficulty,
+                           @NonNull SearchControl control) {
+
+        Objects.requireNonNull(logic, "logic");
+        Objects.requireNonNull(aiPlayer, "aiPlayer");
+        Objects.requireNonNull(difficulty, "difficulty");
+        Objects.requireNonNull(control, "control");
+
+        int depth = difficulty.getSearchDepth();
+
+        // EASY — вообще без поиска вперёд.
+        if (depth <= 0) {
+            return chooseForEasy(logic.getAllMoveCodesForCurrentPlayer());
+        }
+
+        BitboardPosition root = BitboardPosition.fromGameLogic(logic);
+        root.setScoreTable(SCORE_TABLE);
+        long[] buffer = new long[BitboardPosition.MAX_MOVES];
+        long[] rootMoves = Arrays.copyOf(buffer, root.generateMoves(buffer));
+        if (rootMoves.length == 0) {
+            return null;
+        }
+
+        // Середина цепочки, которую мы сами и начали, — просто продолжаем её.
+        long planned = plannedMove;
+        plannedMove = 0L;
+        if (planned != 0L && root.getChainSquare() != Bitboards.NO_SQUARE) {
+            for (long move : rootMoves) {
+                if (Bitboards.continuesPath(move, planned)) {
+                    return toFirstStep(move);
+                }
+            }
+        }
+
+        long chosen;
+        if (depth == 1) {
+            // MEDIUM — один ход вперёд.
+            chosen = chooseForMedium(root, aiPlayer, rootMoves, difficulty, control);
+        } else {
+            // Всё, что выше — минимакс с альфа-бета и квази-поиском.
+            chosen = chooseWithMinimax(root, rootMoves, difficulty, control, false);
+        }
+        return chosen == 0L ? null : toFirstStep(chosen);
+    }
+
+    /**
+     * Размышление на времени соперника: тот же параллельный поиск, но от лица
+     * стороны, которая ходит в logic, без бюджета — до остановки через control
+     * или до searchDepth уровня. Выбранный ход не нужен: вся польза в таблице
+     * транспозиций, которую потом найдёт chooseMove для позиции после ответа.
+     * Перебор позиции целиком, а не угадывание ответа человека: так
+     * пригодится любая его реплика, а лучшие всё равно считаются глубже
+     * благодаря сортировке ходов.
+     */
+    @Override
+    public void ponder(@NonNull GameLogic logic,
+                       @NonNull AiDifficulty difficulty,
+                       @NonNull SearchControl control) {
+
+        Objects.requireNonNull(logic, "logic");
+        Objects.requireNonNull(difficulty, "difficulty");
+        Objects.requireNonNull(control, "control");
+
+        if (difficulty.getSearchDepth() < 2) {
+            return;
+        }
+        BitboardPosition root = BitboardPosition.fromGameLogic(logic);
+        root.setScoreTable(SCORE_TABLE);
+        long[] buffer = new long[BitboardPosition.MAX_MOVES];
+        long[] rootMoves = Arrays.copyOf(buffer, root.generateMoves(buffer));
+        if (rootMoves.length == 0) {
+            return;
+        }
+        chooseWithMinimax(root, rootMoves, difficulty, control, true);
+    }
+
+    /** Первый прыжок полного хода — то, что применяет GameLogic; остаток запоминаем. */
+    @NonNull
+    private Move toFirstStep(long move) {
+        plannedMove = move;
+        return Bitboards.decode(Bitboards.firstStep(move));
+    }
+
+    // ---------------------------------------------------------------------
+    // EASY
+    // ---------------------------------------------------------------------
+
+    /**
+     * EASY: просто случайный ход из списка допустимых.
+     */
+    @Nullable
+    private Move chooseForEasy(@NonNull int[] moves) {
+        if (moves.length == 0) {
+            return null;
+        }
+        int index = random.nextInt(moves.length);
+        return Bitboards.decode(moves[index]);
+    }
+
+    // ---------------------------------------------------------------------
+    // MEDIUM
+    // ---------------------------------------------------------------------
+
+    /**
+     * MEDIUM: один ход вперёд — смотрим материал после хода.
+     * При равенстве оценок учитываем allowRandomness у difficulty.
+     *
+     * @return выбранный полный ход или 0, если поиск отменён
+     */
+    private long chooseForMedium(@NonNull BitboardPosition root,
+                                 @NonNull Player aiPlayer,
+                                 @NonNull long[] moves,
+                                 @NonNull AiDifficulty difficulty,
+                                 @NonNull SearchControl control) {
+
+        int bestScore = Integer.MIN_VALUE;
+        long[] bestMoves = new long[moves.length];
+        int bestCount = 0;
+
+        for (long move : moves) {
+            if (control.isStopped()) {
+                return 0L;
+            }
+            long undo = root.makeMove(move);
+
+            int score;
+            if (isGameOver(root)) {
+                score = isWinFor(root, aiPlayer) ? WIN_SCORE : LOSS_SCORE;
+            } else {
+                // Оцениваем материал и позицию после одного хода.
+                score = evaluatePosition(root, aiPlayer);
+            }
+            root.unmakeMove(move, undo);
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestCount = 0;
+                bestMoves[bestCount++] = move;
+            } else if (score == bestScore) {
+                bestMoves[bestCount++] = move;
+            }
+        }
+
+        if (control.isStopped()) {
+            return 0L;
+        }
+
+        // Если для уровня случайность запрещена — берём первый лучший ход.
+        if (!difficulty.isRandomnessAllowed() || bestCount == 1) {
+            return bestMoves[0];
+        }
+
+        return bestMoves[random.nextInt(bestCount)];
+    }
+
+    // ---------------------------------------------------------------------
+    // HARD / EXPERT / GRANDMASTER — минимакс с альфа-бета
+    // ---------------------------------------------------------------------
+
+    /**
+     * Итеративное углубление: глубина 1, 2, 3, ... до searchDepth,
+     * пока не кончится бюджет времени/узлов из difficulty.
+     * Каждая итерация дешева за счёт таблицы транспозиций, заполненной
+     * предыдущими. Результатом считается лучший ход последней полностью
+     * завершённой итерации; недосчитанная итерация отбрасывается.
+     * Начиная с ASPIRATION_MIN_DEPTH итерация ищет в узком окне
+     * (окно аспирации) вокруг оценки прошлой итерации; если оценка
+     * вышла за окно, окно расширяется и итерация повторяется.
+     * Лучший ход итерации ставится первым в следующей — это главный
+     * вариант, который PVS перебирает с полным окном.
+     * Если для уровня разрешена случайность, корень считается по-старому:
+     * точная оценка каждого хода (без аспирации), чтобы найти все равноценные.
+     * Параллельно работают помощники (см. runHelper): итерации основного
+     * потока ускоряются за счёт записей, которые помощники успели положить
+     * в таблицу. Бюджет считается только по узлам основного потока.
+     *
+     * Если позиция есть в базе окончаний, поиска нет вовсе (chooseFromTablebase)
+     * и getLastSearchStats() не меняется.
+     *
+     * @param pondering размышление на чужом времени: без бюджета
+     *                  и без записи в getLastSearchStats()
+     * @return выбранный полный ход или 0, если поиск отменён
+     */
+    private long chooseWithMinimax(@NonNull BitboardPosition root,
+                                   @NonNull long[] moves,
+                                   @NonNull AiDifficulty difficulty,
+                                   @NonNull SearchControl control,
+                                   boolean pondering) {
+
+        if (!pondering) {
+            // Окончание из базы: ход известен точно, искать нечего.
+            long perfect = chooseFromTablebase(root, moves);
+            if (perfect != 0L) {
+                return perfect;
+            }
+        }
+
+        int maxDepth = Math.max(1, difficulty.getSearchDepth());
+        transpositionTable.newSearch();
+        if (pondering) {
+            control.startBudget(0L, 0L);
+        } else {
+            control.startBudget(difficulty.getTimeBudgetMs(), difficulty.getNodeBudget());
+        }
+        long startNanos = System.nanoTime();
+
+        Searcher main = searchers[0];
+        main.control = control;
+        main.newSearch(difficulty, tablebase, getEvalCacheKb(difficulty));
+
+        // С единственным ходом помощникам делать нечего.
+        int helperCount = moves.length > 1 ? searchThreads - 1 : 0;
+        Future<?>[] helpers = startHelpers(root, moves, difficulty, helperCount);
+
+        // Точные оценки всех ходов корня нужны только для случайного выбора среди равных.
+        int[] scores = difficulty.isRandomnessAllowed() ? new int[moves.length] : null;
+        long[] depthTimesNanos = new long[maxDepth + 1];
+
+        long[] bestMoves = new long[moves.length];
+        int bestCount = 0;
+        int previousScore = 0;
+
+        try {
+            for (int depth = 1; depth <= maxDepth; depth++) {
+                if (depth > 1 && !control.hasBudgetForNextIteration()) {
+                    break;
+                }
+
+                int score = searchWithAspiration(root, moves, scores, depth, previousScore, main);
+                if (control.isCancelled()) {
+                    return 0L;
+                }
+
+                if (control.isStopped()) {
+                    // Бюджет кончился посреди итерации. Если это самая первая итерация,
+                    // берём лучший из уже досчитанных ходов, иначе — прошлый результат.
+                    if (bestCount == 0 && main.rootBestIndex >= 0) {
+                        bestMoves[0] = moves[main.rootBestIndex];
+                        bestCount = 1;
+                    }
+                    break;
+                }
+
+                if (scores != null) {
+                    bestCount = collectBestMoves(moves, scores, moves.length, bestMoves);
+                } else {
+                    bestMoves[0] = moves[main.rootBestIndex];
+                    bestCount = 1;
+                }
+                moveToFront(moves, main.rootBestIndex);
+                previousScore = score;
+                main.completedDepth = depth;
+                depthTimesNanos[depth] = System.nanoTime() - startNanos;
+
+                if (score >= WIN_SCORE) {
+                    // Форсированная победа найдена — глубже искать незачем.
+                    break;
+                }
+            }
+        } finally {
+            stopHelpers(helpers);
+            if (!pondering) {
+                lastSearchStats = collectStats(helperCount, depthTimesNanos,
+                        System.nanoTime() - startNanos);
+            }
+        }
+
+        if (bestCount == 0) {
+            return moves[0];
+        }
+
+        // На "серьёзных" уровнях обычно выключаем рандом, но при желании
+        // его можно включить через allowRandomness.
+        if (!difficulty.isRandomnessAllowed() || bestCount == 1) {
+            return bestMoves[0];
+        }
+
+        return bestMoves[random.nextInt(bestCount)];
+    }
+
+    /**
+     * Одна итерация корня в окне аспирации вокруг previousScore.
+     * Провал за окно (fail low / fail high) — окно расширяется в ASPIRATION_GROWTH
+     * раз в сторону провала, а начиная с MAX_ASPIRATION_DELTA — до бесконечности.
+     * Мелкие глубины, оценки-выигрыши и режим точных оценок — сразу полное окно.
+     *
+     * @return оценка корня; при остановке поиска значение не имеет смысла
+     */
+    private int searchWithAspiration(@NonNull BitboardPosition root,
+                                     @NonNull long[] moves,
+                                     @Nullable int[] scores,
+                                     int depth,
+                                     int previousScore,
+                                     @NonNull Searcher searcher) {
+        if (scores != null || depth < ASPIRATION_MIN_DEPTH || isMateScore(previousScore)) {
+            return searchRoot(root, moves, scores, depth, -INFINITY, INFINITY, searcher);
+        }
+
+        int delta = ASPIRATION_WINDOW;
+        int alpha = previousScore - delta;
+        int beta = previousScore + delta;
+        while (true) {
+            int score = searchRoot(root, moves, null, depth, alpha, beta, searcher);
+            if (searcher.control.isStopped() || (score > alpha && score < beta)) {
+                return score;
+            }
+            delta *= ASPIRATION_GROWTH;
+            boolean unbounded = delta >= MAX_ASPIRATION_DELTA;
+            if (score <= alpha) {
+                alpha = unbounded ? -INFINITY : previousScore - delta;
+            } else {
+                beta = unbounded ? INFINITY : previousScore + delta;
+            }
+        }
+    }
+
+    private static boolean isMateScore(int score) {
+        return score >= WIN_SCORE || score <= LOSS_SCORE;
+    }
+
+    /** Сдвинуть moves[index] в начало, сохранив порядок остальных. */
+    private static void moveToFront(@NonNull long[] moves, int index) {
+        if (index <= 0) {
+            return;
+        }
+        long move = moves[index];
+        System.arraycopy(moves, 0, moves, 1, index);
+        moves[0] = move;
+    }
+
+    // ---------------------------------------------------------------------
+    // Параллельный поиск (Lazy SMP)
+    // ---------------------------------------------------------------------
+
+    /**
+     * Запустить helperCount помощников на копиях корня.
+     * SearchControl каждого помощника создаётся здесь, до запуска задачи,
+     * чтобы stopHelpers() гарантированно останавливал именно его.
+     */
+    @NonNull
+    private Future<?>[] startHelpers(@NonNull BitboardPosition root,
+                                     @NonNull long[] moves,
+                                     @NonNull AiDifficulty difficulty,
+                                     int helperCount) {
+        Future<?>[] futures = new Future<?>[helperCount];
+        if (helperCount == 0) {
+            return futures;
+        }
+        int maxDepth = Math.max(1, difficulty.getSearchDepth());
+        ThreadPoolExecutor executor = getHelperExecutor();
+        for (int i = 0; i < helperCount; i++) {
+            final int index = i + 1;
+            final Searcher helper = searchers[index];
+            final BitboardPosition helperRoot = root.copy();
+            // Своя копия ходов корня: основной поток переставляет свой массив
+            // после каждой итерации (moveToFront).
+            final long[] helperMoves = rotatedCopy(moves, index);
+            helper.control = new SearchControl();
+            helper.control.startBudget(0L, 0L);
+            helper.newSearch(difficulty, tablebase, getEvalCacheKb(difficulty));
+            futures[i] = executor.submit(() ->
+                    runHelper(helper, index, helperRoot, helperMoves, maxDepth));
+        }
+        return futures;
+    }
+
+    /**
+     * Итеративное углубление помощника. Отличия от основного потока,
+     * чтобы потоки не повторяли одну и ту же работу:
+     *  - нечётные помощники начинают на полуход глубже, так что в каждый
+     *    момент часть потоков уже считает следующую итерацию;
+     *  - ходы корня перебираются со сдвигом на номер помощника
+     *    (moves — уже сдвинутая копия, см. rotatedCopy).
+     * Результат помощника — только записи в таблице транспозиций.
+     */
+    private void runHelper(@NonNull Searcher helper,
+                           int index,
+                           @NonNull BitboardPosition root,
+                           @NonNull long[] moves,
+                           int maxDepth) {
+        for (int depth = 1 + (index & 1); depth <= maxDepth; depth++) {
+            searchRoot(root, moves, null, depth, -INFINITY, INFINITY, helper);
+            if (helper.control.isStopped()) {
+                return;
+            }
+            helper.completedDepth = depth;
+        }
+    }
+
+    /** Копия ходов, сдвинутая по кругу на shift позиций влево. */
+    @NonNull
+    private static long[] rotatedCopy(@NonNull long[] moves, int shift) {
+        int count = moves.length;
+        long[] copy = new long[count];
+        for (int i = 0; i < count; i++) {
+            copy[i] = moves[(i + shift) % count];
+        }
+        return copy;
+    }
+
+    /**
+     * Остановить помощников и дождаться их, чтобы следующий поиск
+     * не пересекался с этим по буферам и позициям.
+     */
+    private void stopHelpers(@NonNull Future<?>[] futures) {
+        for (int i = 0; i < futures.length; i++) {
+            searchers[i + 1].control.stop();
+        }
+        boolean interrupted = false;
+        for (Future<?> future : futures) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    // Помощник уже остановлен и вот-вот закончит — дожидаемся.
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Helper search failed", e.getCause());
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @NonNull
+    private SearchStats collectStats(int helperCount,
+                                     @NonNull long[] depthTimesNanos,
+                                     long elapsedNanos) {
+        long[] nodes = new long[helperCount + 1];
+        long cutoffs = 0L;
+        long firstMoveCutoffs = 0L;
+        long evalCacheProbes = 0L;
+        long evalCacheHits = 0L;
+        for (int i = 0; i <= helperCount; i++) {
+            Searcher searcher = searchers[i];
+            nodes[i] = searcher.control.getNodes();
+            cutoffs += searcher.ordering.getCutoffs();
+            firstMoveCutoffs += searcher.ordering.getFirstMoveCutoffs();
+            EvaluationCache cache = searcher.evalCache;
+            if (cache != null) {
+                evalCacheProbes += cache.getProbes();
+                evalCacheHits += cache.getHits();
+            }
+        }
+        return new SearchStats(nodes, depthTimesNanos, searchers[0].completedDepth, elapsedNanos,
+                cutoffs, firstMoveCutoffs, evalCacheProbes, evalCacheHits);
+    }
+
+    @NonNull
+    private synchronized ThreadPoolExecutor getHelperExecutor() {
+        if (helperExecutor == null) {
+            int helpers = searchThreads - 1;
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(helpers, helpers,
+                    HELPER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(),
+                    new HelperThreadFactory());
+            // Между партиями потоки не держим.
+            executor.allowCoreThreadTimeOut(true);
+            helperExecutor = executor;
+        }
+        return helperExecutor;
+    }
+
+    /**
+     * Остановить потоки-помощники. Необязательно: простаивающие потоки
+     * и так завершаются через HELPER_KEEP_ALIVE_SECONDS.
+     * Следующий параллельный поиск создаст пул заново.
+     */
+    public synchronized void shutdown() {
+        if (helperExecutor != null) {
+            helperExecutor.shutdown();
+            helperExecutor = null;
+        }
+    }
+
+    /**
+     * Состояние поиска одного потока: свой стек буферов ходов, свой SearchControl
+     * и своя сортировка ходов (ходы-убийцы, история).
+     * Общие у всех потоков только таблица транспозиций и оценочные таблицы.
+     */
+    private static final class Searcher {
+
+        /**
+         * Буферы ходов по одному на полуход: узел на глубине ply пишет ходы
+         * в moveStack[ply] и не трогает буферы родителей. Выделяются один раз.
+         */
+        @NonNull
+        final long[][] moveStack = new long[MAX_PLY][BitboardPosition.MAX_MOVES];
+
+        /** Управление текущим поиском этого потока (у помощников — своё на каждый поиск). */
+        SearchControl control;
+
+        @NonNull
+        final MoveOrderer ordering = new MoveOrderer(MAX_PLY, BitboardPosition.MAX_MOVES);
+
+        /** Глубина последней завершённой итерации. */
+        int completedDepth;
+
+        /** Индекс лучшего хода корня в последней итерации (-1 — нет). */
+        int rootBestIndex;
+
+        /** Параметры выборочного поиска (LMR, futility, razoring) текущего уровня. */
+        int lmrMinMoveIndex;
+        int futilityMargin;
+        int razorMargin;
+
+        /** База окончаний на время поиска (null — не подключена). */
+        @Nullable
+        TablebaseProbe tablebase;
+
+        /** Последний блок базы, прочитанный этим потоком. */
+        @NonNull
+        final TablebaseProbe.BlockMemo tablebaseMemo = new TablebaseProbe.BlockMemo();
+
+        /**
+         * Кэш статических оценок (null — выключен на этом уровне).
+         * Пересоздаётся, только если уровень просит другой размер.
+         */
+        @Nullable
+        EvaluationCache evalCache;
+
+        void newSearch(@NonNull AiDifficulty difficulty, @Nullable TablebaseProbe tablebase, int evalCacheKb) {
+            completedDepth = 0;
+            this.tablebase = tablebase;
+            lmrMinMoveIndex = difficulty.getLmrMinMoveIndex();
+            futilityMargin = difficulty.getFutilityMargin();
+            razorMargin = difficulty.getRazorMargin();
+            ordering.newSearch();
+
+            if (evalCacheKb <= 0) {
+                evalCache = null;
+            } else if (evalCache == null || evalCache.getSizeKb() != evalCacheKb) {
+                evalCache = new EvaluationCache(evalCacheKb);
+            } else {
+                evalCache.resetStats();
+            }
+        }
+    }
+
+    /** Фабрика потоков-помощников: демоны чуть ниже обычного приоритета, как и основной поток поиска. */
+    private static final class HelperThreadFactory implements ThreadFactory {
+
+        private int created;
+
+        @Override
+        public synchronized Thread newThread(@NonNull Runnable runnable) {
+            Thread thread = new Thread(runnable, HELPER_THREAD_NAME + (++created));
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        }
+    }
+
+    /**
+     * Одна итерация корня, PVS: первый ход (главный вариант) — в окне
+     * [alpha, beta], остальные — с нулевым окном, и только если ход
+     * неожиданно оказался лучше — повторно с полным.
+     * Если передан scores, каждый ход считается точно (полное окно)
+     * и его оценка пишется в scores — для выбора среди равноценных.
+     * Индекс лучшего хода — в searcher.rootBestIndex (-1, если ни один
+     * ход не досчитан).
+     *
+     * @return оценка лучшего хода с точки зрения стороны, которая ходит в корне
+     */
+    private int searchRoot(@NonNull BitboardPosition root,
+                           @NonNull long[] moves,
+                           @Nullable int[] scores,
+                           int depth,
+                           int alpha,
+                           int beta,
+                           @NonNull Searcher searcher) {
+
+        int best = -INFINITY;
+        searcher.rootBestIndex = -1;
+
+        for (int i = 0; i < moves.length; i++) {
+            if (searcher.control.isStopped()) {
+                break;
+            }
+            long undo = root.makeMove(moves[i]);
+
+            int score;
+            if (isGameOver(root)) {
+                score = winIn(1);
+            } else if (scores != null) {
+                score = -negamax(root, depth - 1, 1, -INFINITY, INFINITY, searcher);
+            } else {
+                // После первого хода продолжаем поиск глубиной (depth - 1).
+                score = principalVariation(root, depth - 1, 1, alpha, beta, i == 0, 0, searcher);
+            }
+            root.unmakeMove(moves[i], undo);
+
+            if (searcher.control.isStopped()) {
+                // Оценка недосчитанного хода ничего не значит.
+                break;
+            }
+            if (scores != null) {
+                scores[i] = score;
+            }
+            if (score > best) {
+                best = score;
+                searcher.rootBestIndex = i;
+                if (scores == null && score > alpha) {
+                    alpha = score;
+                }
+            }
+            if (alpha >= beta) {
+                break; // выход за окно аспирации сверху
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Оценка хода (позиция уже после него) по схеме PVS, со стороны того, кто ходил:
+     * первый ход — полным окном, остальные — разведкой нулевым окном
+     * (alpha, alpha + 1) и, если разведка "пробила" alpha, — повторно полным.
+     * reduction > 0 — разведка сначала идёт на столько полуходов мельче (LMR);
+     * если даже она пробила alpha, ход пересчитывается на полную глубину.
+     */
+    private int principalVariation(@NonNull BitboardPosition position,
+                                   int depth,
+                                   int ply,
+                                   int alpha,
+                                   int beta,
+                                   boolean firstMove,
+                                   int reduction,
+                                   @NonNull Searcher searcher) {
+        if (firstMove) {
+            return -negamax(position, depth, ply, -beta, -alpha, searcher);
+        }
+        if (reduction > 0) {
+            int reduced = -negamax(position, depth - reduction, ply, -alpha - 1, -alpha, searcher);
+            if (reduced <= alpha) {
+                return reduced;
+            }
+        }
+        int score = -negamax(position, depth, ply, -alpha - 1, -alpha, searcher);
+        if (score > alpha && score < beta) {
+            score = -negamax(position, depth, ply, -beta, -alpha, searcher);
+        }
+        return score;
+    }
+
+    /** Есть ли среди ходов взятие. */
+    private static boolean hasCapture(@NonNull long[] moves, int count) {
+        for (int i = 0; i < count; i++) {
+            if (Bitboards.pathIsCapture(moves[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Ходы из первых count с максимальной оценкой, в исходном порядке, — в out.
+     *
+     * @return количество таких ходов
+     */
+    private static int collectBestMoves(@NonNull long[] moves,
+                                        @NonNull int[] scores,
+                                        int count,
+                                        @NonNull long[] out) {
+        int bestScore = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            bestScore = Math.max(bestScore, scores[i]);
+        }
+        int bestCount = 0;
+        for (int i = 0; i < count; i++) {
+            if (scores[i] == bestScore) {
+                out[bestCount++] = moves[i];
+            }
+        }
+        return bestCount;
+    }
+
+    /**
+     * Negamax с альфа-бета-отсечениями и PVS.
+     * Оценка всегда со стороны того, кто ходит в position, — так же она
+     * хранится и в таблице транспозиций. depth — оставшаяся глубина в полуходах.
+     * Выборочный поиск (параметры — из AiDifficulty, через searcher):
+     *  - razoring: у самых листьев, если оценка намного ниже alpha,
+     *    узел сразу сводится к квази-поиску;
+     *  - futility pruning: там же тихие ходы, которые даже с запасом
+     *    не поднимут оценку до alpha, не перебираются;
+     *  - late move reductions: поздние тихие ходы сначала считаются мельче.
+     * Всё это только в узлах с нулевым окном (не в главном варианте)
+     * и только если ни у одной из сторон нет взятий: там оценка
+     * "как есть" ничего не говорит, пока не разыграны рубки.
+     * Если поиск остановлен через control, сразу возвращает 0 —
+     * такой результат наверху всё равно отбрасывается.
+     */
+    private int negamax(@NonNull BitboardPosition position,
+                        int depth,
+                        int ply,
+                        int alpha,
+                        int beta,
+                        @NonNull Searcher searcher) {
+
+        if (depth <= 0) {
+            // Вместо "глухой" оценки запускаем квази-поиск:
+            // продолжаем просчитывать только рубки, пока позиция не станет "тихой".
+            return quiescence(position, ply, alpha, beta, searcher);
+        }
+
+        searcher.control.countNode();
+        if (searcher.control.isStopped()) {
+            return 0;
+        }
+
+        if (searcher.tablebase != null) {
+            int tablebaseScore = probeTablebase(position, ply, searcher.tablebase, searcher.tablebaseMemo);
+            if (tablebaseScore != NO_TABLEBASE_SCORE) {
+                return tablebaseScore;
+            }
+        }
+
+        int alphaOrig = alpha;
+
+        // Таблица транспозиций: либо сразу готовый ответ, либо лучший ход для сортировки.
+        long entry = transpositionTable.probe(position.getHash());
+        int hashMove = 0; // подпись хода (Bitboards.signature)
+        if (entry != TranspositionTable.NO_ENTRY) {
+            hashMove = TranspositionTable.move(entry);
+            if (TranspositionTable.depth(entry) >= depth) {
+                int ttScore = scoreFromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.BOUND_EXACT
+                        || (bound == TranspositionTable.BOUND_LOWER && ttScore >= beta)
+                        || (bound == TranspositionTable.BOUND_UPPER && ttScore <= alpha)) {
+                    return ttScore;
+                }
+            }
+        }
+
+        if (ply >= MAX_PLY) {
+            return evaluate(position, position.getSideToMove(), searcher);
+        }
+
+        long[] moves = searcher.moveStack[ply];
+        int moveCount = position.generateMoves(moves);
+        if (moveCount == 0) {
+            // У текущего игрока нет ходов → он проиграл.
+            return lossIn(ply);
+        }
+
+        // Выборочный поиск — только в "тихих" узлах с нулевым окном:
+        // ни у одной из сторон не должно быть взятий.
+        boolean selective = beta - alpha == 1
+                && !isMateScore(alpha)
+                && !hasCapture(moves, moveCount)
+                && !position.hasCapture(position.getSideToMove().opposite());
+
+        boolean futilityPruning = false;
+        int futilityValue = 0;
+        if (selective && depth <= SELECTIVE_MAX_DEPTH
+                && (searcher.razorMargin > 0 || searcher.futilityMargin > 0)) {
+            int staticEval = evaluate(position, position.getSideToMove(), searcher);
+            if (searcher.razorMargin > 0 && staticEval + searcher.razorMargin * depth <= alpha) {
+                int score = quiescence(position, ply, alpha, beta, searcher);
+                if (score <= alpha) {
+                    return score;
+                }
+            }
+            if (searcher.futilityMargin > 0) {
+                futilityValue = staticEval + searcher.futilityMargin * depth;
+                futilityPruning = futilityValue <= alpha;
+            }
+        }
+
+        boolean white = position.getSideToMove() == Player.WHITE;
+        MoveOrderer ordering = searcher.ordering;
+        ordering.scoreMoves(moves, moveCount, ply, hashMove, white);
+
+        int best = -INFINITY;
+        int bestMove = 0;
+
+        for (int i = 0; i < moveCount; i++) {
+            long move = ordering.pickNext(moves, moveCount, i, ply);
+            boolean quiet = !Bitboards.pathIsCapture(move) && !Bitboards.pathPromotes(move);
+
+            if (futilityPruning && i > 0 && quiet) {
+                // Futility: этот ход позицию не спасёт — считаем его оценку не выше futilityValue.
+                if (futilityValue > best) {
+                    best = futilityValue;
+                }
+                continue;
+            }
+
+            int reduction = 0;
+            if (selective && quiet && depth >= LMR_MIN_DEPTH
+                    && searcher.lmrMinMoveIndex > 0 && i >= searcher.lmrMinMoveIndex) {
+                reduction = 1;
+            }
+
+            long undo = position.makeMove(move);
+
+            int score;
+            if (isGameOver(position)) {
+                score = winIn(ply + 1);
+            } else {
+                score = principalVariation(position, depth - 1, ply + 1, alpha, beta, i == 0,
+                        reduction, searcher);
+            }
+            position.unmakeMove(move, undo);
+
+            if (score > best) {
+                best = score;
+                bestMove = Bitboards.signature(move);
+                if (score > alpha) {
+                    alpha = score;
+                }
+            }
+            if (alpha >= beta) {
+                if (!searcher.control.isStopped()) {
+                    ordering.onCutoff(move, ply, depth, i, white);
+                }
+                break; // отсечение
+            }
+        }
+
+        if (!searcher.control.isStopped()) {
+            int bound;
+            if (best <= alphaOrig) {
+                bound = TranspositionTable.BOUND_UPPER;
+            } else if (best >= beta) {
+                bound = TranspositionTable.BOUND_LOWER;
+            } else {
+                bound = TranspositionTable.BOUND_EXACT;
+            }
+            transpositionTable.store(position.getHash(), depth, scoreToTable(best, ply), bound, bestMove);
+        }
+
+        return best;
+    }
+
+    // ---------------------------------------------------------------------
+    // Квази-поиск (quiescence search)
+    // ---------------------------------------------------------------------
+
+    /**
+     * Квази-поиск:
+     *  - считаем статическую оценку позиции;
+     *  - если есть рубки — продолжаем просчитывать только рубящие ходы,
+     *    пока позиция не станет "тихой" (без боёв).
+     * Это критично для шашек: длинные обязательные цепочки рубок
+     * могут сильно искажать оценку, если их обрубить на глубине.
+     * Как и negamax, оценка — со стороны того, кто ходит.
+     */
+    private int quiescence(@NonNull BitboardPosition position,
+                           int ply,
+                           int alpha,
+                           int beta,
+                           @NonNull Searcher searcher) {
+
+        searcher.control.countNode();
+        if (searcher.control.isStopped()) {
+            return 0;
+        }
+
+        if (searcher.tablebase != null) {
+            int tablebaseScore = probeTablebase(position, ply, searcher.tablebase, searcher.tablebaseMemo);
+            if (tablebaseScore != NO_TABLEBASE_SCORE) {
+                return tablebaseScore;
+            }
+        }
+
+        Player side = position.getSideToMove();
+        if (ply >= MAX_PLY) {
+            return evaluate(position, side, searcher);
+        }
+
+        // 1. Проверяем, не окончена ли игра.
+        long[] moves = searcher.moveStack[ply];
+        int moveCount = position.generateMoves(moves);
+        if (moveCount == 0) {
+            return lossIn(ply);
+        }
+
+        // 2. Статическая оценка "как есть".
+        int standPat = evaluate(position, side, searcher);
+        if (standPat >= beta) {
+            return standPat;
+        }
+        if (standPat > alpha) {
+            alpha = standPat;
+        }
+
+        // 3. Продолжаем поиск только по рубкам, длинные цепочки — первыми.
+        // Нет боёв → позиция достаточно "тихая".
+        MoveOrderer ordering = searcher.ordering;
+        ordering.scoreMoves(moves, moveCount, ply, 0, side == Player.WHITE);
+        boolean hasCaptures = false;
+        for (int i = 0; i < moveCount; i++) {
+            long move = ordering.pickNext(moves, moveCount, i, ply);
+            if (!Bitboards.pathIsCapture(move)) {
+                // Взятия оцениваются выше любого тихого хода — дальше их нет.
+                break;
+            }
+            hasCaptures = true;
+
+            long undo = position.makeMove(move);
+
+            int score;
+            if (isGameOver(position)) {
+                score = winIn(ply + 1);
+            } else {
+                score = -quiescence(position, ply + 1, -beta, -alpha, searcher);
+            }
+            position.unmakeMove(move, undo);
+
+            if (score > alpha) {
+                alpha = score;
+            }
+            if (alpha >= beta) {
+                break; // отсечение
+            }
+        }
+
+        if (!hasCaptures) {
+            return standPat;
+        }
+
+        return alpha;
+    }
+
+    /**
+     * Закончилась ли партия сразу после хода:
+     * у соперника, к которому перешла очередь, нет ни одного допустимого хода.
+     */
+    private static boolean isGameOver(@NonNull BitboardPosition afterMove) {
+        return !afterMove.hasAnyMove();
+    }
+
+    /** Победа aiPlayer в законченной партии (проиграл тот, чья очередь ходить). */
+    private static boolean isWinFor(@NonNull BitboardPosition finished, @NonNull Player aiPlayer) {
+        return finished.getSideToMove() != aiPlayer;
+    }
+
+    /** Оценка победы стороны, которая ходит, если партия кончится на полуходе ply от корня. */
+    private static int winIn(int ply) {
+        return MATE_SCORE - ply;
+    }
+
+    /** Оценка поражения стороны, которая ходит, если партия кончится на полуходе ply от корня. */
+    private static int lossIn(int ply) {
+        return ply - MATE_SCORE;
+    }
+
+    /**
+     * Оценка-выигрыш отсчитывается от корня, а запись таблицы транспозиций
+     * может пригодиться на другом ply. Поэтому в таблицу кладётся расстояние
+     * от самого узла, а при чтении оно снова переводится к корню.
+     */
+    private static int scoreToTable(int score, int ply) {
+        if (score >= WIN_SCORE) {
+            return score + ply;
+        }
+        return score <= LOSS_SCORE ? score - ply : score;
+    }
+
+    private static int scoreFromTable(int score, int ply) {
+        if (score >= WIN_SCORE) {
+            return score - ply;
+        }
+        return score <= LOSS_SCORE ? score + ply : score;
+    }
+
+    // ---------------------------------------------------------------------
+    // База окончаний
+    // ---------------------------------------------------------------------
+
+    /**
+     * Лучший ход корня по базе окончаний: самый быстрый выигрыш,
+     * иначе ничья, иначе самый долгий проигрыш.
+     *
+     * @return полный ход или 0, если базы нет, хотя бы одной позиции
+     * после хода в ней нет или для неё известен только WLD (тогда
+     * ход выбирает обычный поиск с оценками из базы в узлах)
+     */
+    private long chooseFromTablebase(@NonNull BitboardPosition root, @NonNull long[] moves) {
+        TablebaseProbe probe = tablebase;
+        if (probe == null || !root.isMustCaptureRuleEnabled()
+                || Integer.bitCount(root.getWhite() | root.getBlack()) > probe.getMaxPieces()) {
+            return 0L;
+        }
+        long bestMove = 0L;
+        int bestScore = -INFINITY;
+        for (long move : moves) {
+            long undo = root.makeMove(move);
+            int score;
+            if (isGameOver(root)) {
+                score = winIn(1);
+            } else {
+                int childScore = probeTablebase(root, 1, probe, searchers[0].tablebaseMemo);
+                score = childScore == NO_TABLEBASE_SCORE ? NO_TABLEBASE_SCORE : -childScore;
+            }
+            root.unmakeMove(move, undo);
+            if (score == NO_TABLEBASE_SCORE || isWldScore(score)) {
+                return 0L;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+            }
+        }
+        return bestMove;
+    }
+
+    /**
+     * Оценка узла по базе окончаний со стороны того, кто ходит,
+     * или NO_TABLEBASE_SCORE. Выигрыш и проигрыш по DTW считаются от корня
+     * (ply + длина из базы) — на той же шкале, что и конец партии в поиске.
+     * Если для материала есть только WLD — оценка TABLEBASE_WLD_SCORE.
+     */
+    private static int probeTablebase(@NonNull BitboardPosition position,
+                                      int ply,
+                                      @NonNull TablebaseProbe probe,
+                                      @NonNull TablebaseProbe.BlockMemo memo) {
+        int white = position.getWhite();
+        int black = position.getBlack();
+        if (Integer.bitCount(white | black) > probe.getMaxPieces()
+                || position.getChainSquare() != Bitboards.NO_SQUARE
+                || !position.isMustCaptureRuleEnabled()) {
+            return NO_TABLEBASE_SCORE;
+        }
+        Player side = position.getSideToMove();
+        int value = probe.probe(white, black, position.getKings(), side, memo);
+        if (value == TablebaseProbe.UNKNOWN) {
+            return probeTablebaseWld(position, probe, memo);
+        }
+        int end = ply + TablebaseValue.plies(value);
+        if (TablebaseValue.isWin(value)) {
+            return winIn(end);
+        }
+        return TablebaseValue.isLoss(value) ? lossIn(end) : 0;
+    }
+
+    private static int probeTablebaseWld(@NonNull BitboardPosition position,
+                                         @NonNull TablebaseProbe probe,
+                                         @NonNull TablebaseProbe.BlockMemo memo) {
+        Player side = position.getSideToMove();
+        int wld = probe.probeWld(position.getWhite(), position.getBlack(), position.getKings(), side, memo);
+        if (wld == TablebaseProbe.UNKNOWN) {
+            return NO_TABLEBASE_SCORE;
+        }
+        if (wld == TablebaseValue.WLD_DRAW) {
+            return 0;
+        }
+        int material = side == Player.WHITE
+                ? position.getWhiteScore() - position.getBlackScore()
+                : position.getBlackScore() - position.getWhiteScore();
+        return wld == TablebaseValue.WLD_WIN
+                ? TABLEBASE_WLD_SCORE + material
+                : material - TABLEBASE_WLD_SCORE;
+    }
+
+    /** Оценка из WLD-файла базы (выигрыш или проигрыш без длины). */
+    private static boolean isWldScore(int score) {
+        int magnitude = Math.abs(score);
+        return magnitude >= TABLEBASE_WLD_SCORE / 2 && magnitude < WIN_SCORE;
+    }
+
+    // ---------------------------------------------------------------------
+    // Оценка позиции
+    // ---------------------------------------------------------------------
+
+    /**
+     * Оценка узла поиска: сначала кэш оценок потока (если он включён
+     * на этом уровне), при промахе — evaluatePosition() с записью в кэш.
+     */
+    private int evaluate(@NonNull BitboardPosition position,
+                         @NonNull Player perspective,
+                         @NonNull Searcher searcher) {
+        EvaluationCache cache = searcher.evalCache;
+        if (cache == null) {
+            return evaluatePosition(position, perspective);
+        }
+
+        long hash = position.getHash();
+        int whiteScore = cache.probe(hash);
+        if (whiteScore == EvaluationCache.MISS) {
+            whiteScore = evaluatePosition(position, Player.WHITE);
+            cache.store(hash, whiteScore);
+        } else if (evaluationCrossCheck) {
+            int expected = evaluatePosition(position, Player.WHITE);
+            if (whiteScore != expected) {
+                throw new IllegalStateException("Evaluation cache mismatch: cached "
+                        + whiteScore + ", actual " + expected);
+            }
+        }
+        return perspective == Player.WHITE ? whiteScore : -whiteScore;
+    }
+
+    /**
+     * Статическая оценка позиции:
+     *  - материальный баланс (маны/дамки);
+     *  - продвижение мана к дамке;
+     *  - близость к центру доски.
+     * Всё считается с точки зрения aiPlayer:
+     *  > 0 — хорошо для ИИ, < 0 — плохо.
+     * Суммы по SCORE_TABLE позиция ведёт сама в makeMove()/unmakeMove(),
+     * так что здесь только разность двух чисел.
+     */
+    private int evaluatePosition(@NonNull BitboardPosition position,
+                                 @NonNull Player aiPlayer) {
+
+        int whiteScore = position.getWhiteScore();
+        int blackScore = position.getBlackScore();
+
+        if (evaluationCrossCheck) {
+            checkIncrementalScores(position, whiteScore, blackScore);
+        }
+
+        return aiPlayer == Player.WHITE
+                ? whiteScore - blackScore
+                : blackScore - whiteScore;
+    }
+
+    /** Сверка инкрементальных сумм с полным пересчётом по доске. */
+    private static void checkIncrementalScores(@NonNull BitboardPosition position,
+                                               int whiteScore,
+                                               int blackScore) {
+        if (position.getScoreTable() != SCORE_TABLE) {
+            throw new IllegalStateException("Search position has no evaluation table attached");
+        }
+        int kings = position.getKings();
+        int expectedWhite = SCORE_TABLE.sum(true, position.getWhite(), kings);
+        int expectedBlack = SCORE_TABLE.sum(false, position.getBlack(), kings);
+        if (whiteScore != expectedWhite || blackScore != expectedBlack) {
+            throw new IllegalStateException("Incremental evaluation mismatch: white "
+                    + whiteScore + " vs " + expectedWhite
+                    + ", black " + blackScore + " vs " + expectedBlack);
+        }
+    }
+
+    /**
+     * Бонус за продвижение мана к дамке.
+     * Для белых — чем ближе к верхней линии (row = 0), тем лучше.
+     * Для чёрных — чем ближе к нижней линии (row = 7), тем лучше.
+     */
+    private static int advancementBonusForMan(boolean white, int row) {
+        // Предполагаем классическую раскладку:
+        // WHITE движется "вверх" (к row = 0), BLACK — "вниз" (к row = 7).
+        int distance;
+        if (white) {
+            distance = BoardState.BOARD_SIZE - 1 - row; // 7 - row
+        } else {
+            distance = row; // 0..7
+        }
+        // Коэффициент небольшой, чтобы не перебивать материал.
+        return distance * 4;
+    }
+
+    /**
+     * Бонус за центральное положение (для мана).
+     * Чем ближе к центру доски, тем больше бонус.
+     */
+    private static int centerBonus(int row, int col) {
+        int rowCenter = Math.min(row, BoardState.BOARD_SIZE - 1 - row); // 0..3
+        int colCenter = Math.min(col, BoardState.BOARD_SIZE - 1 - col); // 0..3
+        int sum = rowCenter + colCenter; // 0..6
+        return sum * 3;
+    }
+
+    /**
+     * Бонус за положение дамки.
+     * Для дамки чуть сильнее ценим центр, так как она ходит далеко.
+     */
+    private static int centerBonusForKing(int row, int col) {
+        int rowCenter = Math.min(row, BoardState.BOARD_SIZE - 1 - row); // 0..3
+        int colCenter = Math.min(col, BoardState.BOARD_SIZE - 1 - col); // 0..3
+        int sum = rowCenter + colCenter; // 0..6
+        return sum * 4;
+    }
+}
@@ -0,0 +1,200 @@
+package ru.goman.checkers.engine;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Таблица транспозиций для поиска: результаты уже посчитанных позиций
+ * по их хешу Zobrist.
+ * Фиксированный размер (степень двойки), два параллельных long[] без объектов:
+ *  - keys[i] — полный 64-битный хеш позиции, сложенный по XOR с data[i];
+ *  - data[i] — упакованная запись:
+ *      биты 0..15  — лучший ход (код из Bitboards);
+ *      биты 16..23 — глубина, на которой получена оценка;
+ *      биты 24..25 — тип оценки (EXACT / LOWER / UPPER);
+ *      биты 26..31 — поколение (номер поиска), для замещения старых записей;
+ *      биты 32..63 — оценка (int) с точки зрения стороны, которая ходит.
+ * probe() возвращает упакованную запись (или NO_ENTRY), поля достаются
+ * статическими методами — без аллокаций на каждый узел.
+ *
+ * Таблица общая для всех потоков параллельного поиска и работает без блокировок.
+ * Запись из двух long не атомарна: другой поток может успеть перезаписать
+ * одну половину. Поэтому храним keys[i] = hash ^ data[i] и при чтении
+ * проверяем, что keys[i] ^ data[i] снова даёт hash: "разорванная" запись
+ * просто не пройдёт проверку и будет считаться отсутствующей.
+ * Поколение меняется только между поисками, из потока, который их запускает.
+ */
+public final class TranspositionTable {
+
+    /** Политика замещения при коллизии индекса. */
+    public enum ReplacementPolicy {
+        /** Новая запись всегда вытесняет старую. */
+        ALWAYS_REPLACE,
+        /**
+         * Вытесняем, только если новая запись не мельче старой
+         * или старая осталась от прошлого поиска.
+         */
+        DEPTH_PREFERRED
+    }
+
+    public static final long NO_ENTRY = 0L;
+
+    /** Допустимые значения sizeBits: от 2 записей до 64 млн (1 ГБ). */
+    public static final int MIN_SIZE_BITS = 1;
+    public static final int MAX_SIZE_BITS = 26;
+
+    public static final int BOUND_EXACT = 1;
+    /** Оценка — нижняя граница (было отсечение по beta). */
+    public static final int BOUND_LOWER = 2;
+    /** Оценка — верхняя граница (ни один ход не поднял alpha). */
+    public static final int BOUND_UPPER = 3;
+
+    private static final long MOVE_MASK = 0xFFFFL;
+    private static final int DEPTH_SHIFT = 16;
+    private static final long DEPTH_MASK = 0xFFL;
+    private static final int BOUND_SHIFT = 24;
+    private static final long BOUND_MASK = 0x3L;
+    private static final int GENERATION_SHIFT = 26;
+    private static final long GENERATION_MASK = 0x3FL;
+    private static final int SCORE_SHIFT = 32;
+
+    private static final int MAX_DEPTH = (int) DEPTH_MASK;
+    private static final int BYTES_PER_ENTRY = 16;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int indexMask;
+
+    @NonNull
+    private final ReplacementPolicy policy;
+
+    private volatile int generation;
+
+    /**
+     * @param sizeBits   log2 количества записей (например, 16 → 65536 записей, 1 МБ)
+     * @param policy     политика замещения
+     */
+    public TranspositionTable(int sizeBits, @NonNull ReplacementPolicy policy) {
+        if (sizeBits < MIN_SIZE_BITS || sizeBits > MAX_SIZE_BITS) {
+            throw new IllegalArgumentException("sizeBits must be in " + MIN_SIZE_BITS + ".."
+                    + MAX_SIZE_BITS + ", got " + sizeBits);
+        }
+        int size = 1 << sizeBits;
+        this.keys = new long[size];
+        this.data = new long[size];
+        this.indexMask = size - 1;
+        this.policy = Objects.requireNonNull(policy, "policy");
+    }
+
+    /**
+     * Таблица, занимающая не больше maxBytes (размер округляется вниз до степени двойки).
+     */
+    @NonNull
+    public static TranspositionTable withMemoryBudget(long maxBytes,
+                                                      @NonNull ReplacementPolicy policy) {
+        long entries = Math.max(2L, maxBytes / BYTES_PER_ENTRY);
+        int sizeBits = 63 - Long.numberOfLeadingZeros(entries);
+        return new TranspositionTable(Math.min(sizeBits, MAX_SIZE_BITS), policy);
+    }
+
+    /** Количество записей (степень двойки). */
+    public int capacity() {
+        return keys.length;
+    }
+
+    @NonNull
+    public ReplacementPolicy getPolicy() {
+        return policy;
+    }
+
+    /** Начало нового поиска: записи прошлых поисков становятся кандидатами на замещение. */
+    public void newSearch() {
+        generation = (generation + 1) & (int) GENERATION_MASK;
+    }
+
+    /** Полностью очистить таблицу. */
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(data, 0L);
+    }
+
+    /**
+     * Найти запись для позиции.
+     *
+     * @return упакованная запись или NO_ENTRY, если позиции в таблице нет.
+     */
+    public long probe(long hash) {
+        int index = (int) hash & indexMask;
+        long entry = data[index];
+        if (entry == NO_ENTRY || (keys[index] ^ entry) != hash) {
+            return NO_ENTRY;
+        }
+        return entry;
+    }
+
+    /**
+     * Сохранить результат поиска позиции.
+     *
+     * @param score оценка с точки зрения стороны, которая ходит в этой позиции
+     * @param bound BOUND_EXACT / BOUND_LOWER / BOUND_UPPER
+     * @param move  лучший ход (код из Bitboards) или 0, если его нет
+     */
+    public void store(long hash, int depth, int score, int bound, int move) {
+        int index = (int) hash & indexMask;
+        long old = data[index];
+        boolean samePosition = old != NO_ENTRY && (keys[index] ^ old) == hash;
+        int currentGeneration = generation;
+
+        if (policy == ReplacementPolicy.DEPTH_PREFERRED
+                && old != NO_ENTRY
+                && !samePosition
+                && generation(old) == currentGeneration
+                && depth(old) > depth) {
+            // Более глубокая запись текущего поиска ценнее.
+            return;
+        }
+
+        if (move == 0 && samePosition) {
+            // Не теряем известный лучший ход той же позиции.
+            move = move(old);
+        }
+
+        long entry = pack(Math.min(depth, MAX_DEPTH), score, bound, move, currentGeneration);
+        keys[index] = hash ^ entry;
+        data[index] = entry;
+    }
+
+    // ------------------------------------------------------------------
+    // Распаковка записи
+    // ------------------------------------------------------------------
+
+    public static int move(long entry) {
+        return (int) (entry & MOVE_MASK);
+    }
+
+    public static int depth(long entry) {
+        return (int) ((entry >>> DEPTH_SHIFT) & DEPTH_MASK);
+    }
+
+    public static int bound(long entry) {
+        return (int) ((entry >>> BOUND_SHIFT) & BOUND_MASK);
+    }
+
+    public static int score(long entry) {
+        return (int) (entry >> SCORE_SHIFT);
+    }
+
+    private static int generation(long entry) {
+        return (int) ((entry >>> GENERATION_SHIFT) & GENERATION_MASK);
+    }
+
+    private static long pack(int depth, int score, int bound, int move, int generation) {
+        return ((long) score << SCORE_SHIFT)
+                | ((long) generation << GENERATION_SHIFT)
+                | ((long) bound << BOUND_SHIFT)
+                | ((long) depth << DEPTH_SHIFT)
+                | (move & MOVE_MASK);
+    }
+}
@@ -0,0 +1,734 @@
+package ru.goman.checkers.logic;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import ru.goman.checkers.model.BoardState;
+import ru.goman.checkers.model.PieceType;
+import ru.goman.checkers.model.Player;
+
+/**
+ * Компактная позиция для движка: 32 игровые клетки в трёх int-масках
+ * (белые, чёрные, дамки) + очередь хода, а если позиция взята посреди
+ * цепочки взятий — клетка бьющей фигуры и маска уже побитых фигур.
+ * Правила совпадают с GameLogic (обязательное взятие, превращение посреди
+ * боя, турецкий удар, ограничение дамки лучшей веткой взятий по направлению),
+ * но ход здесь — вся цепочка целиком: long-код из Bitboards. Так глубина
+ * поиска считается в настоящих ходах, а не в отдельных прыжках.
+ * Ходы в applyMove()/makeMove() не проверяются: предполагается,
+ * что они получены из generateMoves().
+ * Для поиска есть пара makeMove()/unmakeMove(): вся информация для отката
+ * упакована в один long, так что перебор идёт по одному объекту без копий.
+ * Хеш Zobrist (getHash()) поддерживается инкрементально при каждом ходе/откате.
+ * Так же, если подключена таблица PieceSquareTable (setScoreTable), ведутся
+ * суммы очков белых и чёрных (getWhiteScore()/getBlackScore()): оценка
+ * позиции на листе поиска становится O(1) вместо обхода всех фигур.
+ */
+public final class BitboardPosition {
+
+    /** Достаточный размер буфера для generateMoves(). */
+    public static final int MAX_MOVES = 256;
+
+    // Раскладка long-записи отката (см. makeMove):
+    //  биты 0..31  — какие из побитых фигур были дамками;
+    //  биты 32..63 — маска побитых фигур незавершённой цепочки до хода
+    //                (не 0 только если ход продолжал цепочку).
+    private static final int UNDO_PENDING_SHIFT = 32;
+
+    private static final int[] DIRECTIONS = {
+            Bitboards.UP_LEFT, Bitboards.UP_RIGHT, Bitboards.DOWN_LEFT, Bitboards.DOWN_RIGHT
+    };
+
+    private int white;
+    private int black;
+    private int kings;
+    @NonNull
+    private Player sideToMove;
+    private int chainSquare;
+    private int pendingCaptured;
+    private final boolean mustCaptureRuleEnabled;
+    private long hash;
+
+    /** Таблица очков для инкрементальных сумм (null — суммы не ведутся). */
+    @Nullable
+    private PieceSquareTable scoreTable;
+    private int whiteScore;
+    private int blackScore;
+
+    /**
+     * @param chainSquare     клетка фигуры, обязанной продолжать бой, или Bitboards.NO_SQUARE
+     * @param pendingCaptured фигуры соперника, уже побитые в этой цепочке,
+     *                        но ещё стоящие на доске (0 — если цепочки нет)
+     */
+    public BitboardPosition(int white,
+                            int black,
+                            int kings,
+                            @NonNull Player sideToMove,
+                            int chainSquare,
+                            int pendingCaptured,
+                            boolean mustCaptureRuleEnabled) {
+        Position.checkState(white, black, kings, sideToMove, chainSquare, pendingCaptured);
+        this.white = white;
+        this.black = black;
+        this.kings = kings;
+        this.sideToMove = sideToMove;
+        this.chainSquare = chainSquare;
+        this.pendingCaptured = pendingCaptured;
+        this.mustCaptureRuleEnabled = mustCaptureRuleEnabled;
+        this.hash = computeHash();
+    }
+
+    /** Копия другой позиции (вместе с таблицей очков и суммами). */
+    public BitboardPosition(@NonNull BitboardPosition other) {
+        this(other.white, other.black, other.kings, other.sideToMove,
+                other.chainSquare, other.pendingCaptured, other.mustCaptureRuleEnabled);
+        this.scoreTable = other.scoreTable;
+        this.whiteScore = other.whiteScore;
+        this.blackScore = other.blackScore;
+    }
+
+    /**
+     * Позиция из доски (без цепочки взятий).
+     *
+     * @throws IllegalArgumentException если на светлой клетке стоит фигура.
+     */
+    @NonNull
+    public static BitboardPosition fromBoardState(@NonNull BoardState board,
+                                                  @NonNull Player sideToMove,
+                                                  boolean mustCaptureRuleEnabled) {
+        int white = 0;
+        int black = 0;
+        int kings = 0;
+        int size = BoardState.BOARD_SIZE;
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int code = board.getCode(row, col);
+                if (PieceType.isEmptyCode(code)) {
+                    continue;
+                }
+                int bit = 1 << Bitboards.square(row, col);
+                if (PieceType.isWhiteCode(code)) {
+                    white |= bit;
+                } else {
+                    black |= bit;
+                }
+                if (PieceType.isKingCode(code)) {
+                    kings |= bit;
+                }
+            }
+        }
+        return new BitboardPosition(white, black, kings, sideToMove,
+                Bitboards.NO_SQUARE, 0, mustCaptureRuleEnabled);
+    }
+
+    /** Позиция из текущего состояния GameLogic (включая незавершённую цепочку и побитые в ней фигуры). */
+    @NonNull
+    public static BitboardPosition fromGameLogic(@NonNull GameLogic logic) {
+        BitboardPosition position = fromBoardState(
+                logic.getBoard(), logic.getCurrentPlayer(), logic.isMustCaptureRuleEnabled());
+        if (logic.isCaptureChainInProgress()) {
+            return new BitboardPosition(position.white, position.black, position.kings,
+                    position.sideToMove,
+                    Bitboards.square(logic.getChainRow(), logic.getChainCol()),
+                    logic.getPendingCapturedMask(),
+                    position.mustCaptureRuleEnabled);
+        }
+        return position;
+    }
+
+    /** Позиция из неизменяемого Position. */
+    @NonNull
+    public static BitboardPosition fromPosition(@NonNull Position position) {
+        return new BitboardPosition(position.getWhite(), position.getBlack(), position.getKings(),
+                position.getSideToMove(), position.getChainSquare(),
+                position.getPendingCaptured(), position.isMustCaptureRuleEnabled());
+    }
+
+    /** Неизменяемый снимок текущего состояния (без таблицы очков). */
+    @NonNull
+    public Position toPosition() {
+        return new Position(white, black, kings, sideToMove, chainSquare, pendingCaptured,
+                mustCaptureRuleEnabled, hash);
+    }
+
+    /** Обратное преобразование в BoardState (без потерь). */
+    @NonNull
+    public BoardState toBoardState() {
+        BoardState board = new BoardState();
+        int occupied = white | black;
+        while (occupied != 0) {
+            int square = Integer.numberOfTrailingZeros(occupied);
+            int bit = 1 << square;
+            occupied &= occupied - 1;
+
+            PieceType piece;
+            if ((white & bit) != 0) {
+                piece = (kings & bit) != 0 ? PieceType.WHITE_KING : PieceType.WHITE_MAN;
+            } else {
+                piece = (kings & bit) != 0 ? PieceType.BLACK_KING : PieceType.BLACK_MAN;
+            }
+            board.setPiece(Bitboards.row(square), Bitboards.col(square), piece);
+        }
+        return board;
+    }
+
+    @NonNull
+    public BitboardPosition copy() {
+        return new BitboardPosition(this);
+    }
+
+    // ------------------------------------------------------------------
+    // Геттеры
+    // ------------------------------------------------------------------
+
+    public int getWhite() {
+        return white;
+    }
+
+    public int getBlack() {
+        return black;
+    }
+
+    public int getKings() {
+        return kings;
+    }
+
+    @NonNull
+    public Player getSideToMove() {
+        return sideToMove;
+    }
+
+    /** Клетка шашки, обязанной продолжать бой, или Bitboards.NO_SQUARE. */
+    public int getChainSquare() {
+        return chainSquare;
+    }
+
+    /** Фигуры, побитые в незавершённой цепочке, но ещё стоящие на доске. */
+    public int getPendingCaptured() {
+        return pendingCaptured;
+    }
+
+    public boolean isMustCaptureRuleEnabled() {
+        return mustCaptureRuleEnabled;
+    }
+
+    /**
+     * Подключить таблицу очков (или отключить — null). Суммы сразу
+     * пересчитываются полностью, дальше ведутся инкрементально.
+     */
+    public void setScoreTable(@Nullable PieceSquareTable table) {
+        this.scoreTable = table;
+        if (table == null) {
+            whiteScore = 0;
+            blackScore = 0;
+        } else {
+            whiteScore = table.sum(true, white, kings);
+            blackScore = table.sum(false, black, kings);
+        }
+    }
+
+    @Nullable
+    public PieceSquareTable getScoreTable() {
+        return scoreTable;
+    }
+
+    /** Сумма очков белых фигур по подключённой таблице (0 — если таблицы нет). */
+    public int getWhiteScore() {
+        return whiteScore;
+    }
+
+    /** Сумма очков чёрных фигур по подключённой таблице (0 — если таблицы нет). */
+    public int getBlackScore() {
+        return blackScore;
+    }
+
+    /** Хеш Zobrist текущей позиции (с учётом очереди хода и цепочки). */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Хеш, посчитанный с нуля по маскам. Должен всегда совпадать с getHash();
+     * используется при создании позиции и для отладочной проверки.
+     */
+    public long computeHash() {
+        return Zobrist.hash(white, black, kings, sideToMove == Player.BLACK,
+                chainSquare, pendingCaptured, mustCaptureRuleEnabled);
+    }
+
+    // ------------------------------------------------------------------
+    // Генерация ходов
+    // ------------------------------------------------------------------
+
+    /**
+     * Все допустимые ходы стороны, которая ходит. Взятие — сразу вся цепочка
+     * до конца (см. Bitboards: полный ход в long). Первые прыжки этих ходов —
+     * ровно GameLogic.getAllMovesForCurrentPlayer(); ходы с одинаковым
+     * результатом (откуда, куда, кого побили) выдаются один раз.
+     *
+     * @param out буфер не короче MAX_MOVES
+     * @return количество записанных ходов
+     */
+    public int generateMoves(@NonNull long[] out) {
+        int own = sideToMove == Player.WHITE ? white : black;
+        int opponent = sideToMove == Player.WHITE ? black : white;
+        int empty = ~(white | black);
+
+        if (chainSquare != Bitboards.NO_SQUARE) {
+            // Во время цепочки — только продолжение боя той же фигурой.
+            return addCapturePaths(chainSquare, own, opponent, out, 0);
+        }
+
+        int men = own & ~kings;
+        int ownKings = own & kings;
+
+        // Шашки, которым есть кого бить: сдвиг на два шага и обратно.
+        int capturingMen = 0;
+        for (int direction : DIRECTIONS) {
+            int back = Bitboards.opposite(direction);
+            int landings = Bitboards.shift(Bitboards.shift(men, direction) & opponent, direction) & empty;
+            capturingMen |= Bitboards.shift(Bitboards.shift(landings, back), back);
+        }
+
+        int count = 0;
+        for (int m = capturingMen | ownKings; m != 0; m &= m - 1) {
+            count = addCapturePaths(Integer.numberOfTrailingZeros(m), own, opponent, out, count);
+        }
+
+        if (count > 0 && mustCaptureRuleEnabled) {
+            return count;
+        }
+
+        count = addManQuietMoves(men, empty, out, count);
+        for (int k = ownKings; k != 0; k &= k - 1) {
+            count = addKingQuietMoves(Integer.numberOfTrailingZeros(k), empty, out, count);
+        }
+        return count;
+    }
+
+    /**
+     * Есть ли у стороны, которая ходит, хотя бы один ход.
+     * Дешевле generateMoves(): ничего не записывает и выходит на первом найденном.
+     */
+    public boolean hasAnyMove() {
+        int own = sideToMove == Player.WHITE ? white : black;
+        int opponent = sideToMove == Player.WHITE ? black : white;
+        int empty = ~(white | black);
+
+        if (chainSquare != Bitboards.NO_SQUARE) {
+            return canCapture(chainSquare, own, opponent);
+        }
+
+        int men = own & ~kings;
+        int forwardLeft = sideToMove == Player.WHITE ? Bitboards.UP_LEFT : Bitboards.DOWN_LEFT;
+        int forwardRight = sideToMove == Player.WHITE ? Bitboards.UP_RIGHT : Bitboards.DOWN_RIGHT;
+        if ((Bitboards.shift(men, forwardLeft) & empty) != 0
+                || (Bitboards.shift(men, forwardRight) & empty) != 0) {
+            return true;
+        }
+        for (int direction : DIRECTIONS) {
+            // дамке достаточно одной свободной соседней клетки
+            if ((Bitboards.shift(own & kings, direction) & empty) != 0) {
+                return true;
+            }
+            int jumps = Bitboards.shift(Bitboards.shift(men, direction) & opponent, direction);
+            if ((jumps & empty) != 0) {
+                return true;
+            }
+        }
+        for (int k = own & kings; k != 0; k &= k - 1) {
+            if (canCapture(Integer.numberOfTrailingZeros(k), own, opponent)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Есть ли у стороны side хотя бы одно взятие — независимо от того, чья очередь.
+     * Поиску это нужно, чтобы отличать спокойные позиции от тех, где висят рубки.
+     */
+    public boolean hasCapture(@NonNull Player side) {
+        int own = side == Player.WHITE ? white : black;
+        int opponent = side == Player.WHITE ? black : white;
+        int empty = ~(white | black);
+        int capturable = opponent & ~pendingCaptured;
+
+        int men = own & ~kings;
+        for (int direction : DIRECTIONS) {
+            int jumps = Bitboards.shift(Bitboards.shift(men, direction) & capturable, direction);
+            if ((jumps & empty) != 0) {
+                return true;
+            }
+        }
+        for (int k = own & kings; k != 0; k &= k - 1) {
+            if (canCapture(Integer.numberOfTrailingZeros(k), own, opponent)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ------------------------------------------------------------------
+    // Применение хода
+    // ------------------------------------------------------------------
+
+    /** Применить ход (без проверки легальности). Очередь всегда переходит сопернику. */
+    public void applyMove(long move) {
+        makeMove(move);
+    }
+
+    /**
+     * Применить ход (без проверки легальности) и вернуть компактную запись
+     * для отката через unmakeMove(). Ничего не аллоцирует.
+     * Все побитые фигуры снимаются разом в конце хода (турецкий удар
+     * внутри цепочки учтён ещё при генерации).
+     */
+    public long makeMove(long move) {
+        int from = Bitboards.pathFrom(move);
+        int fromBit = 1 << from;
+        int to = Bitboards.pathTo(move);
+        int toBit = 1 << to;
+        int captured = Bitboards.pathCapturedMask(move);
+        boolean whiteMoves = sideToMove == Player.WHITE;
+        boolean wasKing = (kings & fromBit) != 0;
+        boolean isKing = wasKing || Bitboards.pathPromotes(move);
+
+        long undo = ((long) pendingCaptured << UNDO_PENDING_SHIFT)
+                | ((captured & kings) & 0xFFFFFFFFL);
+
+        PieceSquareTable table = scoreTable;
+        int lostScore = 0;
+
+        // 1. побитые фигуры (включая оставшиеся от начала цепочки)
+        for (int m = captured; m != 0; m &= m - 1) {
+            int square = Integer.numberOfTrailingZeros(m);
+            boolean king = (kings & (1 << square)) != 0;
+            hash ^= Zobrist.pieceKey(!whiteMoves, king, square);
+            if (table != null) {
+                lostScore += table.value(!whiteMoves, king, square);
+            }
+        }
+        white &= ~captured;
+        black &= ~captured;
+        kings &= ~captured;
+        for (int m = pendingCaptured; m != 0; m &= m - 1) {
+            hash ^= Zobrist.pendingKey(Integer.numberOfTrailingZeros(m));
+        }
+        pendingCaptured = 0;
+        if (chainSquare != Bitboards.NO_SQUARE) {
+            hash ^= Zobrist.chainKey(chainSquare);
+            chainSquare = Bitboards.NO_SQUARE;
+        }
+
+        // 2. сама фигура (from может совпасть с to — дамка обошла круг)
+        if (whiteMoves) {
+            white = (white & ~fromBit) | toBit;
+        } else {
+            black = (black & ~fromBit) | toBit;
+        }
+        kings &= ~fromBit;
+        if (isKing) {
+            kings |= toBit;
+        }
+        hash ^= Zobrist.pieceKey(whiteMoves, wasKing, from)
+                ^ Zobrist.pieceKey(whiteMoves, isKing, to);
+
+        if (table != null) {
+            int gained = table.value(whiteMoves, isKing, to) - table.value(whiteMoves, wasKing, from);
+            if (whiteMoves) {
+                whiteScore += gained;
+                blackScore -= lostScore;
+            } else {
+                blackScore += gained;
+                whiteScore -= lostScore;
+            }
+        }
+
+        // 3. очередь соперника
+        sideToMove = sideToMove.opposite();
+        hash ^= Zobrist.BLACK_TO_MOVE;
+        return undo;
+    }
+
+    /**
+     * Откатить ход, применённый makeMove(). Откаты должны идти
+     * строго в обратном порядке.
+     */
+    public void unmakeMove(long move, long undo) {
+        int from = Bitboards.pathFrom(move);
+        int fromBit = 1 << from;
+        int to = Bitboards.pathTo(move);
+        int toBit = 1 << to;
+        int captured = Bitboards.pathCapturedMask(move);
+        int capturedKings = (int) undo;
+        int pendingBefore = (int) (undo >>> UNDO_PENDING_SHIFT);
+
+        sideToMove = sideToMove.opposite();
+        hash ^= Zobrist.BLACK_TO_MOVE;
+        boolean whiteMoved = sideToMove == Player.WHITE;
+
+        boolean isKing = (kings & toBit) != 0;
+        boolean wasKing = isKing && !Bitboards.pathPromotes(move);
+        if (whiteMoved) {
+            white = (white & ~toBit) | fromBit;
+        } else {
+            black = (black & ~toBit) | fromBit;
+        }
+        kings &= ~toBit;
+        if (wasKing) {
+            kings |= fromBit;
+        }
+        hash ^= Zobrist.pieceKey(whiteMoved, isKing, to)
+                ^ Zobrist.pieceKey(whiteMoved, wasKing, from);
+
+        if (whiteMoved) {
+            black |= captured;
+        } else {
+            white |= captured;
+        }
+        kings |= capturedKings;
+        PieceSquareTable table = scoreTable;
+        int restoredScore = 0;
+        for (int m = captured; m != 0; m &= m - 1) {
+            int square = Integer.numberOfTrailingZeros(m);
+            boolean king = (capturedKings & (1 << square)) != 0;
+            hash ^= Zobrist.pieceKey(!whiteMoved, king, square);
+            if (table != null) {
+                restoredScore += table.value(!whiteMoved, king, square);
+            }
+        }
+        if (table != null) {
+            int gained = table.value(whiteMoved, isKing, to) - table.value(whiteMoved, wasKing, from);
+            if (whiteMoved) {
+                whiteScore -= gained;
+                blackScore += restoredScore;
+            } else {
+                blackScore -= gained;
+                whiteScore += restoredScore;
+            }
+        }
+
+        // Цепочка до хода была, только если уже были побитые фигуры;
+        // продолжала её та же фигура, с которой начат ход.
+        pendingCaptured = pendingBefore;
+        for (int m = pendingBefore; m != 0; m &= m - 1) {
+            hash ^= Zobrist.pendingKey(Integer.numberOfTrailingZeros(m));
+        }
+        if (pendingBefore != 0) {
+            chainSquare = from;
+            hash ^= Zobrist.chainKey(from);
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Внутренняя генерация
+    // ------------------------------------------------------------------
+
+    /** Все цепочки взятий фигуры с клетки from (если бить нечего — ничего не пишет). */
+    private int addCapturePaths(int from, int own, int opponent, @NonNull long[] out, int count) {
+        boolean king = (kings & (1 << from)) != 0;
+        return extendCapturePath(from, from, king, own, opponent, pendingCaptured,
+                Bitboards.NO_SQUARE, Bitboards.NO_SQUARE, false, out, count, count);
+    }
+
+    /**
+     * Продолжить цепочку взятий фигурой на square.
+     * Побитые фигуры (captured) остаются на доске до конца хода: через них нельзя
+     * перепрыгнуть второй раз и на их место нельзя встать (турецкий удар).
+     * Шашка, дошедшая до последней горизонтали, дальше бьёт уже как дамка.
+     * Дамка, как и в GameLogic, по каждому направлению приземляется только
+     * на клетки с максимальной длиной дальнейшей цепочки.
+     * Когда бить больше нечего — ход записывается в out (если такого же
+     * результата ещё нет среди ходов этой фигуры, начиная с pieceStart).
+     */
+    private int extendCapturePath(int from,
+                                  int square,
+                                  boolean king,
+                                  int own,
+                                  int opponent,
+                                  int captured,
+                                  int firstLanding,
+                                  int firstCaptured,
+                                  boolean promotes,
+                                  @NonNull long[] out,
+                                  int count,
+                                  int pieceStart) {
+        int bit = 1 << square;
+        int occupied = own | opponent;
+        int capturable = opponent & ~captured;
+        int ownWithoutPiece = own & ~bit;
+        int promotionRow = sideToMove == Player.WHITE ? Bitboards.ROW_TOP : Bitboards.ROW_BOTTOM;
+        boolean extended = false;
+
+        for (int direction : DIRECTIONS) {
+            int victim;
+            int landings;
+            if (king) {
+                int blocker = Bitboards.firstBlocker(square, direction, occupied);
+                if (blocker == Bitboards.NO_SQUARE || (capturable & (1 << blocker)) == 0) {
+                    // край доски, своя фигура или уже побитая
+                    continue;
+                }
+                victim = 1 << blocker;
+                landings = bestKingLandings(blocker, direction, ownWithoutPiece, opponent,
+                        captured | victim);
+            } else {
+                int landing = Bitboards.jump(square, direction);
+                if (landing == Bitboards.NO_SQUARE) {
+                    continue;
+                }
+                victim = (1 << Bitboards.neighbor(square, direction)) & capturable;
+                landings = victim != 0 ? (1 << landing) & ~occupied : 0;
+            }
+
+            while (landings != 0) {
+                int landing = Integer.numberOfTrailingZeros(landings);
+                int landingBit = 1 << landing;
+                landings &= landings - 1;
+                extended = true;
+
+                boolean nowKing = king || (landingBit & promotionRow) != 0;
+                int victimSquare = Integer.numberOfTrailingZeros(victim);
+                count = extendCapturePath(from, landing, nowKing,
+                        ownWithoutPiece | landingBit, opponent, captured | victim,
+                        firstLanding == Bitboards.NO_SQUARE ? landing : firstLanding,
+                        firstLanding == Bitboards.NO_SQUARE ? victimSquare : firstCaptured,
+                        promotes || nowKing != king,
+                        out, count, pieceStart);
+            }
+        }
+
+        if (extended || firstLanding == Bitboards.NO_SQUARE) {
+            return count;
+        }
+
+        long move = Bitboards.pathCapture(from, square, firstLanding, firstCaptured, captured, promotes);
+        for (int i = pieceStart; i < count; i++) {
+            if (Bitboards.sameOutcome(out[i], move)) {
+                return count;
+            }
+        }
+        out[count++] = move;
+        return count;
+    }
+
+    /**
+     * Клетки приземления дамки за фигурой на victim (в направлении direction),
+     * дающие максимальное число дальнейших взятий.
+     *
+     * @param own      свои фигуры без самой дамки
+     * @param captured уже побитые фигуры, включая victim
+     */
+    private static int bestKingLandings(int victim, int direction, int own, int opponent, int captured) {
+        int occupied = own | opponent;
+        int best = 0;
+        int bestLandings = 0;
+        for (int landing : Bitboards.ray(victim, direction)) {
+            int landingBit = 1 << landing;
+            if ((landingBit & occupied) != 0) {
+                break;
+            }
+            int total = 1 + maxKingCaptures(landing, own | landingBit, opponent, captured);
+            if (total > best) {
+                best = total;
+                bestLandings = landingBit;
+            } else if (total == best) {
+                bestLandings |= landingBit;
+            }
+        }
+        return bestLandings;
+    }
+
+    /** Тихие ходы простых шашек — только вперёд. */
+    private int addManQuietMoves(int men, int empty, @NonNull long[] out, int count) {
+        boolean whiteMoves = sideToMove == Player.WHITE;
+        int forwardLeft = whiteMoves ? Bitboards.UP_LEFT : Bitboards.DOWN_LEFT;
+        int forwardRight = whiteMoves ? Bitboards.UP_RIGHT : Bitboards.DOWN_RIGHT;
+        int promotionRow = whiteMoves ? Bitboards.ROW_TOP : Bitboards.ROW_BOTTOM;
+        count = addSingleSteps(men, empty, forwardLeft, promotionRow, out, count);
+        return addSingleSteps(men, empty, forwardRight, promotionRow, out, count);
+    }
+
+    private static int addSingleSteps(int men,
+                                      int empty,
+                                      int direction,
+                                      int promotionRow,
+                                      @NonNull long[] out,
+                                      int count) {
+        int back = Bitboards.opposite(direction);
+        int targets = Bitboards.shift(men, direction) & empty;
+        while (targets != 0) {
+            int to = Integer.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            int from = Integer.numberOfTrailingZeros(Bitboards.shift(1 << to, back));
+            out[count++] = Bitboards.pathQuiet(from, to, ((1 << to) & promotionRow) != 0);
+        }
+        return count;
+    }
+
+    /** Тихие ходы дамки: по всем лучам до первой занятой клетки. */
+    private static int addKingQuietMoves(int from, int empty, @NonNull long[] out, int count) {
+        for (int direction : DIRECTIONS) {
+            for (int to : Bitboards.ray(from, direction)) {
+                if ((empty & (1 << to)) == 0) {
+                    break;
+                }
+                out[count++] = Bitboards.pathQuiet(from, to, false);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Максимальное число взятий дамкой на клетке king (включена в own), не считая уже сделанных.
+     * Побитые фигуры (captured) стоят на доске до конца хода и перекрывают лучи.
+     */
+    private static int maxKingCaptures(int king, int own, int opponent, int captured) {
+        int occupied = own | opponent;
+        int capturable = opponent & ~captured;
+        int ownWithoutKing = own & ~(1 << king);
+        int best = 0;
+
+        for (int direction : DIRECTIONS) {
+            int victim = Bitboards.firstBlocker(king, direction, occupied);
+            if (victim == Bitboards.NO_SQUARE || (capturable & (1 << victim)) == 0) {
+                continue;
+            }
+
+            int capturedAfter = captured | (1 << victim);
+            for (int landing : Bitboards.ray(victim, direction)) {
+                int landingBit = 1 << landing;
+                if ((landingBit & occupied) != 0) {
+                    break;
+                }
+                int total = 1 + maxKingCaptures(landing, ownWithoutKing | landingBit, opponent, capturedAfter);
+                if (total > best) {
+                    best = total;
+                }
+            }
+        }
+        return best;
+    }
+
+    /** Может ли фигура на square (своя, из own) что-то побить прямо сейчас. */
+    private boolean canCapture(int square, int own, int opponent) {
+        int occupied = own | opponent;
+        int capturable = opponent & ~pendingCaptured;
+        boolean king = (kings & (1 << square)) != 0;
+
+        for (int direction : DIRECTIONS) {
+            int victim = king
+                    ? Bitboards.firstBlocker(square, direction, occupied)
+                    : Bitboards.neighbor(square, direction);
+            if (victim == Bitboards.NO_SQUARE || (capturable & (1 << victim)) == 0) {
+                continue;
+            }
+            int landing = Bitboards.neighbor(victim, direction);
+            if (landing != Bitboards.NO_SQUARE && (occupied & (1 << landing)) == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
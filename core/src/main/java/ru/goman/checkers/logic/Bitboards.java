@@ -0,0 +1,396 @@
+package ru.goman.checkers.logic;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+
+import ru.goman.checkers.model.BoardState;
+import ru.goman.checkers.model.Move;
+
+/**
+ * Утилиты для 32-клеточного битового представления доски.
+ * Нумерация игровых (тёмных) клеток: square = row * 4 + col / 2, т.е. 0..31
+ * сверху вниз и слева направо; бит square в int-маске — эта клетка.
+ * Кодирование элементарного хода (один прыжок) в один int — так ходы
+ * хранит GameLogic:
+ *  - биты 0..4   — клетка "откуда";
+ *  - биты 5..9   — клетка "куда";
+ *  - биты 10..14 — клетка побитой фигуры (если есть взятие);
+ *  - бит 15      — признак взятия.
+ * Полный ход движка (вся цепочка взятий целиком, см. BitboardPosition) — long:
+ *  - биты 0..31  — маска всех побитых фигур;
+ *  - биты 32..36 — клетка "откуда";
+ *  - биты 37..41 — клетка "куда" (конец цепочки);
+ *  - биты 42..46 — клетка приземления после первого прыжка;
+ *  - бит 47      — признак взятия;
+ *  - биты 48..52 — клетка фигуры, побитой первым прыжком;
+ *  - бит 53      — шашка по ходу цепочки стала дамкой.
+ * Первый прыжок полного хода переводится в элементарный ход (firstStep()),
+ * а младшие 16 бит старшей половины — компактная подпись хода (signature())
+ * для таблицы транспозиций. Маски побитых в подписи нет, так что это подсказка
+ * для сортировки, а не имя хода.
+ * Для генераторов ходов заранее посчитаны таблицы по клеткам и направлениям:
+ * сосед (neighbor()), клетка приземления при прыжке (jump()) и весь луч
+ * до края доски — списком клеток от ближней к дальней (ray()) и маской
+ * (rayMask(), firstBlocker()). Обход идёт по таблицам, без арифметики
+ * координат и проверок выхода за доску.
+ * Без Android, без аллокаций — только арифметика.
+ */
+public final class Bitboards {
+
+    public static final int SQUARES = 32;
+    public static final int NO_SQUARE = -1;
+    /** Код "нет хода": ни один допустимый ход так не кодируется (from != to). */
+    public static final int NO_MOVE = 0;
+
+    // Направления (порядок совпадает с перебором dr/dc в GameLogic).
+    public static final int UP_LEFT = 0;
+    public static final int UP_RIGHT = 1;
+    public static final int DOWN_LEFT = 2;
+    public static final int DOWN_RIGHT = 3;
+    public static final int DIRECTIONS = 4;
+
+    /** Верхняя горизонталь (row = 0) — здесь превращаются белые. */
+    public static final int ROW_TOP = 0x0000000F;
+    /** Нижняя горизонталь (row = 7) — здесь превращаются чёрные. */
+    public static final int ROW_BOTTOM = 0xF0000000;
+
+    // Чётные ряды: тёмные клетки в нечётных столбцах; нечётные — в чётных.
+    private static final int EVEN_ROWS = 0x0F0F0F0F;
+    private static final int ODD_ROWS = 0xF0F0F0F0;
+    // Крайние клетки ряда (col / 2 == 0 и col / 2 == 3).
+    private static final int LEFT_SQUARES = 0x11111111;
+    private static final int RIGHT_SQUARES = 0x88888888;
+
+    private static final int FROM_SHIFT = 0;
+    private static final int TO_SHIFT = 5;
+    private static final int CAPTURED_SHIFT = 10;
+    private static final int CAPTURE_FLAG = 1 << 15;
+    private static final int SQUARE_MASK = 0x1F;
+
+    private static final int PATH_FROM_SHIFT = 32;
+    private static final int PATH_TO_SHIFT = 37;
+    private static final int PATH_FIRST_LANDING_SHIFT = 42;
+    private static final long PATH_CAPTURE_FLAG = 1L << 47;
+    private static final int PATH_FIRST_CAPTURED_SHIFT = 48;
+    private static final long PATH_PROMOTES_FLAG = 1L << 53;
+    /** Поля, которые определяют результат хода (без первого прыжка). */
+    private static final long PATH_OUTCOME_MASK = 0xFFFFFFFFL
+            | ((long) SQUARE_MASK << PATH_FROM_SHIFT)
+            | ((long) SQUARE_MASK << PATH_TO_SHIFT)
+            | PATH_CAPTURE_FLAG
+            | PATH_PROMOTES_FLAG;
+
+    // Таблицы лучей, индекс — square * DIRECTIONS + direction.
+    private static final int[] NEIGHBORS = new int[SQUARES * DIRECTIONS];
+    private static final int[] JUMPS = new int[SQUARES * DIRECTIONS];
+    private static final int[] RAY_MASKS = new int[SQUARES * DIRECTIONS];
+    private static final int[][] RAYS = new int[SQUARES * DIRECTIONS][];
+
+    static {
+        int[] steps = new int[BoardState.BOARD_SIZE];
+        for (int square = 0; square < SQUARES; square++) {
+            int row = row(square);
+            int col = col(square);
+            for (int direction = 0; direction < DIRECTIONS; direction++) {
+                int dr = direction < DOWN_LEFT ? -1 : 1;
+                int dc = (direction & 1) == 0 ? -1 : 1;
+                int length = 0;
+                int mask = 0;
+                for (int r = row + dr, c = col + dc; isPlayable(r, c); r += dr, c += dc) {
+                    int target = square(r, c);
+                    steps[length++] = target;
+                    mask |= 1 << target;
+                }
+                int index = square * DIRECTIONS + direction;
+                NEIGHBORS[index] = length > 0 ? steps[0] : NO_SQUARE;
+                JUMPS[index] = length > 1 ? steps[1] : NO_SQUARE;
+                RAY_MASKS[index] = mask;
+                RAYS[index] = Arrays.copyOf(steps, length);
+            }
+        }
+    }
+
+    private Bitboards() {
+    }
+
+    // ------------------------------------------------------------------
+    // Клетки
+    // ------------------------------------------------------------------
+
+    /**
+     * Индекс клетки 0..31 по строке/столбцу.
+     *
+     * @throws IllegalArgumentException если клетка вне доски или светлая.
+     */
+    public static int square(int row, int col) {
+        if (row < 0 || row >= BoardState.BOARD_SIZE
+                || col < 0 || col >= BoardState.BOARD_SIZE
+                || ((row + col) & 1) == 0) {
+            throw new IllegalArgumentException(
+                    "Cell (" + row + "," + col + ") is not a playable square");
+        }
+        return row * 4 + (col >> 1);
+    }
+
+    /** Игровая (тёмная) клетка внутри доски? */
+    public static boolean isPlayable(int row, int col) {
+        return row >= 0 && row < BoardState.BOARD_SIZE
+                && col >= 0 && col < BoardState.BOARD_SIZE
+                && ((row + col) & 1) != 0;
+    }
+
+    public static int row(int square) {
+        return square >> 2;
+    }
+
+    public static int col(int square) {
+        int row = square >> 2;
+        return ((square & 3) << 1) + ((row & 1) == 0 ? 1 : 0);
+    }
+
+    /** Противоположное направление. */
+    public static int opposite(int direction) {
+        return DIRECTIONS - 1 - direction;
+    }
+
+    /**
+     * Сдвиг всех клеток маски на одну клетку в направлении direction.
+     * Клетки, уходящие за край доски, пропадают.
+     */
+    public static int shift(int mask, int direction) {
+        switch (direction) {
+            case UP_LEFT:
+                return ((mask & EVEN_ROWS) >>> 4) | ((mask & ODD_ROWS & ~LEFT_SQUARES) >>> 5);
+            case UP_RIGHT:
+                return ((mask & EVEN_ROWS & ~RIGHT_SQUARES) >>> 3) | ((mask & ODD_ROWS) >>> 4);
+            case DOWN_LEFT:
+                return ((mask & EVEN_ROWS) << 4) | ((mask & ODD_ROWS & ~LEFT_SQUARES) << 3);
+            case DOWN_RIGHT:
+                return ((mask & EVEN_ROWS & ~RIGHT_SQUARES) << 5) | ((mask & ODD_ROWS) << 4);
+            default:
+                throw new IllegalArgumentException("Unknown direction: " + direction);
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Лучи
+    // ------------------------------------------------------------------
+
+    /** Соседняя клетка в направлении direction или NO_SQUARE у края доски. */
+    public static int neighbor(int square, int direction) {
+        return NEIGHBORS[square * DIRECTIONS + direction];
+    }
+
+    /** Клетка через одну в направлении direction (приземление простой) или NO_SQUARE. */
+    public static int jump(int square, int direction) {
+        return JUMPS[square * DIRECTIONS + direction];
+    }
+
+    /** Все клетки луча от square до края доски (сама square не входит). */
+    public static int rayMask(int square, int direction) {
+        return RAY_MASKS[square * DIRECTIONS + direction];
+    }
+
+    /**
+     * Клетки луча от ближней к дальней. Массив общий — не изменять.
+     */
+    @NonNull
+    static int[] ray(int square, int direction) {
+        return RAYS[square * DIRECTIONS + direction];
+    }
+
+    /**
+     * Первая занятая клетка луча (из occupied) или NO_SQUARE, если луч свободен
+     * до края. Вниз номера клеток растут, вверх — убывают, поэтому ближайшая —
+     * младший или старший бит пересечения.
+     */
+    public static int firstBlocker(int square, int direction, int occupied) {
+        int blockers = RAY_MASKS[square * DIRECTIONS + direction] & occupied;
+        if (blockers == 0) {
+            return NO_SQUARE;
+        }
+        return direction >= DOWN_LEFT
+                ? Integer.numberOfTrailingZeros(blockers)
+                : 31 - Integer.numberOfLeadingZeros(blockers);
+    }
+
+    /**
+     * Свободная часть луча: клетки от square до первой занятой (не включая её).
+     */
+    public static int freeRayMask(int square, int direction, int occupied) {
+        int ray = RAY_MASKS[square * DIRECTIONS + direction];
+        int blocker = firstBlocker(square, direction, occupied);
+        if (blocker == NO_SQUARE) {
+            return ray;
+        }
+        return ray & ~RAY_MASKS[blocker * DIRECTIONS + direction] & ~(1 << blocker);
+    }
+
+    // ------------------------------------------------------------------
+    // Кодирование ходов
+    // ------------------------------------------------------------------
+
+    /** Тихий ход from → to. */
+    public static int encodeQuiet(int from, int to) {
+        return (from << FROM_SHIFT) | (to << TO_SHIFT);
+    }
+
+    /** Взятие from → to с побитой фигурой на captured. */
+    public static int encodeCapture(int from, int to, int captured) {
+        return (from << FROM_SHIFT) | (to << TO_SHIFT)
+                | (captured << CAPTURED_SHIFT) | CAPTURE_FLAG;
+    }
+
+    /** Закодировать ход из публичного API. */
+    public static int encode(@NonNull Move move) {
+        int from = square(move.getFromRow(), move.getFromCol());
+        int to = square(move.getToRow(), move.getToCol());
+        if (move.isCapture()) {
+            return encodeCapture(from, to, square(move.getCapturedRow(), move.getCapturedCol()));
+        }
+        return encodeQuiet(from, to);
+    }
+
+    /**
+     * Как encode(), но для хода, который вообще не ложится на игровые клетки,
+     * возвращает NO_MOVE вместо исключения. Удобно для проверки ходов из UI.
+     */
+    public static int tryEncode(@NonNull Move move) {
+        if (!isPlayable(move.getFromRow(), move.getFromCol())
+                || !isPlayable(move.getToRow(), move.getToCol())
+                || (move.isCapture() && !isPlayable(move.getCapturedRow(), move.getCapturedCol()))) {
+            return NO_MOVE;
+        }
+        return encode(move);
+    }
+
+    /** Раскодировать ход в объект публичного API. */
+    @NonNull
+    public static Move decode(int move) {
+        int from = moveFrom(move);
+        int to = moveTo(move);
+        if (isCapture(move)) {
+            int captured = moveCaptured(move);
+            return new Move(row(from), col(from), row(to), col(to), row(captured), col(captured));
+        }
+        return new Move(row(from), col(from), row(to), col(to));
+    }
+
+    public static int moveFrom(int move) {
+        return (move >>> FROM_SHIFT) & SQUARE_MASK;
+    }
+
+    public static int moveTo(int move) {
+        return (move >>> TO_SHIFT) & SQUARE_MASK;
+    }
+
+    /** Клетка побитой фигуры; имеет смысл только если isCapture(move). */
+    public static int moveCaptured(int move) {
+        return (move >>> CAPTURED_SHIFT) & SQUARE_MASK;
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE_FLAG) != 0;
+    }
+
+    // ------------------------------------------------------------------
+    // Полные ходы движка (long)
+    // ------------------------------------------------------------------
+
+    /** Полный тихий ход from → to. */
+    public static long pathQuiet(int from, int to, boolean promotes) {
+        long move = ((long) from << PATH_FROM_SHIFT)
+                | ((long) to << PATH_TO_SHIFT)
+                | ((long) to << PATH_FIRST_LANDING_SHIFT);
+        return promotes ? move | PATH_PROMOTES_FLAG : move;
+    }
+
+    /**
+     * Полное взятие.
+     *
+     * @param capturedMask  все фигуры, снимаемые с доски в конце хода
+     * @param firstLanding  клетка после первого прыжка
+     * @param firstCaptured фигура, побитая первым прыжком
+     */
+    public static long pathCapture(int from,
+                                   int to,
+                                   int firstLanding,
+                                   int firstCaptured,
+                                   int capturedMask,
+                                   boolean promotes) {
+        long move = (capturedMask & 0xFFFFFFFFL)
+                | ((long) from << PATH_FROM_SHIFT)
+                | ((long) to << PATH_TO_SHIFT)
+                | ((long) firstLanding << PATH_FIRST_LANDING_SHIFT)
+                | PATH_CAPTURE_FLAG
+                | ((long) firstCaptured << PATH_FIRST_CAPTURED_SHIFT);
+        return promotes ? move | PATH_PROMOTES_FLAG : move;
+    }
+
+    public static int pathFrom(long move) {
+        return (int) (move >>> PATH_FROM_SHIFT) & SQUARE_MASK;
+    }
+
+    public static int pathTo(long move) {
+        return (int) (move >>> PATH_TO_SHIFT) & SQUARE_MASK;
+    }
+
+    /** Маска побитых фигур (0 для тихого хода). */
+    public static int pathCapturedMask(long move) {
+        return (int) move;
+    }
+
+    public static boolean pathIsCapture(long move) {
+        return (move & PATH_CAPTURE_FLAG) != 0;
+    }
+
+    /** Стала ли шашка дамкой по ходу (в том числе посреди цепочки). */
+    public static boolean pathPromotes(long move) {
+        return (move & PATH_PROMOTES_FLAG) != 0;
+    }
+
+    /** Первый прыжок полного хода как элементарный ход GameLogic. */
+    public static int firstStep(long move) {
+        int from = pathFrom(move);
+        int landing = (int) (move >>> PATH_FIRST_LANDING_SHIFT) & SQUARE_MASK;
+        if (!pathIsCapture(move)) {
+            return encodeQuiet(from, landing);
+        }
+        int captured = (int) (move >>> PATH_FIRST_CAPTURED_SHIFT) & SQUARE_MASK;
+        return encodeCapture(from, landing, captured);
+    }
+
+    /**
+     * Одинаков ли результат двух ходов (откуда, куда, кого побили, превращение)
+     * независимо от порядка прыжков.
+     */
+    public static boolean sameOutcome(long a, long b) {
+        return (a & PATH_OUTCOME_MASK) == (b & PATH_OUTCOME_MASK);
+    }
+
+    /**
+     * Ведёт ли continuation (ход из середины цепочки) к тому же результату,
+     * что и planned — полный ход, начатый с исходной клетки цепочки.
+     * Клетку "откуда" не сравниваем: продолжение начинается там, где фигура
+     * стоит сейчас. Маска побитых у продолжения уже включает отложенные взятия.
+     * Превращение, случившееся на уже сделанных прыжках, у продолжения не отмечено.
+     */
+    public static boolean continuesPath(long continuation, long planned) {
+        return pathTo(continuation) == pathTo(planned)
+                && pathCapturedMask(continuation) == pathCapturedMask(planned)
+                && (!pathPromotes(continuation) || pathPromotes(planned));
+    }
+
+    /**
+     * Компактная 16-битная подпись хода (откуда, куда, первое приземление, взятие);
+     * 0 — "нет хода". Маска побитых в 16 бит записи таблицы транспозиций не входит,
+     * поэтому подпись не идентифицирует ход: две цепочки с общими началом, первым
+     * прыжком и концом, но разными путями посередине (дамка обходит фигуры
+     * по-разному), подписи не различают. Годится только как подсказка для
+     * сортировки — ход по ней не восстанавливают (см. continuesPath()).
+     */
+    public static int signature(long move) {
+        return (int) (move >>> PATH_FROM_SHIFT) & 0xFFFF;
+    }
+}
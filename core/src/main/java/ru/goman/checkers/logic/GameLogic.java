@@ -0,0 +1,1087 @@
+package ru.goman.checkers.logic;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import ru.goman.checkers.model.BoardState;
+import ru.goman.checkers.model.Move;
+import ru.goman.checkers.model.PieceType;
+import ru.goman.checkers.model.Player;
+
+/**
+ * Логика русских шашек (без Android).
+ * Хранит:
+ * - BoardState (доску);
+ * - текущего игрока;
+ * - состояние цепочки взятий (если есть незавершённый бой); побитые в цепочке
+ *   фигуры по правилу турецкого удара стоят на доске до конца хода;
+ * - флаг правила обязательного взятия (из настроек);
+ * - признак обязательного взятия в текущем положении.
+ * Позволяет:
+ * - получить все допустимые ходы текущего игрока;
+ * - получить ходы для конкретной клетки;
+ * - применить ход (с продолжением цепочки боёв, если нужно);
+ * - проверить конец игры;
+ * - делать снапшоты состояния (для Undo/ИИ).
+ * Важно: предполагается, что доска изменяется только через этот класс.
+ */
+public final class GameLogic {
+
+    // ----------------------------------------------------------------------
+    // Вспомогательные типы
+    // ----------------------------------------------------------------------
+
+    /**
+     * Результат применения хода.
+     */
+    public static final class MoveResult {
+
+        /** Продолжается ли цепочка взятий (тот же игрок обязан ходить той же шашкой). */
+        private final boolean captureChainContinues;
+
+        /**
+         * Победитель (если игра закончена).
+         * null — игра не окончена.
+         * Если not null:
+         *   - winner = WHITE или BLACK;
+         *   - проигравший — opposite().
+         *   - currentPlayer в этот момент указывает на проигравшего
+         *     (аналогично тому, как было в GameActivity).
+         */
+        @Nullable
+        private final Player winner;
+
+        private MoveResult(boolean captureChainContinues, @Nullable Player winner) {
+            this.captureChainContinues = captureChainContinues;
+            this.winner = winner;
+        }
+
+        /** Есть ли продолжение цепочки взятий тем же игроком. */
+        public boolean isCaptureChainContinues() {
+            return captureChainContinues;
+        }
+
+        /** Игра окончена? */
+        public boolean isGameOver() {
+            return winner != null;
+        }
+
+        /** Победитель, если игра окончена; иначе null. */
+        @Nullable
+        public Player getWinner() {
+            return winner;
+        }
+
+        @Override
+        @NonNull
+        public String toString() {
+            return "MoveResult{" +
+                    "captureChainContinues=" + captureChainContinues +
+                    ", winner=" + winner +
+                    '}';
+        }
+    }
+
+    /**
+     * Снапшот состояния игры (для Undo или ИИ).
+     * Содержит:
+     * - копию доски;
+     * - текущего игрока;
+     * - флаги обязательного взятия и цепочки;
+     * - координаты шашки, продолжающей бой (если есть);
+     * - фигуры, уже побитые в незавершённой цепочке (ещё стоят на доске).
+     */
+    public static final class GameSnapshot {
+        @NonNull
+        private final BoardState boardCopy;
+        @NonNull
+        private final Player currentPlayer;
+        private final boolean mustCapture;
+        private final boolean captureChainInProgress;
+        private final int chainRow;
+        private final int chainCol;
+        private final int pendingCapturedMask;
+
+        private GameSnapshot(@NonNull BoardState boardCopy,
+                             @NonNull Player currentPlayer,
+                             boolean mustCapture,
+                             boolean captureChainInProgress,
+                             int chainRow,
+                             int chainCol,
+                             int pendingCapturedMask) {
+            this.boardCopy = boardCopy;
+            this.currentPlayer = currentPlayer;
+            this.mustCapture = mustCapture;
+            this.captureChainInProgress = captureChainInProgress;
+            this.chainRow = chainRow;
+            this.chainCol = chainCol;
+            this.pendingCapturedMask = pendingCapturedMask;
+        }
+
+        @NonNull
+        public BoardState getBoardCopy() {
+            return boardCopy;
+        }
+
+        @NonNull
+        public Player getCurrentPlayer() {
+            return currentPlayer;
+        }
+
+        public boolean isMustCapture() {
+            return mustCapture;
+        }
+
+        public boolean isCaptureChainInProgress() {
+            return captureChainInProgress;
+        }
+
+        public int getChainRow() {
+            return chainRow;
+        }
+
+        public int getChainCol() {
+            return chainCol;
+        }
+
+        public int getPendingCapturedMask() {
+            return pendingCapturedMask;
+        }
+    }
+
+    private static final int EMPTY_CODE = PieceType.EMPTY.getCode();
+
+    /** Все коды элементарных ходов Bitboards меньше этого числа. */
+    private static final int MOVE_CODE_LIMIT = 1 << 16;
+
+    // ----------------------------------------------------------------------
+    // Поля состояния
+    // ----------------------------------------------------------------------
+
+    @NonNull
+    private final BoardState board;
+
+    @NonNull
+    private Player currentPlayer;
+
+    /**
+     * Флаг «правило обязательного взятия включено» (из настроек).
+     * Если false — игрок может делать тихие ходы, даже если есть взятия.
+     */
+    private final boolean mustCaptureRuleEnabled;
+
+    /** Есть ли обязательное взятие для текущего игрока (в рамках его хода, когда цепочки нет). */
+    private boolean mustCapture;
+
+    /** Находится ли партия в режиме продолжения цепочки взятий. */
+    private boolean captureChainInProgress;
+    /** Координаты шашки, которая обязана продолжать бой (если captureChainInProgress = true). */
+    private int chainRow;
+    private int chainCol;
+
+    /**
+     * Фигуры соперника, побитые в текущей цепочке (маска по клеткам Bitboards).
+     * По правилу турецкого удара они остаются на доске до конца хода:
+     * их нельзя бить повторно и через них нельзя перепрыгивать.
+     */
+    private int pendingCapturedMask;
+
+    /**
+     * Текущие допустимые ходы в int-кодировке Bitboards (после recomputeCurrentMoves()).
+     * Пересчитываются лениво — только если позиция изменилась (см. ensureCurrentMoves()).
+     * Объекты Move создаются только на выходе из публичного API.
+     */
+    @NonNull
+    private final MoveBuffer currentMoves = new MoveBuffer();
+
+    /**
+     * Поколение позиции: растёт при каждом настоящем изменении состояния
+     * (applyMove(), restoreFromSnapshot(), установка цепочки).
+     */
+    private int generation;
+
+    /** Для какого поколения посчитан currentMoves (-1 — ещё не посчитан). */
+    private int movesGeneration = -1;
+
+    /**
+     * BoardState.getModificationCount() на момент пересчёта: доску могли
+     * поменять и в обход GameLogic, тогда кэш тоже устарел.
+     */
+    private int movesBoardModification;
+
+    /**
+     * Множество кодов currentMoves: бит (code & 63) слова code >>> 6.
+     * Код хода Bitboards укладывается в 16 бит, поэтому isMoveLegal() — один сдвиг.
+     */
+    @NonNull
+    private final long[] legalMoveBits = new long[MOVE_CODE_LIMIT >>> 6];
+
+    /** Раскодированный currentMoves для getAllMovesForCurrentPlayer() (null — ещё не собран). */
+    @Nullable
+    private List<Move> currentMoveList;
+
+    // Переиспользуемые буферы генератора — без аллокаций на каждый пересчёт.
+    @NonNull
+    private final MoveBuffer captureBuffer = new MoveBuffer();
+    @NonNull
+    private final MoveBuffer quietBuffer = new MoveBuffer();
+    @NonNull
+    private final MoveBuffer directionBuffer = new MoveBuffer();
+
+    // ----------------------------------------------------------------------
+    // Конструкторы
+    // ----------------------------------------------------------------------
+
+    /**
+     * Полный конструктор с передачей флага mustCaptureRuleEnabled.
+     */
+    public GameLogic(@NonNull BoardState board,
+                     @NonNull Player startingPlayer,
+                     boolean mustCaptureRuleEnabled) {
+        this.board = board;
+        this.currentPlayer = startingPlayer;
+        this.mustCaptureRuleEnabled = mustCaptureRuleEnabled;
+        this.mustCapture = false;
+        this.captureChainInProgress = false;
+        this.chainRow = -1;
+        this.chainCol = -1;
+        recomputeCurrentMoves();
+    }
+
+    @NonNull
+    public static GameLogic newGame(@NonNull Player startingPlayer,
+                                    boolean mustCaptureRuleEnabled) {
+        BoardState board = new BoardState();
+        board.setupInitialPosition();
+        return new GameLogic(board, startingPlayer, mustCaptureRuleEnabled);
+    }
+
+    /**
+     * Партия из неизменяемой позиции, включая незавершённую цепочку взятий
+     * и уже побитые в ней фигуры.
+     */
+    @NonNull
+    public static GameLogic fromPosition(@NonNull Position position) {
+        GameLogic logic = new GameLogic(position.toBoardState(), position.getSideToMove(),
+                position.isMustCaptureRuleEnabled());
+        int chainSquare = position.getChainSquare();
+        if (chainSquare != Bitboards.NO_SQUARE) {
+            logic.captureChainInProgress = true;
+            logic.chainRow = Bitboards.row(chainSquare);
+            logic.chainCol = Bitboards.col(chainSquare);
+            logic.pendingCapturedMask = position.getPendingCaptured();
+            logic.invalidateMovesCache();
+        }
+        return logic;
+    }
+
+    // ----------------------------------------------------------------------
+    // Публичный API (геттеры состояния)
+    // ----------------------------------------------------------------------
+
+    /** Текущая доска (живой объект, НЕ копия). */
+    @NonNull
+    public BoardState getBoard() {
+        return board;
+    }
+
+    /** Текущий игрок, который должен ходить. */
+    @NonNull
+    public Player getCurrentPlayer() {
+        return currentPlayer;
+    }
+
+    /** Включено ли правило обязательного взятия (из настроек). */
+    public boolean isMustCaptureRuleEnabled() {
+        return mustCaptureRuleEnabled;
+    }
+
+    /** Есть ли обязательное взятие в рамках текущего хода (когда нет цепочки). */
+    public boolean isMustCapture() {
+        ensureCurrentMoves();
+        return mustCapture;
+    }
+
+    /** Сейчас идёт продолжение цепочки взятий? */
+    public boolean isCaptureChainInProgress() {
+        return captureChainInProgress;
+    }
+
+    /** Строка шашки, которая обязана продолжать бой (или -1, если цепочки нет). */
+    public int getChainRow() {
+        return chainRow;
+    }
+
+    /** Столбец шашки, которая обязана продолжать бой (или -1, если цепочки нет). */
+    public int getChainCol() {
+        return chainCol;
+    }
+
+    /**
+     * Фигуры, уже побитые в незавершённой цепочке, но ещё стоящие на доске
+     * (маска по клеткам Bitboards; 0 — если цепочки нет).
+     */
+    public int getPendingCapturedMask() {
+        return pendingCapturedMask;
+    }
+
+    /** Побита ли фигура на (row, col) в текущей цепочке (и будет снята в конце хода). */
+    public boolean isPendingCapture(int row, int col) {
+        return Bitboards.isPlayable(row, col)
+                && (pendingCapturedMask & (1 << Bitboards.square(row, col))) != 0;
+    }
+
+    // ----------------------------------------------------------------------
+    // Ходы
+    // ----------------------------------------------------------------------
+
+    /**
+     * Получить все допустимые ходы для текущего игрока
+     * с учётом:
+     * - обязательного взятия (если включено mustCaptureRuleEnabled);
+     * - возможной цепочки взятий (если она в процессе).
+     * Список неизменяемый; пока позиция не меняется, возвращается один и тот же.
+     */
+    @NonNull
+    public List<Move> getAllMovesForCurrentPlayer() {
+        ensureCurrentMoves();
+        if (currentMoveList == null) {
+            if (currentMoves.size() == 0) {
+                currentMoveList = Collections.emptyList();
+            } else {
+                List<Move> result = new ArrayList<>(currentMoves.size());
+                for (int i = 0; i < currentMoves.size(); i++) {
+                    result.add(Bitboards.decode(currentMoves.get(i)));
+                }
+                currentMoveList = Collections.unmodifiableList(result);
+            }
+        }
+        return currentMoveList;
+    }
+
+    /**
+     * То же, что getAllMovesForCurrentPlayer(), но в int-кодировке Bitboards
+     * и в том же порядке. Для ИИ: без объектов Move на каждый ход.
+     */
+    @NonNull
+    public int[] getAllMoveCodesForCurrentPlayer() {
+        ensureCurrentMoves();
+        return currentMoves.toArray();
+    }
+
+    /**
+     * Получить список ходов для конкретной клетки (строка/столбец)
+     * в рамках текущего состояния (учитывая обязательное взятие и цепочку).
+     * Если сейчас идёт цепочка взятий — ходы вернутся только для
+     * клетки chainRow/chainCol; для остальных клеток список будет пустым.
+     */
+    @NonNull
+    public List<Move> getMovesForCell(int row, int col) {
+        if (!board.isInside(row, col)) {
+            return Collections.emptyList();
+        }
+
+        if (captureChainInProgress &&
+                (row != chainRow || col != chainCol)) {
+            // во время цепочки можно ходить только той же шашкой
+            return Collections.emptyList();
+        }
+
+        if (!board.isDarkCell(row, col)) {
+            return Collections.emptyList();
+        }
+
+        // Убедимся, что кэш актуален.
+        ensureCurrentMoves();
+
+        int from = Bitboards.square(row, col);
+        List<Move> result = null;
+        for (int i = 0; i < currentMoves.size(); i++) {
+            int code = currentMoves.get(i);
+            if (Bitboards.moveFrom(code) == from) {
+                if (result == null) {
+                    result = new ArrayList<>();
+                }
+                result.add(Bitboards.decode(code));
+            }
+        }
+        return result == null ? Collections.<Move>emptyList() : Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Проверка, является ли ход допустимым для текущего игрока.
+     * Поиск в множестве кодов за O(1); ходы пересчитываются, только если позиция изменилась.
+     */
+    public boolean isMoveLegal(@NonNull Move move) {
+        int code = Bitboards.tryEncode(move);
+        if (code == Bitboards.NO_MOVE) {
+            return false;
+        }
+        ensureCurrentMoves();
+        return isLegalCode(code);
+    }
+
+    // ----------------------------------------------------------------------
+    // Применение хода
+    // ----------------------------------------------------------------------
+
+    /**
+     * Применить ход к текущей позиции.
+     * Ожидается, что ход взят из getAllMovesForCurrentPlayer() или getMovesForCell().
+     * Если ход некорректен (не из списка допустимых) — будет IllegalArgumentException.
+     *
+     * @param move ход
+     * @return MoveResult:
+     *  - isCaptureChainContinues() == true → тот же игрок обязан продолжать бой;
+     *  - isGameOver() == true → у следующего игрока нет ходов, в getWinner() победитель.
+     */
+    @NonNull
+    public MoveResult applyMove(@NonNull Move move) {
+        int fromRow = move.getFromRow();
+        int fromCol = move.getFromCol();
+        int toRow = move.getToRow();
+        int toCol = move.getToCol();
+
+        if (!board.isInside(fromRow, fromCol) || !board.isInside(toRow, toCol)) {
+            throw new IllegalArgumentException("Move is outside board: " + move);
+        }
+
+        PieceType piece = board.getPiece(fromRow, fromCol);
+        if (piece.isEmpty()) {
+            throw new IllegalStateException("No piece at from-cell for move: " + move);
+        }
+        if (!piece.belongsTo(currentPlayer)) {
+            throw new IllegalStateException("Piece does not belong to current player: " + move);
+        }
+
+        // Если идёт цепочка — ходить можно только той же шашкой.
+        if (captureChainInProgress &&
+                (fromRow != chainRow || fromCol != chainCol)) {
+            throw new IllegalStateException(
+                    "Capture chain in progress, move must start from (" +
+                            chainRow + "," + chainCol + "), got " + move
+            );
+        }
+
+        // Проверим, что ход легален (содержится в списке возможных).
+        // Это защитная проверка от багов UI/ИИ.
+        if (!isMoveLegal(move)) {
+            throw new IllegalArgumentException("Illegal move for current player: " + move);
+        }
+
+        if (move.isCapture()) {
+            int cr = move.getCapturedRow();
+            int cc = move.getCapturedCol();
+
+            if (!board.isInside(cr, cc)) {
+                throw new IllegalStateException(
+                        "Captured cell is outside board for move: " + move
+                );
+            }
+            PieceType captured = board.getPiece(cr, cc);
+            if (captured.isEmpty() || captured.belongsTo(currentPlayer)
+                    || isPendingCapture(cr, cc)) {
+                // что-то пошло не так: побита пустая/своя/уже побитая фигура
+                throw new IllegalStateException(
+                        "Invalid captured piece for move: " + move +
+                                ", captured=" + captured
+                );
+            }
+        }
+
+        return applyTrustedMove(move);
+    }
+
+    /**
+     * То же, что applyMove(), но без проверок: ход обязан быть из
+     * getAllMovesForCurrentPlayer() / getMovesForCell() этой же позиции
+     * или уже проверен через isMoveLegal(). Для ходов ИИ и UI, у которых
+     * легальность известна заранее, — без повторной генерации ходов.
+     * Непроверенный чужой ход здесь молча испортит позицию.
+     */
+    @NonNull
+    public MoveResult applyTrustedMove(@NonNull Move move) {
+        int fromRow = move.getFromRow();
+        int fromCol = move.getFromCol();
+        int toRow = move.getToRow();
+        int toCol = move.getToCol();
+
+        PieceType piece = board.getPiece(fromRow, fromCol);
+
+        // 1. убираем фигуру с исходной клетки
+        board.setPiece(fromRow, fromCol, PieceType.EMPTY);
+
+        // 2. если был захват — отмечаем побитую фигуру
+        if (move.isCapture()) {
+            // Турецкий удар: побитая фигура стоит на доске до конца хода.
+            pendingCapturedMask |= 1 << Bitboards.square(move.getCapturedRow(), move.getCapturedCol());
+        }
+
+        // 3. ставим фигуру на новое место с учётом превращения в дамку
+        PieceType newPiece = promoteIfNeeded(toRow, piece);
+        board.setPiece(toRow, toCol, newPiece);
+
+        // После изменения позиции кэш ходов устарел
+        invalidateMovesCache();
+
+        // 4. проверяем, может ли эта же фигура продолжать бой
+        if (move.isCapture()) {
+            captureBuffer.clear();
+            quietBuffer.clear();
+            collectPieceMoves(toRow, toCol, currentPlayer, captureBuffer, quietBuffer);
+
+            if (captureBuffer.size() > 0 && newPiece.belongsTo(currentPlayer)) {
+                // продолжается цепочка взятий той же шашкой
+                captureChainInProgress = true;
+                chainRow = toRow;
+                chainCol = toCol;
+                mustCapture = true; // в рамках цепочки есть обязательное взятие
+
+                // Обновим кэш ходов только на эти взятия
+                currentMoves.addAll(captureBuffer);
+                markMovesValid();
+
+                return new MoveResult(true, null);
+            }
+        }
+
+        // 5. Цепочка закончилась / был обычный ход — снимаем побитые фигуры
+        //    и передаём ход сопернику
+        removePendingCaptures();
+        captureChainInProgress = false;
+        chainRow = -1;
+        chainCol = -1;
+
+        // Смена игрока
+        currentPlayer = currentPlayer.opposite();
+
+        // Пересчёт ходов для нового игрока
+        recomputeCurrentMoves();
+
+        // Если у нового игрока ходов нет — он проиграл, выигрывает тот, кто только что ходил
+        if (currentMoves.size() == 0) {
+            Player winner = currentPlayer.opposite();
+            return new MoveResult(false, winner);
+        }
+
+        return new MoveResult(false, null);
+    }
+
+    // ----------------------------------------------------------------------
+    // Снапшоты (для Undo/ИИ)
+    // ----------------------------------------------------------------------
+
+    /**
+     * Создать снапшот текущего состояния игры.
+     * BoardState внутри снапшота — ГЛУБОКАЯ копия.
+     */
+    @NonNull
+    public GameSnapshot createSnapshot() {
+        ensureCurrentMoves();
+        BoardState copy = board.deepCopy();
+        return new GameSnapshot(
+                copy,
+                currentPlayer,
+                mustCapture,
+                captureChainInProgress,
+                chainRow,
+                chainCol,
+                pendingCapturedMask
+        );
+    }
+
+    /**
+     * Восстановить состояние игры из снапшота.
+     * Текущая доска будет перезаписана содержимым boardCopy из снапшота.
+     */
+    public void restoreFromSnapshot(@NonNull GameSnapshot snapshot) {
+        BoardState src = snapshot.getBoardCopy();
+        int size = BoardState.BOARD_SIZE;
+
+        // Копируем сырые коды во внутреннюю доску.
+        int[][] raw = src.copyRaw();
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                board.setCode(r, c, raw[r][c]);
+            }
+        }
+
+        this.currentPlayer = snapshot.getCurrentPlayer();
+        this.mustCapture = snapshot.isMustCapture();
+        this.captureChainInProgress = snapshot.isCaptureChainInProgress();
+        this.chainRow = snapshot.getChainRow();
+        this.chainCol = snapshot.getChainCol();
+        this.pendingCapturedMask = snapshot.getPendingCapturedMask();
+
+        // кэш ходов устарел; пересчитается при первом обращении
+        invalidateMovesCache();
+    }
+
+    /**
+     * Независимая копия логики: своя доска, тот же игрок, та же цепочка взятий.
+     * Нужна, чтобы ИИ мог считать в фоновом потоке, не трогая объект,
+     * который в это время рисует UI.
+     */
+    @NonNull
+    public GameLogic copy() {
+        GameLogic copy = new GameLogic(board.deepCopy(), currentPlayer, mustCaptureRuleEnabled);
+        copy.captureChainInProgress = captureChainInProgress;
+        copy.chainRow = chainRow;
+        copy.chainCol = chainCol;
+        copy.pendingCapturedMask = pendingCapturedMask;
+        copy.recomputeCurrentMoves();
+        return copy;
+    }
+
+    /**
+     * Совпадает ли текущее состояние с состоянием из снапшота
+     * (доска, игрок, цепочка взятий).
+     * Удобно, чтобы не применять устаревший результат фонового поиска.
+     */
+    public boolean isSameStateAs(@NonNull GameSnapshot snapshot) {
+        return currentPlayer == snapshot.getCurrentPlayer()
+                && captureChainInProgress == snapshot.isCaptureChainInProgress()
+                && chainRow == snapshot.getChainRow()
+                && chainCol == snapshot.getChainCol()
+                && pendingCapturedMask == snapshot.getPendingCapturedMask()
+                && board.equals(snapshot.getBoardCopy());
+    }
+
+    // ----------------------------------------------------------------------
+    // Внутренняя генерация ходов
+    // ----------------------------------------------------------------------
+
+    /**
+     * Полный пересчёт списка ходов для currentPlayer
+     * с учётом обязательного взятия и возможной цепочки.
+     * Результат — в currentMoves: сначала взятия, потом тихие ходы,
+     * внутри — в порядке обхода доски.
+     */
+    private void recomputeCurrentMoves() {
+        clearCurrentMoves();
+        collectCurrentMoves();
+        markMovesValid();
+    }
+
+    /** Пересчитать ходы, только если позиция изменилась с прошлого пересчёта. */
+    private void ensureCurrentMoves() {
+        if (movesGeneration != generation
+                || movesBoardModification != board.getModificationCount()) {
+            recomputeCurrentMoves();
+        }
+    }
+
+    private void collectCurrentMoves() {
+        captureBuffer.clear();
+        quietBuffer.clear();
+
+        if (captureChainInProgress) {
+            // Во время цепочки считаем ходы только для одной фигуры
+            if (!board.isInside(chainRow, chainCol)) {
+                mustCapture = false;
+                return;
+            }
+
+            collectPieceMoves(chainRow, chainCol, currentPlayer, captureBuffer, quietBuffer);
+
+            // В цепочке всегда речь про взятия, но UI глобальное сообщение
+            // показывает только когда !captureChainInProgress, поэтому здесь
+            // это значение ни на что не влияет снаружи.
+            mustCapture = captureBuffer.size() > 0;
+            currentMoves.addAll(captureBuffer);
+            return;
+        }
+
+        // Обычная ситуация — ищем ходы по всем игровым клеткам
+        // (в том же порядке, что и обход доски по строкам)
+        for (int square = 0; square < Bitboards.SQUARES; square++) {
+            if (!PieceType.belongsTo(codeAt(square), currentPlayer)) {
+                continue;
+            }
+            collectPieceMoves(Bitboards.row(square), Bitboards.col(square), currentPlayer,
+                    captureBuffer, quietBuffer);
+        }
+
+        if (captureBuffer.size() > 0 && mustCaptureRuleEnabled) {
+            // Правило включено: если есть хотя бы одно взятие — ходить обязаны только взятиями
+            mustCapture = true;
+            currentMoves.addAll(captureBuffer);
+        } else {
+            // Правило отключено или взятий нет:
+            //  - mustCapture для UI = false;
+            //  - если взятия есть, но правило выключено — разрешаем и взятия, и тихие
+            mustCapture = false;
+            currentMoves.addAll(captureBuffer);
+            currentMoves.addAll(quietBuffer);
+        }
+    }
+
+    /**
+     * Все ходы конкретной фигуры (без учёта глобального обязательного взятия):
+     * ударные дописываются в captures, тихие — в quiet.
+     * Фильтрация по правилу делается выше.
+     */
+    private void collectPieceMoves(int row,
+                                   int col,
+                                   @NonNull Player owner,
+                                   @NonNull MoveBuffer captures,
+                                   @NonNull MoveBuffer quiet) {
+        if (!board.isInside(row, col)) {
+            return;
+        }
+
+        int code = board.getCode(row, col);
+        if (!PieceType.belongsTo(code, owner)) {
+            return;
+        }
+
+        if (PieceType.isKingCode(code)) {
+            collectKingMoves(row, col, owner, captures, quiet);
+        } else {
+            collectManMoves(row, col, code, owner, captures, quiet);
+        }
+    }
+
+    /**
+     * Сбор ходов для обычной шашки (ман).
+     * В русских шашках:
+     * - обычный ход только вперёд;
+     * - взятие возможно во всех диагональных направлениях.
+     * Эта функция всегда заполняет и captures, и quiet (если такие ходы есть),
+     * а не принимает решение, что из этого разрешено.
+     */
+    private void collectManMoves(int row,
+                                 int col,
+                                 int code,
+                                 @NonNull Player owner,
+                                 @NonNull MoveBuffer captures,
+                                 @NonNull MoveBuffer quiet) {
+
+        // Защитная проверка: сюда должны попадать только свои "маны"
+        if (!PieceType.isManCode(code) || !PieceType.belongsTo(code, owner)) {
+            throw new IllegalArgumentException(
+                    "collectManMoves called with invalid piece: " + PieceType.fromCodeOrEmpty(code) +
+                            ", owner=" + owner + " at (" + row + "," + col + ")"
+            );
+        }
+
+        int from = Bitboards.square(row, col);
+        Player opponent = owner.opposite();
+
+        // --- сначала ищем все возможные взятия во всех диагоналях ---
+        for (int direction = 0; direction < Bitboards.DIRECTIONS; direction++) {
+            int landing = Bitboards.jump(from, direction);
+            if (landing == Bitboards.NO_SQUARE) {
+                continue;
+            }
+            int middle = Bitboards.neighbor(from, direction);
+
+            if (!PieceType.belongsTo(codeAt(middle), opponent) || isPendingSquare(middle)) {
+                // своя/пустая клетка или фигура, уже побитая в этой цепочке
+                continue;
+            }
+            if (!PieceType.isEmptyCode(codeAt(landing))) {
+                continue;
+            }
+
+            captures.add(Bitboards.encodeCapture(from, landing, middle));
+        }
+
+        // --- тихие ходы: только вперёд по диагонали ---
+        boolean white = owner == Player.WHITE;
+        addManStep(from, white ? Bitboards.UP_LEFT : Bitboards.DOWN_LEFT, quiet);
+        addManStep(from, white ? Bitboards.UP_RIGHT : Bitboards.DOWN_RIGHT, quiet);
+    }
+
+    private void addManStep(int from, int direction, @NonNull MoveBuffer quiet) {
+        int to = Bitboards.neighbor(from, direction);
+        if (to != Bitboards.NO_SQUARE && PieceType.isEmptyCode(codeAt(to))) {
+            quiet.add(Bitboards.encodeQuiet(from, to));
+        }
+    }
+
+    /**
+     * Рекурсивно вычисляет максимальное количество дополнительных взятий
+     * для дамки kingCode, стоящей на клетке square доски board.
+     * Возвращает число побитых шашек, не считая текущего хода.
+     * Доска не копируется: каждое взятие делается прямо на board
+     * и откатывается перед переходом к следующему варианту,
+     * так что после возврата доска в исходном состоянии.
+     */
+    private int maxAdditionalKingCaptures(int square,
+                                          int kingCode,
+                                          @NonNull Player owner) {
+
+        int best = 0;
+
+        for (int direction = 0; direction < Bitboards.DIRECTIONS; direction++) {
+            int opponent = Bitboards.NO_SQUARE;
+
+            for (int target : Bitboards.ray(square, direction)) {
+                int cellCode = codeAt(target);
+
+                if (opponent == Bitboards.NO_SQUARE) {
+                    if (PieceType.isEmptyCode(cellCode)) {
+                        continue;
+                    }
+                    if (PieceType.belongsTo(cellCode, owner) || isPendingSquare(target)) {
+                        // своя или уже побитая фигура — в этом направлении удара нет
+                        break;
+                    }
+                    // первая встреченная чужая шашка
+                    opponent = target;
+                    continue;
+                }
+
+                // после побитой шашки — возможные клетки приземления
+                if (!PieceType.isEmptyCode(cellCode)) {
+                    // упёрлись во вторую фигуру — дальше в этом направлении нельзя
+                    break;
+                }
+
+                // target — кандидат для приземления
+                int further = withKingCapture(square, opponent, target, kingCode, owner);
+                int total = 1 + further; // побитая сейчас + дальше по цепочке
+
+                if (total > best) {
+                    best = total;
+                }
+            }
+        }
+
+        return best;
+    }
+
+    /**
+     * Временно выполнить на board взятие дамкой from → to через captured,
+     * посчитать продолжение цепочки и вернуть доску как было. Побитая фигура,
+     * как и в настоящем ходе, остаётся на месте и лишь помечается в pendingCapturedMask.
+     *
+     * @return максимальное число дополнительных взятий после этого удара
+     */
+    private int withKingCapture(int from,
+                                int captured,
+                                int to,
+                                int kingCode,
+                                @NonNull Player owner) {
+
+        int pendingBefore = pendingCapturedMask;
+
+        setCodeAt(from, EMPTY_CODE);
+        pendingCapturedMask |= 1 << captured;
+        setCodeAt(to, kingCode);
+
+        int further = maxAdditionalKingCaptures(to, kingCode, owner);
+
+        setCodeAt(to, EMPTY_CODE);
+        pendingCapturedMask = pendingBefore;
+        setCodeAt(from, kingCode);
+
+        return further;
+    }
+
+    /**
+     * Сбор ходов для дамки.
+     * Внутри одной ветки (одна и та же первая побитая шашка) оставляем
+     * только те приземления, которые дают максимальное количество взятий
+     * по этой ветке. Между разными ветками выбора не ограничиваем.
+     */
+    private void collectKingMoves(int row,
+                                  int col,
+                                  @NonNull Player owner,
+                                  @NonNull MoveBuffer captures,
+                                  @NonNull MoveBuffer quiet) {
+
+        final int from = Bitboards.square(row, col);
+        final int kingCode = (owner == Player.WHITE)
+                ? PieceType.WHITE_KING.getCode()
+                : PieceType.BLACK_KING.getCode();
+
+        // --- сначала собираем ударные ходы ---
+        for (int direction = 0; direction < Bitboards.DIRECTIONS; direction++) {
+
+            int opponent = Bitboards.NO_SQUARE;
+
+            // для этой диагонали (одной "первой побитой шашки")
+            // запоминаем только лучшие по длине варианты
+            int bestCaptureCountForDirection = 0;
+            MoveBuffer bestMovesForDirection = directionBuffer;
+            bestMovesForDirection.clear();
+
+            for (int target : Bitboards.ray(from, direction)) {
+                int cellCode = codeAt(target);
+
+                if (opponent == Bitboards.NO_SQUARE) {
+                    if (PieceType.isEmptyCode(cellCode)) {
+                        continue;
+                    }
+                    if (PieceType.belongsTo(cellCode, owner) || isPendingSquare(target)) {
+                        // своя или уже побитая фигура — в этом направлении удара нет
+                        break;
+                    }
+                    // первая встреченная чужая шашка
+                    opponent = target;
+                    continue;
+                }
+
+                // после побитой шашки — возможные клетки приземления
+                if (!PieceType.isEmptyCode(cellCode)) {
+                    // упёрлись во вторую фигуру — дальше в этом направлении
+                    // приземляться нельзя
+                    break;
+                }
+
+                // target — пустая клетка-кандидат для приземления
+                int furtherCaptures = withKingCapture(from, opponent, target, kingCode, owner);
+                int totalCaptures = 1 + furtherCaptures;
+
+                int capture = Bitboards.encodeCapture(from, target, opponent);
+                if (totalCaptures > bestCaptureCountForDirection) {
+                    bestCaptureCountForDirection = totalCaptures;
+                    bestMovesForDirection.clear();
+                    bestMovesForDirection.add(capture);
+                } else if (totalCaptures == bestCaptureCountForDirection) {
+                    bestMovesForDirection.add(capture);
+                }
+            }
+
+            // добавляем лучшие ходы по этой диагонали (если они есть)
+            if (bestCaptureCountForDirection > 0) {
+                captures.addAll(bestMovesForDirection);
+            }
+        }
+
+        // --- тихие ходы дамки ---
+        // Они нужны, чтобы при отсутствии взятий логика выше могла
+        // вернуть пустой список captures, а quiet всё равно были доступны.
+        for (int direction = 0; direction < Bitboards.DIRECTIONS; direction++) {
+            for (int target : Bitboards.ray(from, direction)) {
+                if (!PieceType.isEmptyCode(codeAt(target))) {
+                    break;
+                }
+                quiet.add(Bitboards.encodeQuiet(from, target));
+            }
+        }
+    }
+
+    // ----------------------------------------------------------------------
+    // Вспомогательные методы
+    // ----------------------------------------------------------------------
+
+    /** Позиция изменилась: сбросить кэш ходов. */
+    private void invalidateMovesCache() {
+        generation++;
+        clearCurrentMoves();
+        mustCapture = false;
+    }
+
+    private void clearCurrentMoves() {
+        for (int i = 0; i < currentMoves.size(); i++) {
+            int code = currentMoves.get(i);
+            legalMoveBits[code >>> 6] &= ~(1L << code);
+        }
+        currentMoves.clear();
+        currentMoveList = null;
+    }
+
+    /**
+     * currentMoves заполнен для текущей позиции: собрать множество кодов и
+     * запомнить версию. Вызывать после генерации — разбор взятий дамкой
+     * временно пишет в доску и сдвигает её счётчик изменений.
+     */
+    private void markMovesValid() {
+        for (int i = 0; i < currentMoves.size(); i++) {
+            int code = currentMoves.get(i);
+            legalMoveBits[code >>> 6] |= 1L << code;
+        }
+        movesGeneration = generation;
+        movesBoardModification = board.getModificationCount();
+    }
+
+    private boolean isLegalCode(int code) {
+        return code >= 0 && code < MOVE_CODE_LIMIT
+                && (legalMoveBits[code >>> 6] & (1L << code)) != 0;
+    }
+
+    /** Код фигуры (PieceType.getCode()) на игровой клетке square (0..31). */
+    private int codeAt(int square) {
+        return board.getCode(Bitboards.row(square), Bitboards.col(square));
+    }
+
+    private void setCodeAt(int square, int code) {
+        board.setCode(Bitboards.row(square), Bitboards.col(square), code);
+    }
+
+    /** Побита ли фигура на square в текущей цепочке. */
+    private boolean isPendingSquare(int square) {
+        return (pendingCapturedMask & (1 << square)) != 0;
+    }
+
+    /** Снять с доски все фигуры, побитые в закончившейся цепочке. */
+    private void removePendingCaptures() {
+        for (int m = pendingCapturedMask; m != 0; m &= m - 1) {
+            setCodeAt(Integer.numberOfTrailingZeros(m), EMPTY_CODE);
+        }
+        pendingCapturedMask = 0;
+    }
+
+    /**
+     * Превращение шашки в дамку (в русских шашках — при достижении последней горизонтали).
+     */
+    @NonNull
+    private PieceType promoteIfNeeded(int row, @NonNull PieceType piece) {
+        if (piece == PieceType.WHITE_MAN && row == 0) {
+            return PieceType.WHITE_KING;
+        }
+        if (piece == PieceType.BLACK_MAN && row == BoardState.BOARD_SIZE - 1) {
+            return PieceType.BLACK_KING;
+        }
+        return piece;
+    }
+
+    /**
+     * Растущий список ходов в int-кодировке Bitboards.
+     * Живёт всё время жизни GameLogic и только очищается, поэтому
+     * генерация ходов не создаёт ни списков, ни объектов Move.
+     */
+    private static final class MoveBuffer {
+
+        private int[] moves = new int[32];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        int get(int index) {
+            return moves[index];
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        void add(int move) {
+            if (size == moves.length) {
+                moves = Arrays.copyOf(moves, size * 2);
+            }
+            moves[size++] = move;
+        }
+
+        void addAll(@NonNull MoveBuffer other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.moves[i]);
+            }
+        }
+
+        @NonNull
+        int[] toArray() {
+            return Arrays.copyOf(moves, size);
+        }
+    }
+}
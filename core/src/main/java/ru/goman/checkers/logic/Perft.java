@@ -0,0 +1,241 @@
+package ru.goman.checkers.logic;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+import ru.goman.checkers.model.BoardState;
+import ru.goman.checkers.model.Move;
+
+/**
+ * Perft — подсчёт листьев дерева ходов GameLogic до заданной глубины.
+ * Проверяет генератор ходов (счёт сверяется с известными значениями)
+ * и заодно меряет его скорость.
+ * Глубина считается в полных ходах: цепочка взятий — это один ход,
+ * сколько бы шагов applyMove() в ней ни было. Разные последовательности
+ * шагов считаются разными ходами, даже если приводят к одной позиции.
+ * Правило обязательного взятия берётся из самого GameLogic,
+ * поэтому для счёта "с правилом" и "без" нужны две партии.
+ * Исходная партия не меняется: считаем на её копии.
+ */
+public final class Perft {
+
+    private Perft() {
+    }
+
+    /**
+     * Результат perft с разбивкой по ходам корня (divide).
+     */
+    public static final class Result {
+
+        private final int depth;
+        private final long nodes;
+        private final long elapsedNanos;
+        @NonNull
+        private final List<DivideEntry> divide;
+
+        Result(int depth, long nodes, long elapsedNanos, @NonNull List<DivideEntry> divide) {
+            this.depth = depth;
+            this.nodes = nodes;
+            this.elapsedNanos = elapsedNanos;
+            this.divide = Collections.unmodifiableList(divide);
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        /** Число листьев на глубине depth (сумма по divide). */
+        public long getNodes() {
+            return nodes;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        /** Скорость счёта, листьев в секунду (0 — если время не измерилось). */
+        public long getNodesPerSecond() {
+            return elapsedNanos > 0 ? nodes * 1_000_000_000L / elapsedNanos : 0L;
+        }
+
+        /** Ходы корня в порядке генерации и число листьев под каждым. */
+        @NonNull
+        public List<DivideEntry> getDivide() {
+            return divide;
+        }
+
+        /**
+         * Отчёт в привычном для perft виде: строка на каждый ход корня,
+         * затем итог и скорость.
+         */
+        @NonNull
+        public String format() {
+            StringBuilder sb = new StringBuilder();
+            for (DivideEntry entry : divide) {
+                sb.append(entry.getMove()).append(": ").append(entry.getNodes()).append('\n');
+            }
+            sb.append(String.format(Locale.US, "depth %d: %d nodes, %.1f ms, %d nps",
+                    depth, nodes, elapsedNanos / 1_000_000.0, getNodesPerSecond()));
+            return sb.toString();
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "Perft.Result{" +
+                    "depth=" + depth +
+                    ", nodes=" + nodes +
+                    ", elapsedMs=" + elapsedNanos / 1_000_000L +
+                    ", nps=" + getNodesPerSecond() +
+                    '}';
+        }
+    }
+
+    /**
+     * Ход корня и число листьев под ним.
+     */
+    public static final class DivideEntry {
+
+        @NonNull
+        private final String move;
+        private final long nodes;
+
+        DivideEntry(@NonNull String move, long nodes) {
+            this.move = move;
+            this.nodes = nodes;
+        }
+
+        /** Полный ход в шашечной нотации: "c3-d4", "c3:e5:c7". */
+        @NonNull
+        public String getMove() {
+            return move;
+        }
+
+        public long getNodes() {
+            return nodes;
+        }
+    }
+
+    // ----------------------------------------------------------------------
+    // Публичный API
+    // ----------------------------------------------------------------------
+
+    /**
+     * Число листьев на глубине depth из текущей позиции logic.
+     *
+     * @throws IllegalArgumentException если depth < 0
+     */
+    public static long count(@NonNull GameLogic logic, int depth) {
+        Objects.requireNonNull(logic, "logic");
+        checkDepth(depth);
+        return perft(logic.copy(), depth);
+    }
+
+    /**
+     * Perft с разбивкой по ходам корня и замером времени.
+     * При depth == 0 разбивка пустая, а листов ровно один — сама позиция.
+     *
+     * @throws IllegalArgumentException если depth < 0
+     */
+    @NonNull
+    public static Result divide(@NonNull GameLogic logic, int depth) {
+        Objects.requireNonNull(logic, "logic");
+        checkDepth(depth);
+        GameLogic work = logic.copy();
+        List<DivideEntry> entries = new ArrayList<>();
+        long start = System.nanoTime();
+        long total;
+        if (depth == 0) {
+            total = 1L;
+        } else {
+            total = 0L;
+            StringBuilder path = new StringBuilder();
+            for (Move move : work.getAllMovesForCurrentPlayer()) {
+                total += divideStep(work, move, depth, path, entries);
+            }
+        }
+        return new Result(depth, total, System.nanoTime() - start, entries);
+    }
+
+    // ----------------------------------------------------------------------
+    // Внутреннее
+    // ----------------------------------------------------------------------
+
+    private static void checkDepth(int depth) {
+        if (depth < 0) {
+            throw new IllegalArgumentException("depth must be >= 0, got " + depth);
+        }
+    }
+
+    private static long perft(@NonNull GameLogic logic, int depth) {
+        if (depth == 0) {
+            return 1L;
+        }
+        long nodes = 0L;
+        for (Move move : logic.getAllMovesForCurrentPlayer()) {
+            nodes += step(logic, move, depth);
+        }
+        return nodes;
+    }
+
+    /**
+     * Листья под одним шагом: продолжение цепочки остаётся на той же глубине,
+     * законченный ход уменьшает её на единицу.
+     */
+    private static long step(@NonNull GameLogic logic, @NonNull Move move, int depth) {
+        if (depth == 1 && !move.isCapture()) {
+            // тихий ход всегда заканчивает ход — применять его не нужно
+            return 1L;
+        }
+        GameLogic.GameSnapshot snapshot = logic.createSnapshot();
+        GameLogic.MoveResult result = logic.applyTrustedMove(move);
+        long nodes = result.isCaptureChainContinues()
+                ? perft(logic, depth)
+                : perft(logic, depth - 1);
+        logic.restoreFromSnapshot(snapshot);
+        return nodes;
+    }
+
+    /**
+     * Как step(), но для корня: собирает нотацию полного хода
+     * и записывает по строке divide на каждый законченный ход.
+     */
+    private static long divideStep(@NonNull GameLogic logic,
+                                   @NonNull Move move,
+                                   int depth,
+                                   @NonNull StringBuilder path,
+                                   @NonNull List<DivideEntry> entries) {
+        int pathLength = path.length();
+        if (pathLength == 0) {
+            path.append(squareName(move.getFromRow(), move.getFromCol()));
+        }
+        path.append(move.isCapture() ? ':' : '-').append(squareName(move.getToRow(), move.getToCol()));
+
+        GameLogic.GameSnapshot snapshot = logic.createSnapshot();
+        GameLogic.MoveResult result = logic.applyTrustedMove(move);
+        long nodes;
+        if (result.isCaptureChainContinues()) {
+            nodes = 0L;
+            for (Move next : logic.getAllMovesForCurrentPlayer()) {
+                nodes += divideStep(logic, next, depth, path, entries);
+            }
+        } else {
+            nodes = perft(logic, depth - 1);
+            entries.add(new DivideEntry(path.toString(), nodes));
+        }
+        logic.restoreFromSnapshot(snapshot);
+        path.setLength(pathLength);
+        return nodes;
+    }
+
+    /** Имя клетки: столбцы a..h слева направо, горизонтали 1..8 от белых. */
+    @NonNull
+    private static String squareName(int row, int col) {
+        return "" + (char) ('a' + col) + (BoardState.BOARD_SIZE - row);
+    }
+}
@@ -0,0 +1,73 @@
+package ru.goman.checkers.logic;
+
+import androidx.annotation.NonNull;
+
+import java.util.Objects;
+
+/**
+ * Таблица "фигура × клетка → очки" для оценки позиции:
+ * отдельно простая и дамка каждого цвета, по 32 игровым клеткам.
+ * Неизменяемая, поэтому одну таблицу могут читать несколько потоков поиска.
+ * BitboardPosition с подключённой таблицей (setScoreTable) держит суммы
+ * очков белых и чёрных инкрементально в makeMove()/unmakeMove(),
+ * а sum() — полный пересчёт по маскам, например для сверки.
+ */
+public final class PieceSquareTable {
+
+    private static final int WHITE_MAN = 0;
+    private static final int WHITE_KING = 1;
+    private static final int BLACK_MAN = 2;
+    private static final int BLACK_KING = 3;
+
+    /** values[kind * 32 + square]. */
+    @NonNull
+    private final int[] values = new int[4 * Bitboards.SQUARES];
+
+    /**
+     * @param whiteMen  очки белой простой на каждой из 32 клеток
+     * @param whiteKings очки белой дамки
+     * @param blackMen  очки чёрной простой
+     * @param blackKings очки чёрной дамки
+     */
+    public PieceSquareTable(@NonNull int[] whiteMen,
+                            @NonNull int[] whiteKings,
+                            @NonNull int[] blackMen,
+                            @NonNull int[] blackKings) {
+        copy(whiteMen, WHITE_MAN, "whiteMen");
+        copy(whiteKings, WHITE_KING, "whiteKings");
+        copy(blackMen, BLACK_MAN, "blackMen");
+        copy(blackKings, BLACK_KING, "blackKings");
+    }
+
+    private void copy(@NonNull int[] source, int kind, @NonNull String name) {
+        Objects.requireNonNull(source, name);
+        if (source.length != Bitboards.SQUARES) {
+            throw new IllegalArgumentException(name + " must have " + Bitboards.SQUARES
+                    + " entries, got " + source.length);
+        }
+        System.arraycopy(source, 0, values, kind * Bitboards.SQUARES, Bitboards.SQUARES);
+    }
+
+    /** Очки одной фигуры на клетке square. */
+    public int value(boolean white, boolean king, int square) {
+        int kind = white ? (king ? WHITE_KING : WHITE_MAN) : (king ? BLACK_KING : BLACK_MAN);
+        return values[kind * Bitboards.SQUARES + square];
+    }
+
+    /**
+     * Полный пересчёт: сумма очков всех фигур одного цвета.
+     *
+     * @param pieces фигуры этого цвета (маска)
+     * @param kings  маска дамок (можно всех цветов)
+     */
+    public int sum(boolean white, int pieces, int kings) {
+        int manBase = (white ? WHITE_MAN : BLACK_MAN) * Bitboards.SQUARES;
+        int kingBase = (white ? WHITE_KING : BLACK_KING) * Bitboards.SQUARES;
+        int total = 0;
+        for (int m = pieces; m != 0; m &= m - 1) {
+            int square = Integer.numberOfTrailingZeros(m);
+            total += values[((kings & (1 << square)) != 0 ? kingBase : manBase) + square];
+        }
+        return total;
+    }
+}
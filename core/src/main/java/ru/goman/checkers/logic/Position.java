@@ -0,0 +1,227 @@
+package ru.goman.checkers.logic;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Locale;
+import java.util.Objects;
+
+import ru.goman.checkers.model.BoardState;
+import ru.goman.checkers.model.Player;
+
+/**
+ * Неизменяемая позиция — компактный ключ для кэшей, дебютных книг и баз окончаний.
+ * Всё состояние упаковано в два long и один int:
+ *  - pieces — биты 0..31 белые фигуры, 32..63 чёрные (клетки Bitboards);
+ *  - kingsAndPending — биты 0..31 дамки, 32..63 фигуры, побитые
+ *    в незавершённой цепочке (турецкий удар);
+ *  - flags — клетка цепочки + 1 (0 — цепочки нет), очередь чёрных,
+ *    выключенное правило обязательного взятия.
+ * equals() сравнивает эти три поля, hashCode() берётся из getKey() —
+ * хеша Zobrist, который совпадает с BitboardPosition.getHash() той же позиции,
+ * поэтому ключ можно сверять и с таблицей транспозиций.
+ * Объект не меняется после создания, его можно свободно передавать
+ * между потоками и хранить ключом в HashMap.
+ */
+public final class Position {
+
+    private static final int CHAIN_MASK = 0x3F;
+    private static final int BLACK_TO_MOVE_FLAG = 1 << 6;
+    private static final int MUST_CAPTURE_DISABLED_FLAG = 1 << 7;
+    private static final int HIGH_SHIFT = 32;
+    private static final long LOW_MASK = 0xFFFFFFFFL;
+
+    private final long pieces;
+    private final long kingsAndPending;
+    private final int flags;
+    private final long key;
+
+    /** Без проверок: вызывающий (BitboardPosition) уже проверил состояние и посчитал хеш. */
+    Position(int white,
+             int black,
+             int kings,
+             @NonNull Player sideToMove,
+             int chainSquare,
+             int pendingCaptured,
+             boolean mustCaptureRuleEnabled,
+             long key) {
+        this.pieces = ((long) black << HIGH_SHIFT) | (white & LOW_MASK);
+        this.kingsAndPending = ((long) pendingCaptured << HIGH_SHIFT) | (kings & LOW_MASK);
+        this.flags = (chainSquare + 1)
+                | (sideToMove == Player.BLACK ? BLACK_TO_MOVE_FLAG : 0)
+                | (mustCaptureRuleEnabled ? 0 : MUST_CAPTURE_DISABLED_FLAG);
+        this.key = key;
+    }
+
+    /**
+     * Позиция по маскам клеток Bitboards.
+     *
+     * @param chainSquare     клетка фигуры, обязанной продолжать бой, или Bitboards.NO_SQUARE
+     * @param pendingCaptured фигуры соперника, уже побитые в этой цепочке (0 — если цепочки нет)
+     * @throws IllegalArgumentException если маски противоречат друг другу
+     */
+    @NonNull
+    public static Position of(int white,
+                              int black,
+                              int kings,
+                              @NonNull Player sideToMove,
+                              int chainSquare,
+                              int pendingCaptured,
+                              boolean mustCaptureRuleEnabled) {
+        Objects.requireNonNull(sideToMove, "sideToMove");
+        checkState(white, black, kings, sideToMove, chainSquare, pendingCaptured);
+        long key = Zobrist.hash(white, black, kings, sideToMove == Player.BLACK,
+                chainSquare, pendingCaptured, mustCaptureRuleEnabled);
+        return new Position(white, black, kings, sideToMove, chainSquare, pendingCaptured,
+                mustCaptureRuleEnabled, key);
+    }
+
+    /** Позиция без незавершённой цепочки. */
+    @NonNull
+    public static Position of(int white,
+                              int black,
+                              int kings,
+                              @NonNull Player sideToMove,
+                              boolean mustCaptureRuleEnabled) {
+        return of(white, black, kings, sideToMove, Bitboards.NO_SQUARE, 0, mustCaptureRuleEnabled);
+    }
+
+    /**
+     * Общая проверка согласованности масок (её же делает конструктор BitboardPosition).
+     */
+    static void checkState(int white,
+                           int black,
+                           int kings,
+                           @NonNull Player sideToMove,
+                           int chainSquare,
+                           int pendingCaptured) {
+        if ((white & black) != 0) {
+            throw new IllegalArgumentException("White and black masks overlap");
+        }
+        if ((kings & ~(white | black)) != 0) {
+            throw new IllegalArgumentException("Kings mask has squares without pieces");
+        }
+        if (chainSquare != Bitboards.NO_SQUARE
+                && (chainSquare < 0 || chainSquare >= Bitboards.SQUARES)) {
+            throw new IllegalArgumentException("Invalid chain square: " + chainSquare);
+        }
+        if ((chainSquare == Bitboards.NO_SQUARE) != (pendingCaptured == 0)) {
+            throw new IllegalArgumentException("Chain square and captured pieces must be set together");
+        }
+        int opponent = sideToMove == Player.WHITE ? black : white;
+        if ((pendingCaptured & ~opponent) != 0) {
+            throw new IllegalArgumentException("Captured pieces must belong to the opponent");
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Преобразования
+    // ------------------------------------------------------------------
+
+    @NonNull
+    public static Position fromBoardState(@NonNull BoardState board,
+                                          @NonNull Player sideToMove,
+                                          boolean mustCaptureRuleEnabled) {
+        return BitboardPosition.fromBoardState(board, sideToMove, mustCaptureRuleEnabled).toPosition();
+    }
+
+    /** Текущее состояние GameLogic, включая незавершённую цепочку. */
+    @NonNull
+    public static Position fromGameLogic(@NonNull GameLogic logic) {
+        return BitboardPosition.fromGameLogic(logic).toPosition();
+    }
+
+    /** Новая доска с фигурами этой позиции. */
+    @NonNull
+    public BoardState toBoardState() {
+        return toBitboardPosition().toBoardState();
+    }
+
+    /** Изменяемая позиция для поиска (makeMove/unmakeMove). */
+    @NonNull
+    public BitboardPosition toBitboardPosition() {
+        return BitboardPosition.fromPosition(this);
+    }
+
+    /** Новая партия из этой позиции (см. GameLogic.fromPosition()). */
+    @NonNull
+    public GameLogic toGameLogic() {
+        return GameLogic.fromPosition(this);
+    }
+
+    // ------------------------------------------------------------------
+    // Геттеры
+    // ------------------------------------------------------------------
+
+    public int getWhite() {
+        return (int) pieces;
+    }
+
+    public int getBlack() {
+        return (int) (pieces >>> HIGH_SHIFT);
+    }
+
+    public int getKings() {
+        return (int) kingsAndPending;
+    }
+
+    @NonNull
+    public Player getSideToMove() {
+        return (flags & BLACK_TO_MOVE_FLAG) != 0 ? Player.BLACK : Player.WHITE;
+    }
+
+    /** Клетка фигуры, обязанной продолжать бой, или Bitboards.NO_SQUARE. */
+    public int getChainSquare() {
+        return (flags & CHAIN_MASK) - 1;
+    }
+
+    public int getPendingCaptured() {
+        return (int) (kingsAndPending >>> HIGH_SHIFT);
+    }
+
+    public boolean isMustCaptureRuleEnabled() {
+        return (flags & MUST_CAPTURE_DISABLED_FLAG) == 0;
+    }
+
+    /** Число фигур обоих цветов. */
+    public int getPieceCount() {
+        return Long.bitCount(pieces);
+    }
+
+    /**
+     * 64-битный ключ позиции — хеш Zobrist, равный BitboardPosition.getHash().
+     * Разные позиции могут (крайне редко) дать один ключ: где это важно,
+     * сравнивайте через equals().
+     */
+    public long getKey() {
+        return key;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Position)) {
+            return false;
+        }
+        Position other = (Position) o;
+        return pieces == other.pieces
+                && kingsAndPending == other.kingsAndPending
+                && flags == other.flags;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (key ^ (key >>> HIGH_SHIFT));
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return String.format(Locale.US,
+                "Position{white=%08x, black=%08x, kings=%08x, side=%s, chain=%d, pending=%08x, mustCapture=%b}",
+                getWhite(), getBlack(), getKings(), getSideToMove(), getChainSquare(),
+                getPendingCaptured(), isMustCaptureRuleEnabled());
+    }
+}
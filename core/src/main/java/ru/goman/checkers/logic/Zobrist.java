@@ -0,0 +1,103 @@
+package ru.goman.checkers.logic;
+
+/**
+ * Ключи Zobrist для хеширования позиций BitboardPosition.
+ * Хеш позиции — XOR ключей всех фигур на своих клетках, плюс ключ очереди
+ * чёрных, ключ клетки незавершённой цепочки, ключи уже побитых в этой цепочке
+ * (но ещё не снятых) фигур и ключ выключенного правила обязательного взятия
+ * (от всего этого зависит набор ходов).
+ * Ключи генерируются детерминированно (фиксированное зерно), так что хеш
+ * одной и той же позиции совпадает между запусками — удобно для тестов и кешей.
+ */
+public final class Zobrist {
+
+    private static final int PIECE_KINDS = 4; // белая шашка, белая дамка, чёрная шашка, чёрная дамка
+
+    private static final long[] PIECE_KEYS = new long[PIECE_KINDS * Bitboards.SQUARES];
+    private static final long[] CHAIN_KEYS = new long[Bitboards.SQUARES];
+    private static final long[] PENDING_KEYS = new long[Bitboards.SQUARES];
+
+    /** XOR-ится в хеш, когда ходят чёрные. */
+    public static final long BLACK_TO_MOVE;
+    /** XOR-ится в хеш, когда правило обязательного взятия выключено. */
+    public static final long MUST_CAPTURE_DISABLED;
+
+    static {
+        long state = 0x5EED_C0FF_EE12_3456L;
+        for (int i = 0; i < PIECE_KEYS.length; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            PIECE_KEYS[i] = mix(state);
+        }
+        for (int i = 0; i < CHAIN_KEYS.length; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            CHAIN_KEYS[i] = mix(state);
+        }
+        state += 0x9E3779B97F4A7C15L;
+        BLACK_TO_MOVE = mix(state);
+        state += 0x9E3779B97F4A7C15L;
+        MUST_CAPTURE_DISABLED = mix(state);
+        for (int i = 0; i < PENDING_KEYS.length; i++) {
+            state += 0x9E3779B97F4A7C15L;
+            PENDING_KEYS[i] = mix(state);
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    /** Ключ фигуры (цвет + дамка/шашка) на клетке square. */
+    public static long pieceKey(boolean white, boolean king, int square) {
+        int kind = (white ? 0 : 2) + (king ? 1 : 0);
+        return PIECE_KEYS[kind * Bitboards.SQUARES + square];
+    }
+
+    /** Ключ клетки, с которой обязана продолжаться цепочка взятий. */
+    public static long chainKey(int square) {
+        return CHAIN_KEYS[square];
+    }
+
+    /** Ключ фигуры на square, побитой в текущей цепочке, но ещё не снятой с доски. */
+    public static long pendingKey(int square) {
+        return PENDING_KEYS[square];
+    }
+
+    /**
+     * Хеш позиции целиком, с нуля по маскам (см. BitboardPosition.computeHash()).
+     *
+     * @param chainSquare клетка незавершённой цепочки или Bitboards.NO_SQUARE
+     */
+    public static long hash(int white,
+                            int black,
+                            int kings,
+                            boolean blackToMove,
+                            int chainSquare,
+                            int pendingCaptured,
+                            boolean mustCaptureRuleEnabled) {
+        long h = 0L;
+        for (int m = white | black; m != 0; m &= m - 1) {
+            int square = Integer.numberOfTrailingZeros(m);
+            int bit = 1 << square;
+            h ^= pieceKey((white & bit) != 0, (kings & bit) != 0, square);
+        }
+        if (blackToMove) {
+            h ^= BLACK_TO_MOVE;
+        }
+        if (chainSquare != Bitboards.NO_SQUARE) {
+            h ^= chainKey(chainSquare);
+        }
+        for (int m = pendingCaptured; m != 0; m &= m - 1) {
+            h ^= pendingKey(Integer.numberOfTrailingZeros(m));
+        }
+        if (!mustCaptureRuleEnabled) {
+            h ^= MUST_CAPTURE_DISABLED;
+        }
+        return h;
+    }
+
+    /** Финальное перемешивание SplitMix64. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
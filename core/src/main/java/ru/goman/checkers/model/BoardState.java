@@ -16,6 +16,13 @@ public class BoardState {
     // Плотный массив [row][col] с кодами PieceType.getCode()
     private final int[][] cells = new int[BOARD_SIZE][BOARD_SIZE];
 
+    /**
+     * Счётчик изменений: растёт при каждой записи в доску.
+     * По нему GameLogic узнаёт, что доску поменяли в обход неё
+     * и закэшированный список ходов устарел.
+     */
+    private int modificationCount;
+
     /**
      * Создаёт пустую доску (все клетки EMPTY).
      */
@@ -52,9 +59,7 @@ public class BoardState {
                         " must have length " + BOARD_SIZE);
             }
             for (int c = 0; c < BOARD_SIZE; c++) {
-                int code = raw[r][c];
-                PieceType piece = PieceType.fromCode(code);
-                state.cells[r][c] = piece.getCode();
+                state.cells[r][c] = PieceType.fromCode(raw[r][c]).getCode();
             }
 
         }
@@ -65,6 +70,7 @@ public class BoardState {
      * Очистить доску — все клетки EMPTY.
      */
     public void clear() {
+        modificationCount++;
         for (int r = 0; r < BOARD_SIZE; r++) {
             for (int c = 0; c < BOARD_SIZE; c++) {
                 cells[r][c] = PieceType.EMPTY.getCode();
@@ -98,6 +104,11 @@ public class BoardState {
         }
     }
 
+    /** Сколько раз доску меняли (для проверки актуальности кэшей). */
+    public int getModificationCount() {
+        return modificationCount;
+    }
+
     // ----------------------------------------------------------------
     // Доступ к клеткам
     // ----------------------------------------------------------------
@@ -143,8 +154,11 @@ public class BoardState {
      */
     public void setCode(int row, int col, int code) {
         assertInside(row, col);
-        PieceType piece = PieceType.fromCode(code);
-        cells[row][col] = piece.getCode();
+        if (!PieceType.isValidCode(code)) {
+            throw new IllegalArgumentException("Unknown piece code: " + code);
+        }
+        cells[row][col] = code;
+        modificationCount++;
     }
 
 
@@ -174,8 +188,7 @@ public class BoardState {
         int count = 0;
         for (int r = 0; r < BOARD_SIZE; r++) {
             for (int c = 0; c < BOARD_SIZE; c++) {
-                PieceType piece = PieceType.fromCodeOrEmpty(cells[r][c]);
-                if (piece.belongsTo(player)) {
+                if (PieceType.belongsTo(cells[r][c], player)) {
                     count++;
                 }
             }
@@ -190,8 +203,8 @@ public class BoardState {
         int count = 0;
         for (int r = 0; r < BOARD_SIZE; r++) {
             for (int c = 0; c < BOARD_SIZE; c++) {
-                PieceType piece = PieceType.fromCodeOrEmpty(cells[r][c]);
-                if (piece.isMan() && piece.belongsTo(player)) {
+                int code = cells[r][c];
+                if (PieceType.isManCode(code) && PieceType.belongsTo(code, player)) {
                     count++;
                 }
             }
@@ -206,8 +219,8 @@ public class BoardState {
         int count = 0;
         for (int r = 0; r < BOARD_SIZE; r++) {
             for (int c = 0; c < BOARD_SIZE; c++) {
-                PieceType piece = PieceType.fromCodeOrEmpty(cells[r][c]);
-                if (piece.isKing() && piece.belongsTo(player)) {
+                int code = cells[r][c];
+                if (PieceType.isKingCode(code) && PieceType.belongsTo(code, player)) {
                     count++;
                 }
             }
@@ -0,0 +1,164 @@
+// PieceType.java
+package ru.goman.checkers.model;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Типы фигур на доске.
+ * code — числовое значение для хранения в int[][].
+ * Соответствие сделано совместимым с текущим GameActivity:
+ * 0 = EMPTY
+ * 1 = WHITE_MAN
+ * 2 = WHITE_KING
+ * 3 = BLACK_MAN
+ * 4 = BLACK_KING
+ * Разбор кода (fromCode) — через таблицу, без перебора values().
+ * Для горячих циклов есть статические предикаты над самим int-кодом
+ * (isWhiteCode, isKingCode, belongsTo(int, Player) и т.п.) — они вообще
+ * не трогают enum. Неизвестный код для них ведёт себя как EMPTY.
+ */
+public enum PieceType {
+    EMPTY(0),
+    WHITE_MAN(1),
+    WHITE_KING(2),
+    BLACK_MAN(3),
+    BLACK_KING(4);
+
+    private static final int FLAG_WHITE = 1;
+    private static final int FLAG_BLACK = 1 << 1;
+    private static final int FLAG_KING = 1 << 2;
+
+    /** BY_CODE[code] — тип по коду. */
+    private static final PieceType[] BY_CODE;
+
+    /** FLAGS[code] — цвет и дамка битами FLAG_*. */
+    private static final int[] FLAGS;
+
+    static {
+        PieceType[] types = values();
+        int maxCode = 0;
+        for (PieceType t : types) {
+            maxCode = Math.max(maxCode, t.code);
+        }
+        BY_CODE = new PieceType[maxCode + 1];
+        FLAGS = new int[maxCode + 1];
+        for (PieceType t : types) {
+            BY_CODE[t.code] = t;
+            int flags = 0;
+            if (t.isWhite()) {
+                flags |= FLAG_WHITE;
+            }
+            if (t.isBlack()) {
+                flags |= FLAG_BLACK;
+            }
+            if (t.isKing()) {
+                flags |= FLAG_KING;
+            }
+            FLAGS[t.code] = flags;
+        }
+    }
+
+    private final int code;
+
+    PieceType(int code) {
+        this.code = code;
+    }
+
+    /**
+     * Целочисленный код для хранения в массиве доски.
+     */
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * Строгий разбор int-кода.
+     * Если код неизвестен — бросает IllegalArgumentException.
+     */
+    @NonNull
+    public static PieceType fromCode(int code) {
+        if (!isValidCode(code)) {
+            throw new IllegalArgumentException("Unknown piece code: " + code);
+        }
+        return BY_CODE[code];
+    }
+
+    /**
+     * Нестрогий разбор int-кода.
+     * Если код неизвестен — возвращает EMPTY.
+     * Удобно для защитного чтения, если данные могут быть повреждены.
+     */
+    @NonNull
+    public static PieceType fromCodeOrEmpty(int code) {
+        return isValidCode(code) ? BY_CODE[code] : EMPTY;
+    }
+
+    // ---------------------------------------------------------------
+    // Предикаты над int-кодом (без enum)
+    // ---------------------------------------------------------------
+
+    /** Известен ли такой код. */
+    public static boolean isValidCode(int code) {
+        return code >= 0 && code < BY_CODE.length && BY_CODE[code] != null;
+    }
+
+    private static int flags(int code) {
+        return code >= 0 && code < FLAGS.length ? FLAGS[code] : 0;
+    }
+
+    /** Пустая клетка (или неизвестный код). */
+    public static boolean isEmptyCode(int code) {
+        return (flags(code) & (FLAG_WHITE | FLAG_BLACK)) == 0;
+    }
+
+    public static boolean isWhiteCode(int code) {
+        return (flags(code) & FLAG_WHITE) != 0;
+    }
+
+    public static boolean isBlackCode(int code) {
+        return (flags(code) & FLAG_BLACK) != 0;
+    }
+
+    public static boolean isKingCode(int code) {
+        return (flags(code) & FLAG_KING) != 0;
+    }
+
+    public static boolean isManCode(int code) {
+        int flags = flags(code);
+        return flags != 0 && (flags & FLAG_KING) == 0;
+    }
+
+    /** Принадлежит ли фигура с кодом code указанному игроку. */
+    public static boolean belongsTo(int code, @NonNull Player player) {
+        return (flags(code) & (player == Player.WHITE ? FLAG_WHITE : FLAG_BLACK)) != 0;
+    }
+
+    public boolean isEmpty() {
+        return this == EMPTY;
+    }
+
+    public boolean isWhite() {
+        return this == WHITE_MAN || this == WHITE_KING;
+    }
+
+    public boolean isBlack() {
+        return this == BLACK_MAN || this == BLACK_KING;
+    }
+
+    public boolean isKing() {
+        return this == WHITE_KING || this == BLACK_KING;
+    }
+
+    public boolean isMan() {
+        return this == WHITE_MAN || this == BLACK_MAN;
+    }
+
+    /**
+     * Принадлежит ли фигура указанному игроку.
+     */
+    public boolean belongsTo(@NonNull Player player) {
+        if (isEmpty()) return false;
+        return (player == Player.WHITE && isWhite())
+                || (player == Player.BLACK && isBlack());
+    }
+}
@@ -0,0 +1,142 @@
+package ru.goman.checkers.tablebase;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Материал одной части базы окончаний: число простых и дамок у каждой стороны.
+ * База хранит только позиции с ходом белых; позиция с ходом чёрных
+ * сводится к ним поворотом доски на 180° со сменой цветов
+ * (TablebaseIndex.mirror() для масок, mirror() для материала).
+ */
+public final class Material {
+
+    /** Больше фигур у одной стороны не бывает. */
+    private static final int MAX_PER_SIDE = 12;
+
+    private final int whiteMen;
+    private final int whiteKings;
+    private final int blackMen;
+    private final int blackKings;
+
+    private Material(int whiteMen, int whiteKings, int blackMen, int blackKings) {
+        this.whiteMen = whiteMen;
+        this.whiteKings = whiteKings;
+        this.blackMen = blackMen;
+        this.blackKings = blackKings;
+    }
+
+    /**
+     * @throws IllegalArgumentException если счётчики отрицательные или фигур слишком много
+     */
+    @NonNull
+    public static Material of(int whiteMen, int whiteKings, int blackMen, int blackKings) {
+        if (whiteMen < 0 || whiteKings < 0 || blackMen < 0 || blackKings < 0
+                || whiteMen + whiteKings > MAX_PER_SIDE || blackMen + blackKings > MAX_PER_SIDE) {
+            throw new IllegalArgumentException(String.format(Locale.US,
+                    "Invalid material: %d+%d vs %d+%d", whiteMen, whiteKings, blackMen, blackKings));
+        }
+        return new Material(whiteMen, whiteKings, blackMen, blackKings);
+    }
+
+    /** Материал позиции по маскам клеток Bitboards. */
+    @NonNull
+    public static Material of(int white, int black, int kings) {
+        int whiteKings = Integer.bitCount(white & kings);
+        int blackKings = Integer.bitCount(black & kings);
+        return of(Integer.bitCount(white) - whiteKings, whiteKings,
+                Integer.bitCount(black) - blackKings, blackKings);
+    }
+
+    /**
+     * Все материалы с фигурами у обеих сторон и не больше maxPieces фигур всего.
+     * Порядок — тот, в котором их можно считать: сначала меньше фигур,
+     * при равном числе — меньше простых (после превращения простых становится меньше).
+     */
+    @NonNull
+    public static List<Material> upTo(int maxPieces) {
+        List<Material> result = new ArrayList<>();
+        for (int pieces = 2; pieces <= maxPieces; pieces++) {
+            for (int men = 0; men <= pieces; men++) {
+                for (int wm = 0; wm <= men; wm++) {
+                    int bm = men - wm;
+                    for (int wk = 0; wk <= pieces - men; wk++) {
+                        int bk = pieces - men - wk;
+                        if (wm + wk > 0 && bm + bk > 0
+                                && wm + wk <= MAX_PER_SIDE && bm + bk <= MAX_PER_SIDE) {
+                            result.add(new Material(wm, wk, bm, bk));
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /** Тот же материал, если поменять стороны местами. */
+    @NonNull
+    public Material mirror() {
+        return new Material(blackMen, blackKings, whiteMen, whiteKings);
+    }
+
+    public int getWhiteMen() {
+        return whiteMen;
+    }
+
+    public int getWhiteKings() {
+        return whiteKings;
+    }
+
+    public int getBlackMen() {
+        return blackMen;
+    }
+
+    public int getBlackKings() {
+        return blackKings;
+    }
+
+    public int getPieceCount() {
+        return whiteMen + whiteKings + blackMen + blackKings;
+    }
+
+    public int getMenCount() {
+        return whiteMen + blackMen;
+    }
+
+    /** Короткое имя для файлов: простые и дамки белых, затем чёрных, например "1102". */
+    @NonNull
+    public String getName() {
+        return "" + whiteMen + whiteKings + blackMen + blackKings;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Material)) {
+            return false;
+        }
+        Material other = (Material) o;
+        return whiteMen == other.whiteMen
+                && whiteKings == other.whiteKings
+                && blackMen == other.blackMen
+                && blackKings == other.blackKings;
+    }
+
+    @Override
+    public int hashCode() {
+        return ((whiteMen * 13 + whiteKings) * 13 + blackMen) * 13 + blackKings;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "Material{white=%dm+%dk, black=%dm+%dk}",
+                whiteMen, whiteKings, blackMen, blackKings);
+    }
+}
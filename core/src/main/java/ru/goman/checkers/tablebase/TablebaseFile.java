@@ -0,0 +1,141 @@
+package ru.goman.checkers.tablebase;
+
+import androidx.annotation.NonNull;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Objects;
+import java.util.zip.Deflater;
+
+/**
+ * Формат файла базы одного материала.
+ *
+ * Заголовок (HEADER_BYTES, big-endian):
+ *  - int     MAGIC ("RCTB");
+ *  - byte    VERSION;
+ *  - byte    вид: 0 — WLD (2 бита на позицию), 1 — DTW (байт TablebaseValue);
+ *  - 4 byte  материал: простые и дамки белых, затем чёрных;
+ *  - int     BLOCK_BYTES — размер распакованного блока;
+ *  - long    число позиций (TablebaseIndex.size());
+ *  - int     число блоков n;
+ *  - 6 byte  нули.
+ * Дальше n + 1 long — смещения блоков от начала файла (последнее — конец файла),
+ * затем сами блоки, каждый сжат zlib (Deflater) отдельно. Чтобы достать
+ * одну позицию, достаточно распаковать один блок.
+ * В WLD позиция i лежит в байте i / 4, в битах 2 * (i % 4).
+ */
+public final class TablebaseFile {
+
+    public enum Kind {
+        WLD("wld", 4),
+        DTW("dtw", 1);
+
+        @NonNull
+        private final String extension;
+        private final int entriesPerByte;
+
+        Kind(@NonNull String extension, int entriesPerByte) {
+            this.extension = extension;
+            this.entriesPerByte = entriesPerByte;
+        }
+
+        @NonNull
+        public String getExtension() {
+            return extension;
+        }
+
+        public int getEntriesPerByte() {
+            return entriesPerByte;
+        }
+    }
+
+    public static final int MAGIC = 0x52435442;
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 32;
+    public static final int BLOCK_BYTES = 4096;
+    public static final String FILE_PREFIX = "rc";
+
+    private TablebaseFile() {
+    }
+
+    /** Имя файла материала, например "rc1102.dtw". */
+    @NonNull
+    public static String fileName(@NonNull Material material, @NonNull Kind kind) {
+        return FILE_PREFIX + material.getName() + "." + kind.extension;
+    }
+
+    /**
+     * Записать значения всех позиций материала.
+     *
+     * @param values байт TablebaseValue на каждый номер TablebaseIndex
+     * @throws IllegalArgumentException если значений не столько, сколько номеров
+     */
+    public static void write(@NonNull File file,
+                             @NonNull Material material,
+                             @NonNull Kind kind,
+                             @NonNull byte[] values) throws IOException {
+        Objects.requireNonNull(file, "file");
+        Objects.requireNonNull(kind, "kind");
+        long size = new TablebaseIndex(material).size();
+        if (values.length != size) {
+            throw new IllegalArgumentException(
+                    "Expected " + size + " values for " + material + ", got " + values.length);
+        }
+
+        byte[] packed = kind == Kind.WLD ? packWld(values) : values;
+        int blockCount = (packed.length + BLOCK_BYTES - 1) / BLOCK_BYTES;
+        long[] offsets = new long[blockCount + 1];
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        byte[] buffer = new byte[BLOCK_BYTES * 2];
+        long position = HEADER_BYTES + 8L * offsets.length;
+        try {
+            for (int block = 0; block < blockCount; block++) {
+                offsets[block] = position + body.size();
+                int start = block * BLOCK_BYTES;
+                deflater.reset();
+                deflater.setInput(packed, start, Math.min(BLOCK_BYTES, packed.length - start));
+                deflater.finish();
+                while (!deflater.finished()) {
+                    body.write(buffer, 0, deflater.deflate(buffer));
+                }
+            }
+            offsets[blockCount] = position + body.size();
+        } finally {
+            deflater.end();
+        }
+
+        try (OutputStream stream = new BufferedOutputStream(new FileOutputStream(file));
+             DataOutputStream out = new DataOutputStream(stream)) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeByte(kind.ordinal());
+            out.writeByte(material.getWhiteMen());
+            out.writeByte(material.getWhiteKings());
+            out.writeByte(material.getBlackMen());
+            out.writeByte(material.getBlackKings());
+            out.writeInt(BLOCK_BYTES);
+            out.writeLong(size);
+            out.writeInt(blockCount);
+            out.write(new byte[HEADER_BYTES - out.size()]);
+            for (long offset : offsets) {
+                out.writeLong(offset);
+            }
+            body.writeTo(out);
+        }
+    }
+
+    @NonNull
+    private static byte[] packWld(@NonNull byte[] values) {
+        byte[] packed = new byte[(values.length + 3) / 4];
+        for (int i = 0; i < values.length; i++) {
+            packed[i >>> 2] |= (byte) (TablebaseValue.toWld(values[i] & 0xFF) << ((i & 3) * 2));
+        }
+        return packed;
+    }
+}
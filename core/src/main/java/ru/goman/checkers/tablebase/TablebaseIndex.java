@@ -0,0 +1,174 @@
+package ru.goman.checkers.tablebase;
+
+import androidx.annotation.NonNull;
+
+import java.util.Objects;
+
+import ru.goman.checkers.logic.Bitboards;
+
+/**
+ * Нумерация позиций одного материала (ход белых) числами 0..size()-1 —
+ * идеальный хеш без коллизий, индекс сразу даёт смещение в файле базы.
+ *
+ * Фигуры раскладываются по очереди, каждая группа — сочетание клеток,
+ * ранг сочетания c0 < c1 < ... считается как сумма C(c_i, i + 1):
+ *  1. белые простые — по клеткам 4..31 (на верхней горизонтали они уже дамки);
+ *  2. чёрные простые — по клеткам, не занятым белыми простыми;
+ *  3. белые дамки — по оставшимся клеткам;
+ *  4. чёрные дамки — по оставшимся после них.
+ * Номер клетки в группе — её номер среди ещё свободных клеток, поэтому
+ * фигуры никогда не совпадают. Единственные пустые номера — чёрные простые
+ * на нижней горизонтали (28..31): decode() для них возвращает false.
+ *
+ * Позиция с ходом чёрных сводится к ходу белых: mirror() для всех масок
+ * и смена цветов (материал — Material.mirror()).
+ */
+public final class TablebaseIndex {
+
+    private static final int MAX_PIECES_PER_GROUP = 12;
+
+    /** Белым простым доступны клетки 4..31. */
+    private static final int WHITE_MEN_FIRST_SQUARE = 4;
+    private static final int WHITE_MEN_SQUARES = Bitboards.SQUARES - WHITE_MEN_FIRST_SQUARE;
+
+    /** BINOMIAL[n][k] = C(n, k). */
+    private static final long[][] BINOMIAL = new long[Bitboards.SQUARES + 1][MAX_PIECES_PER_GROUP + 2];
+
+    static {
+        for (int n = 0; n <= Bitboards.SQUARES; n++) {
+            BINOMIAL[n][0] = 1L;
+            for (int k = 1; k < BINOMIAL[n].length; k++) {
+                BINOMIAL[n][k] = n == 0 ? 0L : BINOMIAL[n - 1][k - 1] + BINOMIAL[n - 1][k];
+            }
+        }
+    }
+
+    @NonNull
+    private final Material material;
+    private final long blackMenCount;
+    private final long whiteKingsCount;
+    private final long blackKingsCount;
+    private final long size;
+
+    public TablebaseIndex(@NonNull Material material) {
+        this.material = Objects.requireNonNull(material, "material");
+        int wm = material.getWhiteMen();
+        int bm = material.getBlackMen();
+        int wk = material.getWhiteKings();
+        int bk = material.getBlackKings();
+        long whiteMenCount = BINOMIAL[WHITE_MEN_SQUARES][wm];
+        blackMenCount = BINOMIAL[Bitboards.SQUARES - wm][bm];
+        whiteKingsCount = BINOMIAL[Bitboards.SQUARES - wm - bm][wk];
+        blackKingsCount = BINOMIAL[Bitboards.SQUARES - wm - bm - wk][bk];
+        size = whiteMenCount * blackMenCount * whiteKingsCount * blackKingsCount;
+    }
+
+    /** Поворот маски на 180°: клетка s переходит в 31 - s. */
+    public static int mirror(int mask) {
+        return Integer.reverse(mask);
+    }
+
+    @NonNull
+    public Material getMaterial() {
+        return material;
+    }
+
+    /** Количество номеров (вместе с пустыми). */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Номер позиции с ходом белых. Маски должны соответствовать материалу,
+     * это не проверяется.
+     */
+    public long index(int white, int black, int kings) {
+        int whiteMen = white & ~kings;
+        int blackMen = black & ~kings;
+        int whiteKings = white & kings;
+        int blackKings = black & kings;
+
+        long rank = rank(whiteMen >>> WHITE_MEN_FIRST_SQUARE, 0);
+        rank = rank * blackMenCount + rank(blackMen, whiteMen);
+        int occupied = whiteMen | blackMen;
+        rank = rank * whiteKingsCount + rank(whiteKings, occupied);
+        occupied |= whiteKings;
+        return rank * blackKingsCount + rank(blackKings, occupied);
+    }
+
+    /**
+     * Позиция по номеру.
+     *
+     * @param out out[0] — белые, out[1] — чёрные, out[2] — дамки
+     * @return false, если номер пустой (чёрная простая на нижней горизонтали)
+     * @throws IllegalArgumentException если номер вне 0..size()-1
+     */
+    public boolean decode(long index, @NonNull int[] out) {
+        if (index < 0 || index >= size) {
+            throw new IllegalArgumentException("Index out of range: " + index + " of " + size);
+        }
+        long rest = index;
+        long blackKingsRank = rest % blackKingsCount;
+        rest /= blackKingsCount;
+        long whiteKingsRank = rest % whiteKingsCount;
+        rest /= whiteKingsCount;
+        long blackMenRank = rest % blackMenCount;
+        long whiteMenRank = rest / blackMenCount;
+
+        int whiteMen = unrank(whiteMenRank, material.getWhiteMen(), 0) << WHITE_MEN_FIRST_SQUARE;
+        int blackMen = unrank(blackMenRank, material.getBlackMen(), whiteMen);
+        if ((blackMen & Bitboards.ROW_BOTTOM) != 0) {
+            return false;
+        }
+        int occupied = whiteMen | blackMen;
+        int whiteKings = unrank(whiteKingsRank, material.getWhiteKings(), occupied);
+        occupied |= whiteKings;
+        int blackKings = unrank(blackKingsRank, material.getBlackKings(), occupied);
+
+        out[0] = whiteMen | whiteKings;
+        out[1] = blackMen | blackKings;
+        out[2] = whiteKings | blackKings;
+        return true;
+    }
+
+    /** Ранг сочетания клеток pieces среди клеток, свободных от occupied. */
+    private static long rank(int pieces, int occupied) {
+        long rank = 0L;
+        int k = 1;
+        for (int m = pieces; m != 0; m &= m - 1, k++) {
+            int square = Integer.numberOfTrailingZeros(m);
+            int slot = square - Integer.bitCount(occupied & ((1 << square) - 1));
+            rank += BINOMIAL[slot][k];
+        }
+        return rank;
+    }
+
+    /** Обратное к rank(): count клеток среди свободных от occupied. */
+    private static int unrank(long rank, int count, int occupied) {
+        int[] slots = new int[count];
+        long rest = rank;
+        for (int k = count; k >= 1; k--) {
+            // наибольший slot, для которого C(slot, k) <= rest
+            int slot = k - 1;
+            while (BINOMIAL[slot + 1][k] <= rest) {
+                slot++;
+            }
+            rest -= BINOMIAL[slot][k];
+            slots[k - 1] = slot;
+        }
+        int mask = 0;
+        int next = 0;
+        int free = 0;
+        for (int square = 0; square < Bitboards.SQUARES && next < count; square++) {
+            if ((occupied & (1 << square)) != 0) {
+                continue;
+            }
+            if (free == slots[next]) {
+                mask |= 1 << square;
+                next++;
+            }
+            free++;
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,394 @@
+package ru.goman.checkers.tablebase;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import ru.goman.checkers.model.Player;
+
+/**
+ * Чтение базы окончаний во время поиска.
+ * Файлы (TablebaseFile) не читаются в кучу: каждый отображается в память
+ * через FileChannel.map, а при запросе распаковывается только нужный блок
+ * в 4 КБ. Распакованные блоки лежат в кэше с прямой адресацией, общем для
+ * всех файлов, так что повторные запросы в том же окончании почти бесплатны.
+ *
+ * Запрос идёт из каждого узла поиска, поэтому он не выделяет память и не берёт
+ * блокировок: таблица материала находится по массиву, индексированному числом
+ * фигур, а кэш — массив неизменяемых записей, которые потоки перезаписывают
+ * без синхронизации. Потокобезопасен: поиск с помощниками (Lazy SMP)
+ * опрашивает один объект, а каждый поток может держать свой BlockMemo.
+ *
+ * Для каждого материала берётся DTW-файл (точная длина), если его нет —
+ * WLD-файл; probe() отвечает только по DTW, probeWld() — по любому из них.
+ */
+public final class TablebaseProbe {
+
+    /** Ответ для позиции, которой нет в базе. */
+    public static final int UNKNOWN = -1;
+
+    /** По умолчанию 64 блока — 256 КБ распакованных данных. */
+    public static final int DEFAULT_CACHE_BLOCKS = 64;
+
+    /** Основание номера материала: фигур одного вида у стороны не больше 12. */
+    private static final int COUNT_RADIX = 13;
+
+    /** Таблицы по номеру материала (materialCode), null — материала нет. */
+    @NonNull
+    private final Table[] tables;
+    private final int maxPieces;
+    @NonNull
+    private final BlockCache cache;
+
+    private TablebaseProbe(@NonNull Table[] tables, int maxPieces, int cacheBlocks) {
+        this.tables = tables;
+        this.maxPieces = maxPieces;
+        this.cache = new BlockCache(cacheBlocks);
+    }
+
+    @NonNull
+    public static TablebaseProbe open(@NonNull File directory) throws IOException {
+        return open(directory, DEFAULT_CACHE_BLOCKS);
+    }
+
+    /**
+     * Отобразить в память все файлы базы из каталога.
+     *
+     * @param cacheBlocks сколько распакованных блоков держать в памяти
+     *                    (округляется вверх до степени двойки)
+     * @throws IOException если каталога нет или файл повреждён
+     */
+    @NonNull
+    public static TablebaseProbe open(@NonNull File directory, int cacheBlocks) throws IOException {
+        Objects.requireNonNull(directory, "directory");
+        if (cacheBlocks < 1) {
+            throw new IllegalArgumentException("cacheBlocks must be >= 1, got " + cacheBlocks);
+        }
+        File[] files = directory.listFiles();
+        if (files == null) {
+            throw new IOException("Not a directory: " + directory);
+        }
+        Table[] tables = new Table[COUNT_RADIX * COUNT_RADIX * COUNT_RADIX * COUNT_RADIX];
+        int maxPieces = 0;
+        int id = 0;
+        for (File file : files) {
+            TablebaseFile.Kind kind = kindOf(file.getName());
+            if (kind == null) {
+                continue;
+            }
+            Table table = Table.map(file, kind, id++);
+            Material material = table.material;
+            int code = materialCode(material.getWhiteMen(), material.getWhiteKings(),
+                    material.getBlackMen(), material.getBlackKings());
+            Table existing = tables[code];
+            if (existing == null || (existing.kind == TablebaseFile.Kind.WLD
+                    && kind == TablebaseFile.Kind.DTW)) {
+                tables[code] = table;
+                maxPieces = Math.max(maxPieces, material.getPieceCount());
+            }
+        }
+        return new TablebaseProbe(tables, maxPieces, cacheBlocks);
+    }
+
+    private static int materialCode(int whiteMen, int whiteKings, int blackMen, int blackKings) {
+        return ((whiteMen * COUNT_RADIX + whiteKings) * COUNT_RADIX + blackMen) * COUNT_RADIX + blackKings;
+    }
+
+    @Nullable
+    private static TablebaseFile.Kind kindOf(@NonNull String name) {
+        if (!name.startsWith(TablebaseFile.FILE_PREFIX)) {
+            return null;
+        }
+        for (TablebaseFile.Kind kind : TablebaseFile.Kind.values()) {
+            if (name.endsWith("." + kind.getExtension())) {
+                return kind;
+            }
+        }
+        return null;
+    }
+
+    /** Наибольшее число фигур среди загруженных материалов (0 — база пуста). */
+    public int getMaxPieces() {
+        return maxPieces;
+    }
+
+    /**
+     * Точное значение позиции без незавершённой цепочки, с обязательным взятием.
+     *
+     * @return TablebaseValue с точки зрения sideToMove или UNKNOWN,
+     * если материала нет в базе или для него есть только WLD
+     */
+    public int probe(int white, int black, int kings, @NonNull Player sideToMove) {
+        return probe(white, black, kings, sideToMove, null);
+    }
+
+    /**
+     * То же, что probe(), но сначала смотрит в memo — последний блок,
+     * прочитанный этим потоком.
+     */
+    public int probe(int white, int black, int kings, @NonNull Player sideToMove, @Nullable BlockMemo memo) {
+        Table table = find(white, black, kings, sideToMove);
+        if (table == null || table.kind != TablebaseFile.Kind.DTW) {
+            return UNKNOWN;
+        }
+        return lookup(table, white, black, kings, sideToMove, memo);
+    }
+
+    /**
+     * Выигрыш/ничья/проигрыш позиции (TablebaseValue.WLD_*) или UNKNOWN.
+     */
+    public int probeWld(int white, int black, int kings, @NonNull Player sideToMove) {
+        return probeWld(white, black, kings, sideToMove, null);
+    }
+
+    public int probeWld(int white, int black, int kings, @NonNull Player sideToMove, @Nullable BlockMemo memo) {
+        Table table = find(white, black, kings, sideToMove);
+        if (table == null) {
+            return UNKNOWN;
+        }
+        int value = lookup(table, white, black, kings, sideToMove, memo);
+        return table.kind == TablebaseFile.Kind.DTW ? TablebaseValue.toWld(value) : value;
+    }
+
+    /** Запросы, обслуженные общим кэшем / с распаковкой блока — для статистики. */
+    public long getCacheHits() {
+        return cache.hits.sum();
+    }
+
+    public long getCacheMisses() {
+        return cache.misses.get();
+    }
+
+    @Nullable
+    private Table find(int white, int black, int kings, @NonNull Player sideToMove) {
+        if (white == 0 || black == 0 || Integer.bitCount(white | black) > maxPieces) {
+            return null;
+        }
+        int whiteKings = Integer.bitCount(white & kings);
+        int blackKings = Integer.bitCount(black & kings);
+        int whiteMen = Integer.bitCount(white) - whiteKings;
+        int blackMen = Integer.bitCount(black) - blackKings;
+        if (Math.max(Math.max(whiteMen, whiteKings), Math.max(blackMen, blackKings)) >= COUNT_RADIX) {
+            return null;
+        }
+        // с ходом чёрных позиция поворачивается со сменой цветов (Material.mirror)
+        return tables[sideToMove == Player.WHITE
+                ? materialCode(whiteMen, whiteKings, blackMen, blackKings)
+                : materialCode(blackMen, blackKings, whiteMen, whiteKings)];
+    }
+
+    private int lookup(@NonNull Table table,
+                       int white,
+                       int black,
+                       int kings,
+                       @NonNull Player sideToMove,
+                       @Nullable BlockMemo memo) {
+        long index = sideToMove == Player.WHITE
+                ? table.index.index(white, black, kings)
+                : table.index.index(TablebaseIndex.mirror(black), TablebaseIndex.mirror(white),
+                TablebaseIndex.mirror(kings));
+        int perByte = table.kind.getEntriesPerByte();
+        long byteOffset = index / perByte;
+        int block = (int) (byteOffset / table.blockBytes);
+        int offsetInBlock = (int) (byteOffset % table.blockBytes);
+        long key = ((long) table.id << 32) | block;
+
+        byte[] data;
+        if (memo != null && memo.owner == this && memo.key == key) {
+            data = memo.data;
+        } else {
+            data = cache.get(table, block, key);
+            if (memo != null) {
+                memo.owner = this;
+                memo.key = key;
+                memo.data = data;
+            }
+        }
+        if (perByte == 1) {
+            return data[offsetInBlock] & 0xFF;
+        }
+        return (data[offsetInBlock] >>> ((int) (index & 3) * 2)) & 3;
+    }
+
+    /**
+     * Последний блок, прочитанный одним потоком: запросы из соседних узлов
+     * поиска обычно попадают в тот же блок и не трогают общий кэш.
+     * Не потокобезопасен — у каждого потока свой.
+     */
+    public static final class BlockMemo {
+
+        @Nullable
+        private TablebaseProbe owner;
+        private long key;
+        @Nullable
+        private byte[] data;
+    }
+
+    // ------------------------------------------------------------------
+    // Файлы и блоки
+    // ------------------------------------------------------------------
+
+    /**
+     * Один отображённый файл. Заголовок проверяется при открытии,
+     * таблица смещений читается прямо из отображения.
+     */
+    private static final class Table {
+
+        @NonNull
+        final Material material;
+        @NonNull
+        final TablebaseFile.Kind kind;
+        @NonNull
+        final TablebaseIndex index;
+        final int id;
+        final int blockBytes;
+        @NonNull
+        final MappedByteBuffer buffer;
+
+        private Table(@NonNull Material material,
+                      @NonNull TablebaseFile.Kind kind,
+                      int id,
+                      int blockBytes,
+                      @NonNull MappedByteBuffer buffer) {
+            this.material = material;
+            this.kind = kind;
+            this.index = new TablebaseIndex(material);
+            this.id = id;
+            this.blockBytes = blockBytes;
+            this.buffer = buffer;
+        }
+
+        @NonNull
+        static Table map(@NonNull File file, @NonNull TablebaseFile.Kind kind, int id) throws IOException {
+            MappedByteBuffer buffer;
+            // Отображение остаётся действительным и после закрытия канала.
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+                 FileChannel channel = raf.getChannel()) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size());
+            }
+            if (buffer.capacity() < TablebaseFile.HEADER_BYTES
+                    || buffer.getInt(0) != TablebaseFile.MAGIC
+                    || buffer.get(4) != TablebaseFile.VERSION
+                    || buffer.get(5) != kind.ordinal()) {
+                throw new IOException("Not a " + kind + " tablebase file: " + file);
+            }
+            Material material;
+            try {
+                material = Material.of(buffer.get(6), buffer.get(7), buffer.get(8), buffer.get(9));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Bad material in " + file, e);
+            }
+            int blockBytes = buffer.getInt(10);
+            long entries = buffer.getLong(14);
+            int blockCount = buffer.getInt(22);
+            long bytes = (entries + kind.getEntriesPerByte() - 1) / kind.getEntriesPerByte();
+            if (blockBytes <= 0 || entries != new TablebaseIndex(material).size()
+                    || blockCount != (bytes + blockBytes - 1) / blockBytes
+                    || buffer.capacity() < TablebaseFile.HEADER_BYTES + 8L * (blockCount + 1)) {
+                throw new IOException("Corrupt tablebase header: " + file);
+            }
+            return new Table(material, kind, id, blockBytes, buffer);
+        }
+
+        /** Распаковать блок (последний может быть короче blockBytes). */
+        @NonNull
+        byte[] inflate(int block) {
+            long start = buffer.getLong(TablebaseFile.HEADER_BYTES + 8 * block);
+            long end = buffer.getLong(TablebaseFile.HEADER_BYTES + 8 * (block + 1));
+            byte[] compressed = new byte[(int) (end - start)];
+            ByteBuffer view = buffer.duplicate();
+            view.position((int) start);
+            view.get(compressed);
+
+            byte[] data = new byte[blockBytes];
+            Inflater inflater = new Inflater();
+            try {
+                inflater.setInput(compressed);
+                int length = 0;
+                while (!inflater.finished() && length < data.length) {
+                    int read = inflater.inflate(data, length, data.length - length);
+                    if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        throw new IllegalStateException("Truncated block " + block + " of " + material);
+                    }
+                    length += read;
+                }
+            } catch (DataFormatException e) {
+                throw new IllegalStateException("Corrupt block " + block + " of " + material, e);
+            } finally {
+                inflater.end();
+            }
+            return data;
+        }
+    }
+
+    /**
+     * Кэш распакованных блоков всех файлов с прямой адресацией: ключ
+     * (номер файла и блока) выбирает одну ячейку, новый блок вытесняет старый.
+     * Ячейки — неизменяемые CachedBlock, поэтому запись и чтение ячейки без
+     * синхронизации безопасны: поток видит либо старый блок, либо новый
+     * целиком, и сверяет ключ. Распаковка идёт без блокировок; если два потока
+     * распаковали один блок, в ячейке останется один из них.
+     */
+    private static final class BlockCache {
+
+        @NonNull
+        private final CachedBlock[] slots;
+        private final int slotMask;
+        @NonNull
+        final LongAdder hits = new LongAdder();
+        @NonNull
+        final AtomicLong misses = new AtomicLong();
+
+        BlockCache(int capacity) {
+            int size = Integer.highestOneBit(capacity);
+            if (size < capacity) {
+                size <<= 1;
+            }
+            this.slots = new CachedBlock[size];
+            this.slotMask = size - 1;
+        }
+
+        @NonNull
+        byte[] get(@NonNull Table table, int block, long key) {
+            int slot = mix(key) & slotMask;
+            CachedBlock cached = slots[slot];
+            if (cached != null && cached.key == key) {
+                hits.increment();
+                return cached.data;
+            }
+            misses.incrementAndGet();
+            byte[] data = table.inflate(block);
+            slots[slot] = new CachedBlock(key, data);
+            return data;
+        }
+
+        /** Перемешивание ключа, чтобы соседние блоки разных файлов не делили ячейку. */
+        private static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h >>> 32);
+        }
+    }
+
+    private static final class CachedBlock {
+
+        final long key;
+        @NonNull
+        final byte[] data;
+
+        CachedBlock(long key, @NonNull byte[] data) {
+            this.key = key;
+            this.data = data;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package ru.goman.checkers.tablebase;
+
+/**
+ * Значение позиции в базе — один байт (0..255) с точки зрения стороны, которая ходит:
+ *  - 0 — ничья (и пустые номера индекса);
+ *  - 1 + 2k — выигрыш за 2k + 1 полуходов;
+ *  - 2 + 2k — проигрыш за 2k полуходов.
+ * Выигрыш всегда завершается своим ходом, поэтому его длина нечётная,
+ * длина проигрыша — чётная, и половинки полуходов хватает, чтобы уложить
+ * в байт партии до MAX_PLIES полуходов. Выигрывающий идёт к победе
+ * кратчайшим путём, проигрывающий тянет как можно дольше.
+ *
+ * В файлах WLD то же значение сжато до двух бит: WLD_DRAW, WLD_WIN, WLD_LOSS.
+ */
+public final class TablebaseValue {
+
+    public static final int DRAW = 0;
+
+    /** Самый длинный выигрыш, который помещается в байт. */
+    public static final int MAX_PLIES = 253;
+
+    public static final int WLD_DRAW = 0;
+    public static final int WLD_WIN = 1;
+    public static final int WLD_LOSS = 2;
+
+    private TablebaseValue() {
+    }
+
+    /**
+     * @param plies нечётное число полуходов до победы
+     * @throws IllegalArgumentException если длина чётная или больше MAX_PLIES
+     */
+    public static int win(int plies) {
+        if (plies < 1 || plies > MAX_PLIES || plies % 2 == 0) {
+            throw new IllegalArgumentException("Invalid win distance: " + plies);
+        }
+        return plies;
+    }
+
+    /**
+     * @param plies чётное число полуходов до поражения (0 — ходов уже нет)
+     * @throws IllegalArgumentException если длина нечётная или больше MAX_PLIES
+     */
+    public static int loss(int plies) {
+        if (plies < 0 || plies >= MAX_PLIES || plies % 2 != 0) {
+            throw new IllegalArgumentException("Invalid loss distance: " + plies);
+        }
+        return plies + 2;
+    }
+
+    public static boolean isWin(int value) {
+        return value % 2 == 1;
+    }
+
+    public static boolean isLoss(int value) {
+        return value != DRAW && value % 2 == 0;
+    }
+
+    /** Полуходы до конца партии (для ничьей — 0). */
+    public static int plies(int value) {
+        if (value == DRAW) {
+            return 0;
+        }
+        return isWin(value) ? value : value - 2;
+    }
+
+    /** Двухбитный код WLD того же значения. */
+    public static int toWld(int value) {
+        if (value == DRAW) {
+            return WLD_DRAW;
+        }
+        return isWin(value) ? WLD_WIN : WLD_LOSS;
+    }
+}
@@ -0,0 +1,307 @@
+package ru.goman.checkers.engine;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ru.goman.checkers.logic.GameLogic;
+import ru.goman.checkers.model.Move;
+import ru.goman.checkers.model.Player;
+
+import static org.junit.Assert.*;
+
+/**
+ * Асинхронный поиск и размышление AiEngine.
+ * Стратегия-заглушка ждёт разрешения теста, так что отмена и смена позиции
+ * всегда попадают на уже идущий поиск, а остановленное размышление
+ * сворачивается не сразу — как настоящий перебор.
+ */
+public class AiEngineTest {
+
+    private static final long TIMEOUT_SECONDS = 5;
+
+    /** Сколько размышление ещё работает после stop() (перебор доходит до проверки). */
+    private static final long PONDER_WIND_DOWN_MS = 100;
+
+    private StubStrategy strategy;
+    private AiEngine engine;
+    private GameLogic logic;
+    private DirectExecutor callbackExecutor;
+    private final AtomicInteger callbacks = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        strategy = new StubStrategy();
+        engine = new AiEngine(Player.WHITE, strategy);
+        logic = GameLogic.newGame(Player.WHITE, true);
+        callbackExecutor = new DirectExecutor();
+        strategy.result = logic.getAllMovesForCurrentPlayer().get(0);
+    }
+
+    @After
+    public void tearDown() {
+        strategy.release.countDown();
+        engine.shutdown();
+    }
+
+    @Test
+    public void chooseMoveAsync_deliversMove() throws InterruptedException {
+        Move[] delivered = new Move[1];
+        AiEngine.SearchTask task = engine.chooseMoveAsync(logic, AiDifficulty.HARD,
+                callbackExecutor, move -> {
+                    delivered[0] = move;
+                    callbacks.incrementAndGet();
+                });
+        strategy.release.countDown();
+
+        awaitCallbackExecutor();
+        assertEquals(1, callbacks.get());
+        assertEquals(strategy.result, delivered[0]);
+        assertFalse(task.isCancelled());
+    }
+
+    @Test
+    public void cancel_suppressesCallback() throws InterruptedException {
+        AiEngine.SearchTask task = startCountingSearch();
+        awaitSearchStarted();
+
+        task.cancel();
+        assertTrue(task.isCancelled());
+        assertTrue(strategy.control.isCancelled());
+        strategy.release.countDown();
+
+        awaitCallbackExecutor();
+        assertEquals(0, callbacks.get());
+    }
+
+    @Test
+    public void changedPosition_suppressesCallback() throws InterruptedException {
+        startCountingSearch();
+        awaitSearchStarted();
+
+        // Пока ИИ думает, позицию меняют (например, Undo или ход с другого экрана).
+        logic.applyMove(logic.getAllMovesForCurrentPlayer().get(1));
+        strategy.release.countDown();
+
+        awaitCallbackExecutor();
+        assertEquals(0, callbacks.get());
+        assertNull(callbackExecutor.thrown);
+    }
+
+    @Test
+    public void strategyFailure_rethrownOnCallbackExecutor() throws InterruptedException {
+        strategy.failure = new IllegalStateException("search failed");
+        startCountingSearch();
+        strategy.release.countDown();
+
+        awaitCallbackExecutor();
+        assertSame(strategy.failure, callbackExecutor.thrown);
+        assertEquals(0, callbacks.get());
+    }
+
+    @Test
+    public void strategyFailure_afterCancel_isDropped() throws InterruptedException {
+        strategy.failure = new IllegalStateException("search failed");
+        AiEngine.SearchTask task = startCountingSearch();
+        awaitSearchStarted();
+
+        task.cancel();
+        strategy.release.countDown();
+
+        awaitCallbackExecutor();
+        assertNull(callbackExecutor.thrown);
+        assertEquals(0, callbacks.get());
+    }
+
+    @Test
+    public void stopPondering_endsPonderTask() throws InterruptedException {
+        startPonderingOnHumanTurn();
+
+        engine.stopPondering();
+
+        assertFalse(engine.isPondering());
+        assertTrue(strategy.ponderControl.isCancelled());
+        assertTrue("ponder task still running",
+                strategy.ponderFinished.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void chooseMove_waitsForStoppedPonder() throws InterruptedException {
+        GameLogic human = startPonderingOnHumanTurn();
+        engine.stopPondering();
+
+        human.applyMove(human.getAllMovesForCurrentPlayer().get(0));
+        strategy.result = human.getAllMovesForCurrentPlayer().get(0);
+        strategy.release.countDown();
+        assertEquals(strategy.result, engine.chooseMove(human, AiDifficulty.HARD));
+
+        assertFalse("search ran alongside pondering", strategy.overlapped);
+        assertEquals(0, strategy.ponderFinished.getCount());
+    }
+
+    @Test
+    public void chooseMove_stopsAndWaitsForPonder() throws InterruptedException {
+        GameLogic human = startPonderingOnHumanTurn();
+
+        human.applyMove(human.getAllMovesForCurrentPlayer().get(0));
+        strategy.release.countDown();
+        engine.chooseMove(human, AiDifficulty.HARD);
+
+        assertFalse("search ran alongside pondering", strategy.overlapped);
+        assertTrue(strategy.ponderControl.isCancelled());
+        assertEquals(0, strategy.ponderFinished.getCount());
+    }
+
+    @Test
+    public void shutdown_waitsForPonder() throws InterruptedException {
+        startPonderingOnHumanTurn();
+
+        engine.shutdown();
+
+        assertFalse(engine.isPondering());
+        assertEquals(0, strategy.ponderFinished.getCount());
+    }
+
+    // ----------------------------------------------------------------------
+    // Вспомогательные методы
+    // ----------------------------------------------------------------------
+
+    private AiEngine.SearchTask startCountingSearch() {
+        return engine.chooseMoveAsync(logic, AiDifficulty.HARD, callbackExecutor,
+                move -> callbacks.incrementAndGet());
+    }
+
+    /** Ход человека (чёрных): движок начинает думать на его времени. */
+    private GameLogic startPonderingOnHumanTurn() throws InterruptedException {
+        GameLogic human = GameLogic.newGame(Player.BLACK, true);
+        engine.startPondering(human, AiDifficulty.HARD);
+        assertTrue("pondering not started",
+                strategy.ponderStarted.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertTrue(engine.isPondering());
+        return human;
+    }
+
+    private void awaitSearchStarted() throws InterruptedException {
+        assertTrue("search not started", strategy.started.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    private void awaitCallbackExecutor() throws InterruptedException {
+        assertTrue("callback executor not used",
+                callbackExecutor.executed.await(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Выполняет задачу сразу в вызывающем потоке и запоминает вылетевшее
+     * из неё исключение — как его увидел бы Looper главного потока.
+     */
+    private static final class DirectExecutor implements Executor {
+
+        final CountDownLatch executed = new CountDownLatch(1);
+
+        @Nullable
+        volatile RuntimeException thrown;
+
+        @Override
+        public void execute(@NonNull Runnable command) {
+            try {
+                command.run();
+            } catch (RuntimeException e) {
+                thrown = e;
+            } finally {
+                executed.countDown();
+            }
+        }
+    }
+
+    /**
+     * Стратегия, которая ждёт release и возвращает result (или бросает failure).
+     * ponder() работает до остановки и ещё PONDER_WIND_DOWN_MS после неё;
+     * поиск, начатый в это время, отмечается в overlapped.
+     */
+    private static final class StubStrategy implements AiStrategy {
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch ponderStarted = new CountDownLatch(1);
+        final CountDownLatch ponderFinished = new CountDownLatch(1);
+
+        volatile boolean pondering;
+        volatile boolean overlapped;
+
+        @Nullable
+        volatile SearchControl ponderControl;
+
+        @Nullable
+        volatile Move result;
+
+        @Nullable
+        volatile RuntimeException failure;
+
+        @Nullable
+        volatile SearchControl control;
+
+        @Nullable
+        @Override
+        public Move chooseMove(@NonNull GameLogic logic,
+                               @NonNull Player aiPlayer,
+                               @NonNull AiDifficulty difficulty) {
+            return chooseMove(logic, aiPlayer, difficulty, new SearchControl());
+        }
+
+        @Nullable
+        @Override
+        public Move chooseMove(@NonNull GameLogic logic,
+                               @NonNull Player aiPlayer,
+                               @NonNull AiDifficulty difficulty,
+                               @NonNull SearchControl control) {
+            if (pondering) {
+                overlapped = true;
+            }
+            this.control = control;
+            started.countDown();
+            try {
+                if (!release.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("Test never released the search");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            RuntimeException f = failure;
+            if (f != null) {
+                throw f;
+            }
+            return result;
+        }
+    
+        @Override
+        public void ponder(@NonNull GameLogic logic,
+                           @NonNull AiDifficulty difficulty,
+                           @NonNull SearchControl control) {
+            ponderControl = control;
+            pondering = true;
+            ponderStarted.countDown();
+            try {
+                while (!control.isCancelled()) {
+                    Thread.onSpinWait();
+                }
+                // Как перебор: прерывания не слушает, сворачивается сам.
+                long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(PONDER_WIND_DOWN_MS);
+                while (System.nanoTime() < end) {
+                    Thread.onSpinWait();
+                }
+            } finally {
+                pondering = false;
+                ponderFinished.countDown();
+            }
+        }
+    }
+}
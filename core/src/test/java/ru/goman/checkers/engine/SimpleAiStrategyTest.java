@@ -0,0 +1,113 @@
+package ru.goman.checkers.engine;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import ru.goman.checkers.logic.GameLogic;
+import ru.goman.checkers.model.Move;
+import ru.goman.checkers.model.Player;
+
+import static org.junit.Assert.*;
+import static ru.goman.checkers.logic.TestBoards.*;
+
+/**
+ * Поведение SimpleAiStrategy между вызовами chooseMove.
+ * Позиции записаны строками, как в TestBoards.
+ */
+public class SimpleAiStrategyTest {
+
+    /** Чёрная шашка бьёт на последнюю горизонталь и дальше бьёт уже дамкой. */
+    private static final String PROMOTING_CHAIN =
+            "......../......../......../......../......../..b...w./...w..../........";
+
+    /** Полуходов (с прыжками цепочек) в каждой партии со сверкой оценки. */
+    private static final int CROSS_CHECK_PLIES = 6;
+
+    private SimpleAiStrategy strategy;
+
+    @Before
+    public void setUp() {
+        strategy = new SimpleAiStrategy(new TranspositionTable(16,
+                TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED), 1);
+    }
+
+    @After
+    public void tearDown() {
+        strategy.shutdown();
+    }
+
+    @Test
+    public void captureChain_searchesOnlyOnFirstJump() {
+        assertChainWithoutResearch(logic(KING_CHAINS, Player.BLACK), 6);
+    }
+
+    @Test
+    public void captureChain_continuesAfterPromotion() {
+        assertChainWithoutResearch(logic(PROMOTING_CHAIN, Player.BLACK), 2);
+    }
+
+    @Test
+    public void evaluationCrossCheck_hardSearches() {
+        assertCrossCheckedGames(AiDifficulty.HARD);
+    }
+
+    /** EXPERT с кешем оценок: сверяются и инкрементальные суммы, и попадания в кеш. */
+    @Test
+    public void evaluationCrossCheck_expertSearchesWithEvalCache() {
+        strategy.setEvalCacheKb(16);
+        assertCrossCheckedGames(AiDifficulty.EXPERT);
+    }
+
+    // ----------------------------------------------------------------------
+    // Вспомогательные методы
+    // ----------------------------------------------------------------------
+
+    /** Вся цепочка взятий — один поиск; остальные прыжки идут по плану. */
+    private void assertChainWithoutResearch(GameLogic logic, int expectedJumps) {
+        Player ai = logic.getCurrentPlayer();
+        Move first = strategy.chooseMove(logic, ai, AiDifficulty.HARD);
+        assertNotNull(first);
+        assertTrue(first.isCapture());
+        SearchStats search = strategy.getLastSearchStats();
+        assertNotNull(search);
+
+        int jumps = 1;
+        GameLogic.MoveResult result = logic.applyMove(first);
+        while (result.isCaptureChainContinues()) {
+            Move next = strategy.chooseMove(logic, ai, AiDifficulty.HARD);
+            assertNotNull(next);
+            assertSame("jump " + (jumps + 1), search, strategy.getLastSearchStats());
+            result = logic.applyMove(next);
+            jumps++;
+        }
+        assertEquals(expectedJumps, jumps);
+        assertEquals(ai.opposite(), logic.getCurrentPlayer());
+    }
+
+    /**
+     * Несколько ходов ИИ за обе стороны со сверкой оценки: расхождение
+     * инкрементальных сумм с пересчётом бросает IllegalStateException.
+     */
+    private void assertCrossCheckedGames(AiDifficulty difficulty) {
+        strategy.setEvaluationCrossCheck(true);
+        GameLogic[] games = {
+                logic(KING_CHAINS, Player.BLACK),
+                logic(MIXED_KINGS, Player.WHITE),
+                logic(PROMOTING_CHAIN, Player.BLACK)};
+        for (GameLogic logic : games) {
+            for (int ply = 0; ply < CROSS_CHECK_PLIES; ply++) {
+                Player side = logic.getCurrentPlayer();
+                Move move = strategy.chooseMove(logic, side, difficulty);
+                if (move == null) {
+                    assertTrue(logic.getAllMovesForCurrentPlayer().isEmpty());
+                    break;
+                }
+                assertTrue(move.toString(), logic.isMoveLegal(move));
+                if (logic.applyMove(move).isGameOver()) {
+                    break;
+                }
+            }
+        }
+    }
+}
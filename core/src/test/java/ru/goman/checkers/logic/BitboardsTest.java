@@ -0,0 +1,50 @@
+package ru.goman.checkers.logic;
+
+import org.junit.Test;
+
+import ru.goman.checkers.model.Player;
+
+import static org.junit.Assert.*;
+import static ru.goman.checkers.logic.TestBoards.*;
+
+/**
+ * Подпись хода для таблицы транспозиций и сравнение полных ходов.
+ */
+public class BitboardsTest {
+
+    /**
+     * Дамка обходит шашки по-разному: начало, первый прыжок и конец общие,
+     * побитые фигуры разные — подпись одна, а ходы разные.
+     */
+    @Test
+    public void signature_doesNotIdentifyCaptureChain() {
+        BitboardPosition position = BitboardPosition.fromGameLogic(logic(KING_CHAINS, Player.BLACK));
+        long[] moves = new long[BitboardPosition.MAX_MOVES];
+        int count = position.generateMoves(moves);
+
+        int collisions = 0;
+        for (int i = 0; i < count; i++) {
+            assertNotEquals(0, Bitboards.signature(moves[i]));
+            for (int j = i + 1; j < count; j++) {
+                if (Bitboards.signature(moves[i]) != Bitboards.signature(moves[j])) {
+                    continue;
+                }
+                collisions++;
+                assertNotEquals(Bitboards.pathCapturedMask(moves[i]), Bitboards.pathCapturedMask(moves[j]));
+                assertFalse(Bitboards.continuesPath(moves[i], moves[j]));
+                assertFalse(Bitboards.continuesPath(moves[j], moves[i]));
+            }
+        }
+        assertTrue("expected chains sharing a signature", collisions > 0);
+    }
+
+    @Test
+    public void continuesPath_matchesItself() {
+        BitboardPosition position = BitboardPosition.fromGameLogic(logic(KING_CHAINS, Player.BLACK));
+        long[] moves = new long[BitboardPosition.MAX_MOVES];
+        int count = position.generateMoves(moves);
+        for (int i = 0; i < count; i++) {
+            assertTrue(Bitboards.continuesPath(moves[i], moves[i]));
+        }
+    }
+}
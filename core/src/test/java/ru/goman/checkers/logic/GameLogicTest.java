@@ -0,0 +1,109 @@
+package ru.goman.checkers.logic;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import ru.goman.checkers.model.BoardState;
+import ru.goman.checkers.model.Move;
+import ru.goman.checkers.model.Player;
+
+import static org.junit.Assert.*;
+import static ru.goman.checkers.logic.TestBoards.*;
+
+/**
+ * Кэш ходов GameLogic: список ходов и множество кодов для isMoveLegal()
+ * должны устаревать при любом изменении позиции.
+ */
+public class GameLogicTest {
+
+    @Test
+    public void unchangedPosition_reusesMoveList() {
+        GameLogic logic = GameLogic.newGame(Player.WHITE, true);
+        assertSame(logic.getAllMovesForCurrentPlayer(), logic.getAllMovesForCurrentPlayer());
+    }
+
+    @Test
+    public void externalSetCode_invalidatesMoveList() {
+        GameLogic logic = GameLogic.newGame(Player.WHITE, true);
+        List<Move> before = logic.getAllMovesForCurrentPlayer();
+        Move move = before.get(0);
+        assertTrue(logic.isMoveLegal(move));
+
+        // Доску меняют в обход GameLogic: шашка, которой был ход, исчезает.
+        BoardState board = logic.getBoard();
+        int modifications = board.getModificationCount();
+        board.setCode(move.getFromRow(), move.getFromCol(), 0);
+        assertNotEquals(modifications, board.getModificationCount());
+
+        List<Move> after = logic.getAllMovesForCurrentPlayer();
+        assertNotSame(before, after);
+        assertFalse(after.contains(move));
+        assertFalse(logic.isMoveLegal(move));
+        assertEquals(freshMoves(logic), after);
+    }
+
+    @Test
+    public void restoreFromSnapshot_invalidatesLegalMoves() {
+        GameLogic logic = GameLogic.newGame(Player.WHITE, true);
+        GameLogic.GameSnapshot start = logic.createSnapshot();
+
+        // Белые и чёрные делают по ходу — снова ходят белые, но ходы уже другие.
+        Move white = logic.getAllMovesForCurrentPlayer().get(0);
+        logic.applyMove(white);
+        logic.applyMove(logic.getAllMovesForCurrentPlayer().get(0));
+        assertEquals(Player.WHITE, logic.getCurrentPlayer());
+        Move newMove = moveOf(logic, white.getToRow(), white.getToCol());
+        assertTrue(logic.isMoveLegal(newMove));
+
+        logic.restoreFromSnapshot(start);
+
+        assertTrue(logic.isSameStateAs(start));
+        assertFalse(logic.isMoveLegal(newMove));
+        assertTrue(logic.isMoveLegal(white));
+        assertEquals(freshMoves(logic), logic.getAllMovesForCurrentPlayer());
+    }
+
+    @Test
+    public void captureChain_keepsCacheConsistent() {
+        GameLogic logic = logic(KING_CHAINS, Player.BLACK);
+        GameLogic.MoveResult result;
+        int jumps = 0;
+        do {
+            List<Move> moves = logic.getAllMovesForCurrentPlayer();
+            assertEquals(freshMoves(logic), moves);
+            assertEquals(moves.size(), logic.getAllMoveCodesForCurrentPlayer().length);
+            for (Move move : moves) {
+                assertTrue(move.toString(), logic.isMoveLegal(move));
+            }
+            if (logic.isCaptureChainInProgress()) {
+                // Продолжать бой может только та же дамка.
+                assertEquals(moves, logic.getMovesForCell(logic.getChainRow(), logic.getChainCol()));
+            }
+
+            Move jump = moves.get(0);
+            result = logic.applyMove(jump);
+            jumps++;
+            assertFalse("jump " + jumps + " replayed", logic.isMoveLegal(jump));
+        } while (result.isCaptureChainContinues());
+
+        assertEquals(Player.WHITE, logic.getCurrentPlayer());
+        assertEquals(freshMoves(logic), logic.getAllMovesForCurrentPlayer());
+        assertTrue(jumps > 1);
+    }
+
+    // ----------------------------------------------------------------------
+    // Вспомогательные методы
+    // ----------------------------------------------------------------------
+
+    /** Ходы, посчитанные заново по копии текущего состояния, без кэша logic. */
+    private static List<Move> freshMoves(GameLogic logic) {
+        return GameLogic.fromPosition(Position.fromGameLogic(logic)).getAllMovesForCurrentPlayer();
+    }
+
+    private static Move moveOf(GameLogic logic, int row, int col) {
+        List<Move> moves = logic.getMovesForCell(row, col);
+        assertFalse("no moves from " + row + "," + col, moves.isEmpty());
+        return moves.get(0);
+    }
+}
@@ -0,0 +1,131 @@
+package ru.goman.checkers.logic;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import ru.goman.checkers.model.Player;
+
+import static org.junit.Assert.*;
+import static ru.goman.checkers.logic.TestBoards.*;
+
+/**
+ * Регрессия генератора ходов GameLogic: perft из известных позиций
+ * с правилом обязательного взятия и без него.
+ * Позиции записаны строками, как в TestBoards.
+ */
+public class PerftTest {
+
+    /** Белые дамки против чёрных шашек. */
+    private static final String KINGS_VS_MEN =
+            "......../..b.b.../......../..b...../...W..../......../.....b../W.......";
+
+    /** Почти пустая доска, ход чёрных. */
+    private static final String SPARSE_KINGS =
+            "......../.B....../......../...w..../......../..b...../......W./W.......";
+
+    @Test
+    public void initialPosition_mustCapture() {
+        assertCounts(GameLogic.newGame(Player.WHITE, true),
+                7, 49, 302, 1469, 7482, 37986, 190146);
+    }
+
+    @Test
+    public void initialPosition_freeCapture() {
+        assertCounts(GameLogic.newGame(Player.WHITE, false),
+                7, 49, 379, 2872, 23597, 189345);
+    }
+
+    @Test
+    public void kingsVsMen() {
+        assertCounts(logic(KINGS_VS_MEN, Player.WHITE, true), 2, 6, 37, 123, 790);
+        assertCounts(logic(KINGS_VS_MEN, Player.WHITE, false), 11, 79, 943, 7138, 90223);
+    }
+
+    @Test
+    public void mixedKings() {
+        assertCounts(logic(MIXED_KINGS, Player.WHITE, true), 9, 55, 273, 2220, 17015);
+        assertCounts(logic(MIXED_KINGS, Player.WHITE, false), 19, 229, 4178, 49968);
+    }
+
+    @Test
+    public void sparseKings_blackToMove() {
+        assertCounts(logic(SPARSE_KINGS, Player.BLACK, true), 2, 13, 13, 123, 772);
+        assertCounts(logic(SPARSE_KINGS, Player.BLACK, false), 2, 13, 15, 144, 984);
+    }
+
+    @Test
+    public void kingCaptureChains() {
+        assertCounts(logic(KING_CHAINS, Player.BLACK, true), 6, 16, 52, 248, 1175);
+        assertCounts(logic(KING_CHAINS, Player.BLACK, false), 7, 28, 182, 1207, 7933);
+    }
+
+    @Test
+    public void divide_sumsToCount() {
+        GameLogic logic = logic(MIXED_KINGS, Player.WHITE, true);
+        Perft.Result result = Perft.divide(logic, 4);
+
+        long sum = 0L;
+        for (Perft.DivideEntry entry : result.getDivide()) {
+            sum += entry.getNodes();
+        }
+        assertEquals(result.getNodes(), sum);
+        assertEquals(Perft.count(logic, 4), result.getNodes());
+        assertEquals(9, result.getDivide().size());
+    }
+
+    @Test
+    public void divide_namesFullMoves() {
+        List<Perft.DivideEntry> initial = Perft.divide(GameLogic.newGame(Player.WHITE, true), 1).getDivide();
+        assertEquals(7, initial.size());
+        assertEquals("a3-b4", initial.get(0).getMove());
+
+        // Вся цепочка взятий — одна строка divide
+        boolean longChain = false;
+        for (Perft.DivideEntry entry : Perft.divide(logic(KING_CHAINS, Player.BLACK, true), 1).getDivide()) {
+            longChain |= entry.getMove().equals("h8:e5:c7:a5:c3:e5:g3");
+        }
+        assertTrue(longChain);
+    }
+
+    @Test
+    public void format_linePerRootMoveAndSummary() {
+        Perft.Result result = Perft.divide(GameLogic.newGame(Player.WHITE, true), 3);
+        String[] lines = result.format().split("\n");
+        assertEquals(result.getDivide().size() + 1, lines.length);
+        assertEquals("a3-b4: " + result.getDivide().get(0).getNodes(), lines[0]);
+        assertTrue(lines[lines.length - 1].startsWith("depth 3: 302 nodes"));
+    }
+
+    @Test
+    public void depthZero_isOneNode() {
+        GameLogic logic = GameLogic.newGame(Player.WHITE, true);
+        assertEquals(1L, Perft.count(logic, 0));
+        assertEquals(1L, Perft.divide(logic, 0).getNodes());
+        assertTrue(Perft.divide(logic, 0).getDivide().isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeDepth_throws() {
+        Perft.count(GameLogic.newGame(Player.WHITE, true), -1);
+    }
+
+    @Test
+    public void sourceLogicIsUntouched() {
+        GameLogic logic = logic(KING_CHAINS, Player.BLACK, true);
+        GameLogic.GameSnapshot before = logic.createSnapshot();
+        Perft.divide(logic, 3);
+        Perft.count(logic, 3);
+        assertTrue(logic.isSameStateAs(before));
+    }
+
+    // ----------------------------------------------------------------------
+    // Вспомогательные методы
+    // ----------------------------------------------------------------------
+
+    private static void assertCounts(GameLogic logic, long... expected) {
+        for (int depth = 1; depth <= expected.length; depth++) {
+            assertEquals("depth " + depth, expected[depth - 1], Perft.count(logic, depth));
+        }
+    }
+}
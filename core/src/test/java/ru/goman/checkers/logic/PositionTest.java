@@ -0,0 +1,159 @@
+package ru.goman.checkers.logic;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import ru.goman.checkers.model.BoardState;
+import ru.goman.checkers.model.Move;
+import ru.goman.checkers.model.Player;
+
+import static org.junit.Assert.*;
+import static ru.goman.checkers.logic.TestBoards.*;
+
+/**
+ * Position как ключ: равенство, хеш и преобразования в BoardState,
+ * GameLogic и BitboardPosition и обратно.
+ */
+public class PositionTest {
+
+    @Test
+    public void equalPositions_haveEqualHashCodes() {
+        Position a = Position.fromGameLogic(GameLogic.newGame(Player.WHITE, true));
+        Position b = Position.fromBoardState(initialBoard(), Player.WHITE, true);
+
+        assertNotSame(a, b);
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+        assertEquals(a.getKey(), b.getKey());
+        assertEquals(24, a.getPieceCount());
+    }
+
+    @Test
+    public void sideRulesAndChain_areDistinguished() {
+        Position base = Position.fromBoardState(initialBoard(), Player.WHITE, true);
+
+        assertNotEquals(base, Position.fromBoardState(initialBoard(), Player.BLACK, true));
+        assertNotEquals(base, Position.fromBoardState(initialBoard(), Player.WHITE, false));
+
+        Position chain = afterFirstJump();
+        Position noChain = Position.of(chain.getWhite(), chain.getBlack(), chain.getKings(),
+                chain.getSideToMove(), chain.isMustCaptureRuleEnabled());
+        assertNotEquals(chain, noChain);
+        assertNotEquals(chain.getKey(), noChain.getKey());
+    }
+
+    @Test
+    public void key_matchesBitboardHash() {
+        for (Position position : new Position[]{
+                Position.fromGameLogic(GameLogic.newGame(Player.WHITE, true)),
+                Position.fromGameLogic(GameLogic.newGame(Player.BLACK, false)),
+                Position.fromGameLogic(logic(KING_CHAINS, Player.BLACK)),
+                afterFirstJump()}) {
+            BitboardPosition bitboard = position.toBitboardPosition();
+            assertEquals(position.toString(), position.getKey(), bitboard.getHash());
+            assertEquals(position.toString(), position.getKey(), bitboard.computeHash());
+        }
+    }
+
+    @Test
+    public void boardState_roundTrip() {
+        GameLogic logic = logic(KING_CHAINS, Player.BLACK);
+        Position position = Position.fromBoardState(logic.getBoard(), Player.BLACK, true);
+
+        assertEquals(logic.getBoard(), position.toBoardState());
+        assertEquals(position, Position.fromBoardState(position.toBoardState(), Player.BLACK, true));
+    }
+
+    @Test
+    public void bitboardPosition_roundTrip() {
+        Position position = afterFirstJump();
+        BitboardPosition bitboard = position.toBitboardPosition();
+
+        assertEquals(position.getWhite(), bitboard.getWhite());
+        assertEquals(position.getBlack(), bitboard.getBlack());
+        assertEquals(position.getKings(), bitboard.getKings());
+        assertEquals(position.getSideToMove(), bitboard.getSideToMove());
+        assertEquals(position.getChainSquare(), bitboard.getChainSquare());
+        assertEquals(position.getPendingCaptured(), bitboard.getPendingCaptured());
+        assertEquals(position, bitboard.toPosition());
+    }
+
+    @Test
+    public void gameLogic_roundTrip() {
+        GameLogic logic = GameLogic.newGame(Player.WHITE, true);
+        Position position = Position.fromGameLogic(logic);
+
+        assertEquals(position, Position.fromGameLogic(position.toGameLogic()));
+        assertTrue(position.toGameLogic().isSameStateAs(logic.createSnapshot()));
+    }
+
+    @Test
+    public void fromPosition_restoresUnfinishedChain() {
+        GameLogic original = logic(KING_CHAINS, Player.BLACK);
+        GameLogic.MoveResult result = original.applyMove(firstCapture(original));
+        assertTrue(result.isCaptureChainContinues());
+        Position position = Position.fromGameLogic(original);
+        assertNotEquals(Bitboards.NO_SQUARE, position.getChainSquare());
+        assertEquals(1, Integer.bitCount(position.getPendingCaptured()));
+
+        GameLogic restored = GameLogic.fromPosition(position);
+
+        assertTrue(restored.isCaptureChainInProgress());
+        assertEquals(original.getChainRow(), restored.getChainRow());
+        assertEquals(original.getChainCol(), restored.getChainCol());
+        assertEquals(original.getPendingCapturedMask(), restored.getPendingCapturedMask());
+        assertEquals(Player.BLACK, restored.getCurrentPlayer());
+        assertTrue(restored.isSameStateAs(original.createSnapshot()));
+        assertEquals(original.getAllMovesForCurrentPlayer(), restored.getAllMovesForCurrentPlayer());
+
+        // Побитая шашка остаётся на доске до конца цепочки, но второй раз её не бьют.
+        for (Move move : restored.getAllMovesForCurrentPlayer()) {
+            assertTrue(move.isCapture());
+            assertFalse(restored.isPendingCapture(move.getCapturedRow(), move.getCapturedCol()));
+        }
+
+        // Обе партии доигрывают цепочку одинаково.
+        while (result.isCaptureChainContinues()) {
+            Move next = firstCapture(original);
+            result = original.applyMove(next);
+            GameLogic.MoveResult restoredResult = restored.applyMove(next);
+            assertEquals(result.isCaptureChainContinues(), restoredResult.isCaptureChainContinues());
+        }
+        assertEquals(Player.WHITE, restored.getCurrentPlayer());
+        assertEquals(original.getBoard(), restored.getBoard());
+        assertEquals(0, restored.getPendingCapturedMask());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void of_rejectsChainWithoutCapturedPieces() {
+        Position position = afterFirstJump();
+        Position.of(position.getWhite(), position.getBlack(), position.getKings(),
+                position.getSideToMove(), position.getChainSquare(), 0, true);
+    }
+
+    // ----------------------------------------------------------------------
+    // Вспомогательные методы
+    // ----------------------------------------------------------------------
+
+    /** KING_CHAINS после первого прыжка чёрной дамки: цепочка не закончена. */
+    private static Position afterFirstJump() {
+        GameLogic logic = logic(KING_CHAINS, Player.BLACK);
+        assertTrue(logic.applyMove(firstCapture(logic)).isCaptureChainContinues());
+        return Position.fromGameLogic(logic);
+    }
+
+    private static Move firstCapture(GameLogic logic) {
+        List<Move> moves = logic.getAllMovesForCurrentPlayer();
+        assertFalse(moves.isEmpty());
+        Move move = moves.get(0);
+        assertTrue(move.isCapture());
+        return move;
+    }
+
+    private static BoardState initialBoard() {
+        BoardState board = new BoardState();
+        board.setupInitialPosition();
+        return board;
+    }
+}
@@ -0,0 +1,193 @@
+package ru.goman.checkers.tablebase;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import ru.goman.checkers.logic.BitboardPosition;
+import ru.goman.checkers.logic.Bitboards;
+import ru.goman.checkers.model.BoardState;
+import ru.goman.checkers.model.Player;
+
+import static org.junit.Assert.*;
+
+/**
+ * Нумерация позиций базы окончаний: decode/index взаимно обратны,
+ * пустые номера — только чёрные простые на нижней горизонтали,
+ * mirror() — та же позиция с другой стороны доски.
+ */
+public class TablebaseIndexTest {
+
+    private static final Material MEN_AND_KING = Material.of(1, 1, 1, 0);
+    private static final Material TWO_MEN_VS_MAN_AND_KING = Material.of(2, 0, 1, 1);
+    private static final Material KINGS_ONLY = Material.of(0, 2, 0, 1);
+
+    @Test
+    public void decodeThenIndex_roundTrips() {
+        assertRoundTrip(MEN_AND_KING);
+        assertRoundTrip(TWO_MEN_VS_MAN_AND_KING);
+        assertRoundTrip(KINGS_ONLY);
+    }
+
+    @Test
+    public void emptyIndices_areBlackMenOnBottomRow() {
+        TablebaseIndex index = new TablebaseIndex(MEN_AND_KING);
+        int[] masks = new int[3];
+        long empty = 0L;
+        for (long i = 0; i < index.size(); i++) {
+            if (!index.decode(i, masks)) {
+                empty++;
+            }
+        }
+        // белая простая на 4..31, чёрная простая на свободной клетке 28..31, белая дамка — на любой из 30
+        long whiteMenOnBottom = 4;
+        long expected = ((28 - whiteMenOnBottom) * 4 + whiteMenOnBottom * 3) * 30;
+        assertEquals(expected, empty);
+        assertEquals(28L * 31 * 30, index.size());
+    }
+
+    @Test
+    public void kingsOnly_hasNoEmptyIndices() {
+        TablebaseIndex index = new TablebaseIndex(KINGS_ONLY);
+        int[] masks = new int[3];
+        assertEquals(32L * 31 / 2 * 30, index.size());
+        for (long i = 0; i < index.size(); i++) {
+            assertTrue(index.decode(i, masks));
+        }
+    }
+
+    @Test
+    public void randomPositions_indexThenDecode() {
+        Random random = new Random(7);
+        int[] masks = new int[3];
+        for (Material material : Arrays.asList(MEN_AND_KING, TWO_MEN_VS_MAN_AND_KING, KINGS_ONLY)) {
+            TablebaseIndex index = new TablebaseIndex(material);
+            for (int n = 0; n < 2000; n++) {
+                int[] position = randomPosition(material, random);
+                long i = index.index(position[0], position[1], position[2]);
+                assertTrue(i >= 0 && i < index.size());
+                assertTrue(index.decode(i, masks));
+                assertArrayEquals(position, masks);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decode_outOfRange_throws() {
+        TablebaseIndex index = new TablebaseIndex(KINGS_ONLY);
+        index.decode(index.size(), new int[3]);
+    }
+
+    @Test
+    public void mirror_rotatesBoard() {
+        for (int row = 0; row < BoardState.BOARD_SIZE; row++) {
+            for (int col = (row + 1) % 2; col < BoardState.BOARD_SIZE; col += 2) {
+                int square = Bitboards.square(row, col);
+                int rotated = Bitboards.square(BoardState.BOARD_SIZE - 1 - row, BoardState.BOARD_SIZE - 1 - col);
+                assertEquals(1 << rotated, TablebaseIndex.mirror(1 << square));
+            }
+        }
+        assertEquals(Bitboards.ROW_BOTTOM, TablebaseIndex.mirror(Bitboards.ROW_TOP));
+    }
+
+    @Test
+    public void mirror_matchesSideSwappedBoard() {
+        int[] masks = new int[3];
+        long[] moves = new long[BitboardPosition.MAX_MOVES];
+        long[] mirroredMoves = new long[BitboardPosition.MAX_MOVES];
+        TablebaseIndex index = new TablebaseIndex(TWO_MEN_VS_MAN_AND_KING);
+        TablebaseIndex mirrorIndex = new TablebaseIndex(TWO_MEN_VS_MAN_AND_KING.mirror());
+        for (long i = 0; i < index.size(); i += 97) {
+            if (!index.decode(i, masks)) {
+                continue;
+            }
+            // та же расстановка, но ходят чёрные
+            int white = masks[0];
+            int black = masks[1];
+            int kings = masks[2];
+            int swappedWhite = TablebaseIndex.mirror(black);
+            int swappedBlack = TablebaseIndex.mirror(white);
+            int swappedKings = TablebaseIndex.mirror(kings);
+            assertEquals(TWO_MEN_VS_MAN_AND_KING.mirror(), Material.of(swappedWhite, swappedBlack, swappedKings));
+
+            // простые белых после поворота не выходят за клетки своей нумерации
+            long j = mirrorIndex.index(swappedWhite, swappedBlack, swappedKings);
+            int[] decoded = new int[3];
+            assertTrue(mirrorIndex.decode(j, decoded));
+            assertArrayEquals(new int[] {swappedWhite, swappedBlack, swappedKings}, decoded);
+
+            int count = new BitboardPosition(white, black, kings,
+                    Player.BLACK, Bitboards.NO_SQUARE, 0, true).generateMoves(moves);
+            int mirroredCount = new BitboardPosition(swappedWhite, swappedBlack, swappedKings,
+                    Player.WHITE, Bitboards.NO_SQUARE, 0, true).generateMoves(mirroredMoves);
+            assertEquals(count, mirroredCount);
+            assertArrayEquals(outcomes(moves, count, false), outcomes(mirroredMoves, mirroredCount, true));
+        }
+    }
+
+    // ----------------------------------------------------------------------
+    // Вспомогательные методы
+    // ----------------------------------------------------------------------
+
+    private static void assertRoundTrip(Material material) {
+        TablebaseIndex index = new TablebaseIndex(material);
+        int[] masks = new int[3];
+        for (long i = 0; i < index.size(); i++) {
+            if (!index.decode(i, masks)) {
+                continue;
+            }
+            int white = masks[0];
+            int black = masks[1];
+            int kings = masks[2];
+            assertEquals(0, white & black);
+            assertEquals(0, kings & ~(white | black));
+            assertEquals(0, white & ~kings & Bitboards.ROW_TOP);
+            assertEquals(0, black & ~kings & Bitboards.ROW_BOTTOM);
+            assertEquals(material, Material.of(white, black, kings));
+            assertEquals(i, index.index(white, black, kings));
+        }
+    }
+
+    /** Случайная расстановка материала: out[0] — белые, out[1] — чёрные, out[2] — дамки. */
+    private static int[] randomPosition(Material material, Random random) {
+        int occupied = 0;
+        int whiteMen = place(material.getWhiteMen(), occupied | Bitboards.ROW_TOP, random);
+        occupied |= whiteMen;
+        int blackMen = place(material.getBlackMen(), occupied | Bitboards.ROW_BOTTOM, random);
+        occupied |= blackMen;
+        int whiteKings = place(material.getWhiteKings(), occupied, random);
+        occupied |= whiteKings;
+        int blackKings = place(material.getBlackKings(), occupied, random);
+        return new int[] {whiteMen | whiteKings, blackMen | blackKings, whiteKings | blackKings};
+    }
+
+    private static int place(int count, int forbidden, Random random) {
+        int mask = 0;
+        while (Integer.bitCount(mask) < count) {
+            int bit = 1 << random.nextInt(Bitboards.SQUARES);
+            if (((forbidden | mask) & bit) == 0) {
+                mask |= bit;
+            }
+        }
+        return mask;
+    }
+
+    /** Откуда, куда и кого побили — отсортированно; для mirrored клетки поворачиваются обратно. */
+    private static long[] outcomes(long[] moves, int count, boolean mirrored) {
+        long[] result = new long[count];
+        for (int i = 0; i < count; i++) {
+            int from = Bitboards.pathFrom(moves[i]);
+            int to = Bitboards.pathTo(moves[i]);
+            int captured = Bitboards.pathCapturedMask(moves[i]);
+            if (mirrored) {
+                from = Bitboards.SQUARES - 1 - from;
+                to = Bitboards.SQUARES - 1 - to;
+                captured = TablebaseIndex.mirror(captured);
+            }
+            result[i] = ((long) from << 37) | ((long) to << 32) | (captured & 0xFFFFFFFFL);
+        }
+        Arrays.sort(result);
+        return result;
+    }
+}
@@ -0,0 +1,217 @@
+package ru.goman.checkers.tablebase;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+import ru.goman.checkers.model.Player;
+
+import static org.junit.Assert.*;
+
+/**
+ * Запись TablebaseFile и чтение через TablebaseProbe: все номера материала,
+ * несколько блоков с коротким последним, упаковка WLD по 4 позиции в байт
+ * и позиции с ходом чёрных (через mirror()).
+ */
+public class TablebaseProbeTest {
+
+    /** 26 040 номеров: DTW — 7 блоков, WLD — 2, последний в обоих короче BLOCK_BYTES. */
+    private static final Material MATERIAL = Material.of(1, 1, 1, 0);
+
+    private File directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("tablebase").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                assertTrue(file.delete());
+            }
+        }
+        assertTrue(directory.delete());
+    }
+
+    @Test
+    public void dtw_roundTripsEveryIndex() throws IOException {
+        byte[] values = randomValues(MATERIAL, 1);
+        write(MATERIAL, TablebaseFile.Kind.DTW, values);
+        // один блок в кэше: при обходе по порядку каждый блок распаковывается ровно раз
+        TablebaseProbe probe = TablebaseProbe.open(directory, 1);
+
+        assertEquals(MATERIAL.getPieceCount(), probe.getMaxPieces());
+        assertAllIndices(probe, values, false);
+        assertEquals(7L, probe.getCacheMisses());
+    }
+
+    @Test
+    public void wld_roundTripsEveryIndex() throws IOException {
+        byte[] values = randomValues(MATERIAL, 2);
+        write(MATERIAL, TablebaseFile.Kind.WLD, values);
+        TablebaseProbe probe = TablebaseProbe.open(directory);
+
+        assertAllIndices(probe, values, true);
+    }
+
+    @Test
+    public void dtwPreferredOverWld() throws IOException {
+        byte[] values = randomValues(MATERIAL, 3);
+        write(MATERIAL, TablebaseFile.Kind.WLD, new byte[values.length]);
+        write(MATERIAL, TablebaseFile.Kind.DTW, values);
+        TablebaseProbe probe = TablebaseProbe.open(directory);
+
+        assertAllIndices(probe, values, false);
+    }
+
+    @Test
+    public void memo_servesRepeatedBlockWithoutSharedCache() throws IOException {
+        byte[] values = randomValues(MATERIAL, 5);
+        write(MATERIAL, TablebaseFile.Kind.DTW, values);
+        TablebaseProbe probe = TablebaseProbe.open(directory);
+        TablebaseProbe.BlockMemo memo = new TablebaseProbe.BlockMemo();
+
+        TablebaseIndex index = new TablebaseIndex(MATERIAL);
+        int[] masks = new int[3];
+        for (int i = 0; i < values.length; i++) {
+            if (index.decode(i, masks)) {
+                assertEquals("index " + i, values[i] & 0xFF,
+                        probe.probe(masks[0], masks[1], masks[2], Player.WHITE, memo));
+            }
+        }
+        // по порядку номеров общий кэш нужен только при переходе в новый блок
+        assertEquals(7L, probe.getCacheMisses());
+        assertEquals(0L, probe.getCacheHits());
+    }
+
+    @Test
+    public void concurrentProbes_shareOneBlockCache() throws Exception {
+        byte[] values = randomValues(MATERIAL, 6);
+        write(MATERIAL, TablebaseFile.Kind.DTW, values);
+        TablebaseProbe probe = TablebaseProbe.open(directory, 1);
+
+        Thread[] threads = new Thread[4];
+        Throwable[] failure = new Throwable[1];
+        for (int t = 0; t < threads.length; t++) {
+            int offset = t * 1009;
+            threads[t] = new Thread(() -> {
+                try {
+                    TablebaseIndex index = new TablebaseIndex(MATERIAL);
+                    int[] masks = new int[3];
+                    for (int n = 0; n < values.length; n++) {
+                        // шаг 4099 перескакивает через блоки, потоки вытесняют друг у друга ячейку
+                        int i = (int) ((offset + 4099L * n) % values.length);
+                        if (index.decode(i, masks)) {
+                            assertEquals(values[i] & 0xFF, probe.probe(masks[0], masks[1], masks[2], Player.WHITE));
+                        }
+                    }
+                } catch (Throwable e) {
+                    synchronized (failure) {
+                        failure[0] = e;
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull(failure[0]);
+    }
+
+    @Test
+    public void missingMaterial_isUnknown() throws IOException {
+        write(MATERIAL, TablebaseFile.Kind.DTW, randomValues(MATERIAL, 4));
+        TablebaseProbe probe = TablebaseProbe.open(directory);
+
+        // 1 простая против 1 дамки: три фигуры не набираются, материала нет
+        int white = 1 << 20;
+        int black = 1 << 3;
+        assertEquals(TablebaseProbe.UNKNOWN, probe.probe(white, black, black, Player.WHITE));
+        assertEquals(TablebaseProbe.UNKNOWN, probe.probeWld(white, black, black, Player.BLACK));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void write_wrongLength_throws() throws IOException {
+        write(MATERIAL, TablebaseFile.Kind.DTW, new byte[10]);
+    }
+
+    @Test(expected = IOException.class)
+    public void open_corruptHeader_throws() throws IOException {
+        File file = new File(directory, TablebaseFile.fileName(MATERIAL, TablebaseFile.Kind.DTW));
+        Files.write(file.toPath(), new byte[TablebaseFile.HEADER_BYTES]);
+        TablebaseProbe.open(directory);
+    }
+
+    // ----------------------------------------------------------------------
+    // Вспомогательные методы
+    // ----------------------------------------------------------------------
+
+    /**
+     * Каждый номер — с ходом белых и та же позиция, повёрнутая со сменой
+     * цветов, с ходом чёрных: в обоих случаях ответ из той же записи.
+     */
+    private static void assertAllIndices(TablebaseProbe probe, byte[] values, boolean wldOnly) {
+        TablebaseIndex index = new TablebaseIndex(MATERIAL);
+        int[] masks = new int[3];
+        for (int i = 0; i < values.length; i++) {
+            if (!index.decode(i, masks)) {
+                continue;
+            }
+            int value = values[i] & 0xFF;
+            int white = masks[0];
+            int black = masks[1];
+            int kings = masks[2];
+            int swappedWhite = TablebaseIndex.mirror(black);
+            int swappedBlack = TablebaseIndex.mirror(white);
+            int swappedKings = TablebaseIndex.mirror(kings);
+            String message = "index " + i;
+
+            assertEquals(message, TablebaseValue.toWld(value),
+                    probe.probeWld(white, black, kings, Player.WHITE));
+            assertEquals(message, TablebaseValue.toWld(value),
+                    probe.probeWld(swappedWhite, swappedBlack, swappedKings, Player.BLACK));
+            int expected = wldOnly ? TablebaseProbe.UNKNOWN : value;
+            assertEquals(message, expected, probe.probe(white, black, kings, Player.WHITE));
+            assertEquals(message, expected, probe.probe(swappedWhite, swappedBlack, swappedKings, Player.BLACK));
+        }
+    }
+
+    /** Случайные допустимые значения TablebaseValue (пустые номера — ничья). */
+    private static byte[] randomValues(Material material, long seed) {
+        TablebaseIndex index = new TablebaseIndex(material);
+        Random random = new Random(seed);
+        byte[] values = new byte[(int) index.size()];
+        int[] masks = new int[3];
+        for (int i = 0; i < values.length; i++) {
+            if (!index.decode(i, masks)) {
+                continue;
+            }
+            int plies = random.nextInt(TablebaseValue.MAX_PLIES / 2) * 2;
+            switch (random.nextInt(3)) {
+                case 0:
+                    values[i] = (byte) TablebaseValue.win(plies + 1);
+                    break;
+                case 1:
+                    values[i] = (byte) TablebaseValue.loss(plies);
+                    break;
+                default:
+                    values[i] = TablebaseValue.DRAW;
+                    break;
+            }
+        }
+        return values;
+    }
+
+    private void write(Material material, TablebaseFile.Kind kind, byte[] values) throws IOException {
+        TablebaseFile.write(new File(directory, TablebaseFile.fileName(material, kind)), material, kind, values);
+    }
+}
@@ -0,0 +1,70 @@
+package ru.goman.checkers.logic;
+
+import androidx.annotation.NonNull;
+
+import ru.goman.checkers.model.BoardState;
+import ru.goman.checkers.model.Player;
+
+/**
+ * Позиции для тестов и замеров в текстовом виде.
+ * Доска — восемь строк сверху вниз через '/': '.' пусто,
+ * 'w'/'W' белая шашка/дамка, 'b'/'B' чёрная шашка/дамка.
+ */
+public final class TestBoards {
+
+    /** Дамки с обеих сторон вперемешку с шашками. */
+    public static final String MIXED_KINGS =
+            ".B.B..../......../...b.b../....W.../.b.b..../W......./.......w/..W.....";
+
+    /** Чёрная дамка против шести шашек: длинные цепочки с турецким ударом. */
+    public static final String KING_CHAINS =
+            ".......B/......../.w.w.w../......../.w.w.w../......../......../........";
+
+    private static final String PIECE_CODES = ".wWbB";
+
+    private TestBoards() {
+    }
+
+    /**
+     * Доска из восьми строк.
+     *
+     * @throws IllegalArgumentException если строк или клеток не восемь
+     *                                  или встретился неизвестный символ
+     */
+    @NonNull
+    public static BoardState board(@NonNull String rows) {
+        String[] lines = rows.split("/");
+        if (lines.length != BoardState.BOARD_SIZE) {
+            throw new IllegalArgumentException("Expected " + BoardState.BOARD_SIZE
+                    + " rows, got " + lines.length + ": " + rows);
+        }
+        BoardState board = new BoardState();
+        for (int r = 0; r < BoardState.BOARD_SIZE; r++) {
+            if (lines[r].length() != BoardState.BOARD_SIZE) {
+                throw new IllegalArgumentException("Bad row " + r + ": " + lines[r]);
+            }
+            for (int c = 0; c < BoardState.BOARD_SIZE; c++) {
+                int code = PIECE_CODES.indexOf(lines[r].charAt(c));
+                if (code < 0) {
+                    throw new IllegalArgumentException("Bad square '" + lines[r].charAt(c)
+                            + "' in row " + r + ": " + lines[r]);
+                }
+                board.setCode(r, c, code);
+            }
+        }
+        return board;
+    }
+
+    /** Партия из этой доски с обязательным взятием. */
+    @NonNull
+    public static GameLogic logic(@NonNull String rows, @NonNull Player sideToMove) {
+        return logic(rows, sideToMove, true);
+    }
+
+    @NonNull
+    public static GameLogic logic(@NonNull String rows,
+                                  @NonNull Player sideToMove,
+                                  boolean mustCapture) {
+        return new GameLogic(board(rows), sideToMove, mustCapture);
+    }
+}
@@ -21,4 +21,7 @@ dependencyResolutionManagement {
 
 rootProject.name = "Checkers"
 include(":app")
+include(":core")
+include(":tools")
+include(":benchmarks")
  
\ No newline at end of file
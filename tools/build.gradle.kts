@@ -0,0 +1,32 @@
+plugins {
+    application
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    implementation(project(":core"))
+    testImplementation(libs.junit)
+    testImplementation(testFixtures(project(":core")))
+}
+
+tasks.withType<JavaCompile>().configureEach {
+    options.encoding = "UTF-8"
+}
+
+// ./gradlew :tools:run --args="EXPERT HARD --games 200"
+application {
+    mainClass.set("ru.goman.checkers.tools.Tournament")
+}
+
+// ./gradlew :tools:tablebase --args="--pieces 5 --out tablebase"
+tasks.register<JavaExec>("tablebase") {
+    group = "application"
+    description = "Generates the endgame tablebase."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("ru.goman.checkers.tools.TablebaseGenerator")
+    maxHeapSize = "6g"
+}
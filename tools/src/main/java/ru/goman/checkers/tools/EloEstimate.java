@@ -0,0 +1,88 @@
+package ru.goman.checkers.tools;
+
+import androidx.annotation.NonNull;
+
+import java.util.Locale;
+
+/**
+ * Разница в силе по счёту матча в пунктах Эло и её 95% доверительный интервал.
+ * Считается по доле набранных очков s = (W + D/2) / N:
+ * Elo = -400 * log10(1/s - 1). Интервал — s ± 1.96 * σ/√N, где σ —
+ * разброс очков за партию (1, 1/2, 0), пересчитанный той же формулой.
+ * При счёте 100% или 0% разница бесконечна.
+ */
+final class EloEstimate {
+
+    private static final double Z_95 = 1.959964;
+
+    private final double elo;
+    private final double lower;
+    private final double upper;
+
+    private EloEstimate(double elo, double lower, double upper) {
+        this.elo = elo;
+        this.lower = lower;
+        this.upper = upper;
+    }
+
+    @NonNull
+    static EloEstimate of(int wins, int draws, int losses) {
+        int games = wins + draws + losses;
+        if (games == 0) {
+            return new EloEstimate(0.0, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+        }
+        double score = (wins + 0.5 * draws) / games;
+        double variance = (wins * sq(1.0 - score)
+                + draws * sq(0.5 - score)
+                + losses * sq(score)) / games;
+        double margin = Z_95 * Math.sqrt(variance / games);
+        return new EloEstimate(toElo(score), toElo(score - margin), toElo(score + margin));
+    }
+
+    private static double sq(double x) {
+        return x * x;
+    }
+
+    private static double toElo(double score) {
+        if (score <= 0.0) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        if (score >= 1.0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return -400.0 * Math.log10(1.0 / score - 1.0);
+    }
+
+    double getElo() {
+        return elo;
+    }
+
+    double getLower() {
+        return lower;
+    }
+
+    double getUpper() {
+        return upper;
+    }
+
+    /** Например "+35.2 ± 20.1" или "+inf" при разгромном счёте. */
+    @NonNull
+    @Override
+    public String toString() {
+        if (Double.isInfinite(elo)) {
+            return elo > 0 ? "+inf" : "-inf";
+        }
+        if (Double.isInfinite(lower) || Double.isInfinite(upper)) {
+            return String.format(Locale.US, "%+.1f [%s, %s]", elo, format(lower), format(upper));
+        }
+        return String.format(Locale.US, "%+.1f ± %.1f", elo, (upper - lower) / 2.0);
+    }
+
+    @NonNull
+    private static String format(double value) {
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+inf" : "-inf";
+        }
+        return String.format(Locale.US, "%+.1f", value);
+    }
+}
@@ -0,0 +1,131 @@
+package ru.goman.checkers.tools;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Locale;
+
+import ru.goman.checkers.engine.AiDifficulty;
+import ru.goman.checkers.engine.SimpleAiStrategy;
+import ru.goman.checkers.engine.TranspositionTable;
+import ru.goman.checkers.tablebase.TablebaseProbe;
+
+/**
+ * Настройка одного участника турнира: уровень сложности, число потоков
+ * поиска, размер таблицы транспозиций и база окончаний.
+ * Строковая форма: LEVEL[:threads=N][:tt=BITS][:tb=DIR], например "EXPERT:tt=18";
+ * BITS — log2 числа записей таблицы, от 1 до 26.
+ * По умолчанию один поток: партии и так идут параллельно на всех ядрах.
+ * База открывается один раз при разборе и общая для всех партий.
+ */
+final class EngineConfig {
+
+    private static final int DEFAULT_THREADS = 1;
+    private static final int DEFAULT_TT_SIZE_BITS = 16;
+
+    @NonNull
+    private final String spec;
+    @NonNull
+    private final AiDifficulty difficulty;
+    private final int searchThreads;
+    private final int ttSizeBits;
+    @Nullable
+    private final TablebaseProbe tablebase;
+
+    private EngineConfig(@NonNull String spec,
+                         @NonNull AiDifficulty difficulty,
+                         int searchThreads,
+                         int ttSizeBits,
+                         @Nullable TablebaseProbe tablebase) {
+        this.spec = spec;
+        this.difficulty = difficulty;
+        this.searchThreads = searchThreads;
+        this.ttSizeBits = ttSizeBits;
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * @throws IllegalArgumentException если строка не разбирается
+     */
+    @NonNull
+    static EngineConfig parse(@NonNull String spec) {
+        String[] parts = spec.split(":");
+        AiDifficulty difficulty;
+        try {
+            difficulty = AiDifficulty.valueOf(parts[0].toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown difficulty in engine spec: " + spec, e);
+        }
+        int threads = DEFAULT_THREADS;
+        int ttBits = DEFAULT_TT_SIZE_BITS;
+        TablebaseProbe tablebase = null;
+        for (int i = 1; i < parts.length; i++) {
+            String[] option = parts[i].split("=", 2);
+            if (option.length != 2) {
+                throw new IllegalArgumentException("Bad engine option '" + parts[i] + "' in " + spec);
+            }
+            switch (option[0]) {
+                case "threads":
+                    threads = parsePositive(option[1], spec);
+                    break;
+                case "tt":
+                    ttBits = parsePositive(option[1], spec);
+                    if (ttBits < TranspositionTable.MIN_SIZE_BITS || ttBits > TranspositionTable.MAX_SIZE_BITS) {
+                        throw new IllegalArgumentException("tt must be in " + TranspositionTable.MIN_SIZE_BITS
+                                + ".." + TranspositionTable.MAX_SIZE_BITS + ", got " + ttBits + " in " + spec);
+                    }
+                    break;
+                case "tb":
+                    tablebase = openTablebase(option[1], spec);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown engine option '" + option[0] + "' in " + spec);
+            }
+        }
+        return new EngineConfig(spec, difficulty, threads, ttBits, tablebase);
+    }
+
+    @NonNull
+    private static TablebaseProbe openTablebase(@NonNull String directory, @NonNull String spec) {
+        try {
+            return TablebaseProbe.open(new File(directory));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot open tablebase '" + directory + "' in " + spec
+                    + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static int parsePositive(@NonNull String text, @NonNull String spec) {
+        try {
+            int value = Integer.parseInt(text);
+            if (value > 0) {
+                return value;
+            }
+        } catch (NumberFormatException ignored) {
+            // ниже — общее сообщение
+        }
+        throw new IllegalArgumentException("Expected a positive number, got '" + text + "' in " + spec);
+    }
+
+    /** Новый движок для одной партии: своя таблица транспозиций, без общего состояния. */
+    @NonNull
+    SimpleAiStrategy newStrategy() {
+        SimpleAiStrategy strategy = new SimpleAiStrategy(new TranspositionTable(ttSizeBits,
+                TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED), searchThreads);
+        strategy.setTablebase(tablebase);
+        return strategy;
+    }
+
+    @NonNull
+    AiDifficulty getDifficulty() {
+        return difficulty;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return spec;
+    }
+}
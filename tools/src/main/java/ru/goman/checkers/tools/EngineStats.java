@@ -0,0 +1,35 @@
+package ru.goman.checkers.tools;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Счётчики одного движка: за партию или суммарно за турнир.
+ * Не потокобезопасен — каждая партия ведёт свои, складываются они
+ * уже в главном потоке.
+ */
+final class EngineStats {
+
+    /** Полных ходов (цепочка взятий — один ход). */
+    long moves;
+    /** Время раздумья над всеми ходами, нс. */
+    long thinkNanos;
+    /** Узлы поиска по SearchStats (уровни без минимакса их не считают). */
+    long nodes;
+    /** Время тех поисков, по которым есть узлы, — для узлов в секунду. */
+    long searchNanos;
+
+    void add(@NonNull EngineStats other) {
+        moves += other.moves;
+        thinkNanos += other.thinkNanos;
+        nodes += other.nodes;
+        searchNanos += other.searchNanos;
+    }
+
+    double getAverageMoveMs() {
+        return moves == 0 ? 0.0 : thinkNanos / 1_000_000.0 / moves;
+    }
+
+    long getNodesPerSecond() {
+        return searchNanos == 0 ? 0L : (long) (nodes * 1_000_000_000.0 / searchNanos);
+    }
+}
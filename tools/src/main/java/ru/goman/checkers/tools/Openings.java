@@ -0,0 +1,53 @@
+package ru.goman.checkers.tools;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import ru.goman.checkers.logic.GameLogic;
+import ru.goman.checkers.logic.Position;
+import ru.goman.checkers.model.Move;
+import ru.goman.checkers.model.Player;
+
+/**
+ * Дебюты для турнира: все различные позиции после первых plies полных ходов
+ * из начальной расстановки (2 — 49 позиций, 3 — около трёхсот).
+ * Так движки без случайности играют разные партии, а каждый дебют
+ * разыгрывается дважды со сменой цветов, чтобы перекосы позиций
+ * взаимно гасились.
+ */
+final class Openings {
+
+    private Openings() {
+    }
+
+    @NonNull
+    static List<Position> generate(int plies) {
+        if (plies < 0) {
+            throw new IllegalArgumentException("plies must be >= 0, got " + plies);
+        }
+        Set<Position> out = new LinkedHashSet<>();
+        expand(GameLogic.newGame(Player.WHITE, true), plies, out);
+        return new ArrayList<>(out);
+    }
+
+    private static void expand(@NonNull GameLogic logic, int plies, @NonNull Set<Position> out) {
+        if (plies == 0) {
+            out.add(Position.fromGameLogic(logic));
+            return;
+        }
+        for (Move move : logic.getAllMovesForCurrentPlayer()) {
+            GameLogic.GameSnapshot snapshot = logic.createSnapshot();
+            GameLogic.MoveResult result = logic.applyTrustedMove(move);
+            if (result.isCaptureChainContinues()) {
+                expand(logic, plies, out);
+            } else if (!result.isGameOver()) {
+                expand(logic, plies - 1, out);
+            }
+            logic.restoreFromSnapshot(snapshot);
+        }
+    }
+}
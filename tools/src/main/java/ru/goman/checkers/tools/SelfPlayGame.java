@@ -0,0 +1,152 @@
+package ru.goman.checkers.tools;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import ru.goman.checkers.engine.SearchStats;
+import ru.goman.checkers.engine.SimpleAiStrategy;
+import ru.goman.checkers.logic.GameLogic;
+import ru.goman.checkers.logic.Position;
+import ru.goman.checkers.model.Move;
+import ru.goman.checkers.model.Player;
+
+/**
+ * Одна партия движок против движка без UI.
+ * Ничья засчитывается:
+ *  - при троекратном повторении позиции;
+ *  - если 15 ходов подряд (30 полуходов) обе стороны ходили только дамками
+ *    и без взятий;
+ *  - по достижении предела полуходов (страховка от бесконечных партий).
+ */
+final class SelfPlayGame {
+
+    enum Outcome {
+        WHITE_WINS,
+        BLACK_WINS,
+        DRAW
+    }
+
+    /**
+     * Итог партии и счётчики обоих движков.
+     */
+    static final class Result {
+
+        @NonNull
+        final Outcome outcome;
+        final int plies;
+        @NonNull
+        final EngineStats white;
+        @NonNull
+        final EngineStats black;
+
+        Result(@NonNull Outcome outcome, int plies, @NonNull EngineStats white, @NonNull EngineStats black) {
+            this.outcome = outcome;
+            this.plies = plies;
+            this.white = white;
+            this.black = black;
+        }
+    }
+
+    private static final int REPETITIONS_FOR_DRAW = 3;
+    private static final int KING_ONLY_PLIES_FOR_DRAW = 30;
+
+    private SelfPlayGame() {
+    }
+
+    /**
+     * @param opening  стартовая позиция
+     * @param maxPlies предел полуходов, после которого партия — ничья
+     */
+    @NonNull
+    static Result play(@NonNull Position opening,
+                       @NonNull EngineConfig whiteConfig,
+                       @NonNull EngineConfig blackConfig,
+                       int maxPlies) {
+        GameLogic logic = opening.toGameLogic();
+        SimpleAiStrategy whiteEngine = whiteConfig.newStrategy();
+        SimpleAiStrategy blackEngine = blackConfig.newStrategy();
+        EngineStats whiteStats = new EngineStats();
+        EngineStats blackStats = new EngineStats();
+        SearchStats[] lastSearch = new SearchStats[2];
+
+        Map<Long, Integer> seen = new HashMap<>();
+        int plies = 0;
+        int kingOnlyPlies = 0;
+        boolean reversible = true;
+        try {
+            while (plies < maxPlies) {
+                Player side = logic.getCurrentPlayer();
+                boolean white = side == Player.WHITE;
+                SimpleAiStrategy engine = white ? whiteEngine : blackEngine;
+                EngineConfig config = white ? whiteConfig : blackConfig;
+                EngineStats stats = white ? whiteStats : blackStats;
+
+                long start = System.nanoTime();
+                Move move = engine.chooseMove(logic, side, config.getDifficulty());
+                long elapsed = System.nanoTime() - start;
+                stats.thinkNanos += elapsed;
+
+                // Прыжки цепочки после первого идут по плану первого поиска
+                // (SimpleAiStrategy.plannedMove), и в движке остаётся та же SearchStats.
+                // Узлы и время поиска берём один раз на каждый новый поиск, а время
+                // всех вызовов, составивших ход, уже лежит в thinkNanos.
+                SearchStats search = engine.getLastSearchStats();
+                int sideIndex = white ? 0 : 1;
+                if (search != null && search != lastSearch[sideIndex]) {
+                    lastSearch[sideIndex] = search;
+                    stats.nodes += search.getTotalNodes();
+                    stats.searchNanos += elapsed;
+                }
+
+                if (move == null) {
+                    // ходов нет: обычно это ловится ещё после хода соперника (isGameOver)
+                    return new Result(winnerIs(side.opposite()), plies, whiteStats, blackStats);
+                }
+
+                if (move.isCapture()
+                        || !logic.getBoard().getPiece(move.getFromRow(), move.getFromCol()).isKing()) {
+                    reversible = false;
+                }
+                GameLogic.MoveResult result = logic.applyMove(move);
+                if (result.isCaptureChainContinues()) {
+                    continue;
+                }
+
+                stats.moves++;
+                plies++;
+                if (result.isGameOver()) {
+                    return new Result(winnerIs(result.getWinner()), plies, whiteStats, blackStats);
+                }
+
+                if (reversible) {
+                    kingOnlyPlies++;
+                } else {
+                    // после взятия или хода шашкой прежние позиции уже не повторятся
+                    kingOnlyPlies = 0;
+                    seen.clear();
+                }
+                reversible = true;
+
+                int count = seen.merge(Position.fromGameLogic(logic).getKey(), 1, Integer::sum);
+                if (count >= REPETITIONS_FOR_DRAW || kingOnlyPlies >= KING_ONLY_PLIES_FOR_DRAW) {
+                    break;
+                }
+            }
+            return new Result(Outcome.DRAW, plies, whiteStats, blackStats);
+        } finally {
+            whiteEngine.shutdown();
+            blackEngine.shutdown();
+        }
+    }
+
+    @NonNull
+    private static Outcome winnerIs(@Nullable Player winner) {
+        if (winner == null) {
+            return Outcome.DRAW;
+        }
+        return winner == Player.WHITE ? Outcome.WHITE_WINS : Outcome.BLACK_WINS;
+    }
+}
@@ -0,0 +1,533 @@
+package ru.goman.checkers.tools;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import ru.goman.checkers.logic.BitboardPosition;
+import ru.goman.checkers.logic.Bitboards;
+import ru.goman.checkers.model.Player;
+import ru.goman.checkers.tablebase.Material;
+import ru.goman.checkers.tablebase.TablebaseFile;
+import ru.goman.checkers.tablebase.TablebaseIndex;
+import ru.goman.checkers.tablebase.TablebaseValue;
+
+/**
+ * Генератор базы окончаний (русские шашки, обязательное взятие)
+ * для всех позиций не больше чем с N фигурами.
+ *
+ * Материалы считаются по порядку Material.upTo(): взятие уменьшает число
+ * фигур, превращение — число простых, так что к моменту расчёта материала
+ * всё, куда из него ведут взятия и превращения, уже решено. Тихие ходы
+ * переводят материал S в его зеркальный (ход переходит к чёрным, позиция
+ * поворачивается — см. TablebaseIndex), поэтому S и S.mirror() считаются вместе:
+ *  1. прямой проход (параллельно, кусками индекса): ходы каждой позиции;
+ *     ходы в уже решённые материалы дают готовые значения, тихие ходы
+ *     внутри пары считаются как неизвестные;
+ *  2. ретроградный проход по длине партии: позиции снимаются из очередей
+ *     в порядке возрастания числа полуходов, для каждой перебираются
+ *     предшественники внутри пары (ход назад тихой фигурой): проигрыш
+ *     даёт им выигрыш на полуход длиннее, выигрыш снимает один неизвестный
+ *     ход, и когда их не осталось — позиция проиграна;
+ *  3. что не решилось — ничья.
+ * Каждый материал записывается в два файла TablebaseFile: WLD и DTW.
+ *
+ * Запуск: ./gradlew :tools:tablebase --args="--pieces 5 --out tablebase"
+ */
+public final class TablebaseGenerator {
+
+    private static final String USAGE = String.join("\n",
+            "Usage: TablebaseGenerator [options]",
+            "  --pieces N   largest number of pieces on the board (2..8), default 4",
+            "  --out DIR    output directory, default tablebase",
+            "  --threads N  worker threads, default: all cores");
+
+    private static final int MAX_PIECES = 8;
+
+    /** Номеров в одной задаче прямого прохода. */
+    private static final int CHUNK = 1 << 16;
+
+    /** Значение в рабочем массиве, пока позиция не решена (в базе такого байта нет). */
+    private static final byte UNRESOLVED = (byte) 0xFF;
+
+    /** pending: у позиции есть тихие ходы внутри пары (значит, нет взятий). */
+    private static final int HAS_QUIET_MOVES = 0x80;
+    /** longestWin: есть ход не в проигрыш — проиграть позиция уже не может. */
+    private static final int CANNOT_LOSE = 0x80;
+    private static final int LOW_BITS = 0x7F;
+
+    private static final long LOSS_FLAG = 1L << 33;
+    private static final int SLICE_SHIFT = 32;
+
+    private int maxPieces = 4;
+    @NonNull
+    private File outDir = new File("tablebase");
+    private int threads = Runtime.getRuntime().availableProcessors();
+    /** Куда печатать ход генерации (null — молча). */
+    @Nullable
+    private PrintStream log = System.out;
+
+    /** Решённые материалы: значения TablebaseValue по номерам индекса. */
+    private final Map<Material, Slice> solved = new HashMap<>();
+
+    private TablebaseGenerator() {
+    }
+
+    /** Генератор без разбора аргументов (для тестов). */
+    TablebaseGenerator(int maxPieces, @NonNull File outDir, int threads, @Nullable PrintStream log) {
+        this.maxPieces = maxPieces;
+        this.outDir = outDir;
+        this.threads = threads;
+        this.log = log;
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        TablebaseGenerator generator = new TablebaseGenerator();
+        try {
+            generator.parseOptions(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        generator.run();
+    }
+
+    private void parseOptions(@NonNull String[] args) {
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + args[i]);
+            }
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--pieces":
+                    maxPieces = parseInt(args[i], value);
+                    if (maxPieces < 2 || maxPieces > MAX_PIECES) {
+                        throw new IllegalArgumentException(
+                                "--pieces must be in 2.." + MAX_PIECES + ", got " + maxPieces);
+                    }
+                    break;
+                case "--out":
+                    outDir = new File(value);
+                    break;
+                case "--threads":
+                    threads = parseInt(args[i], value);
+                    if (threads <= 0) {
+                        throw new IllegalArgumentException("--threads must be > 0, got " + threads);
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+    }
+
+    private static int parseInt(@NonNull String option, @NonNull String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad number for " + option + ": " + value);
+        }
+    }
+
+    void run() throws InterruptedException, IOException {
+        if (!outDir.isDirectory() && !outDir.mkdirs()) {
+            throw new IOException("Cannot create " + outDir);
+        }
+        if (log != null) {
+            log.printf(Locale.US, "Tablebase up to %d pieces -> %s, %d threads%n",
+                    maxPieces, outDir, threads);
+        }
+        long start = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (Material material : Material.upTo(maxPieces)) {
+                if (solved.containsKey(material)) {
+                    continue;
+                }
+                Material mirror = material.mirror();
+                List<Slice> pair = new ArrayList<>();
+                pair.add(new Slice(material));
+                if (!mirror.equals(material)) {
+                    pair.add(new Slice(mirror));
+                }
+                long pairStart = System.nanoTime();
+                solvePair(pair, executor);
+                for (Slice slice : pair) {
+                    solved.put(slice.material, slice);
+                }
+                write(pair, executor);
+                if (log != null) {
+                    for (Slice slice : pair) {
+                        slice.print(log, System.nanoTime() - pairStart);
+                    }
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Generation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        if (log != null) {
+            log.printf(Locale.US, "Done in %.1f s%n", (System.nanoTime() - start) / 1e9);
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Расчёт пары материалов
+    // ------------------------------------------------------------------
+
+    private void solvePair(@NonNull List<Slice> pair, @NonNull ExecutorService executor)
+            throws InterruptedException, ExecutionException {
+        List<Callable<Buckets>> tasks = new ArrayList<>();
+        for (int s = 0; s < pair.size(); s++) {
+            int sliceId = s;
+            int size = pair.get(s).size;
+            for (int from = 0; from < size; from += CHUNK) {
+                int chunkStart = from;
+                int chunkEnd = Math.min(size, from + CHUNK);
+                tasks.add(() -> scan(pair, sliceId, chunkStart, chunkEnd));
+            }
+        }
+        Buckets buckets = new Buckets();
+        for (Future<Buckets> future : executor.invokeAll(tasks)) {
+            buckets.addAll(future.get());
+        }
+
+        int[] masks = new int[3];
+        for (int plies = 0; plies <= TablebaseValue.MAX_PLIES; plies++) {
+            LongList entries = buckets.get(plies);
+            // очередь может расти во время обхода только на следующих длинах
+            for (int i = 0; entries != null && i < entries.size; i++) {
+                long entry = entries.items[i];
+                int sliceId = (int) (entry >>> SLICE_SHIFT) & 1;
+                Slice slice = pair.get(sliceId);
+                int index = (int) entry;
+                if (slice.values[index] != UNRESOLVED) {
+                    continue;
+                }
+                boolean loss = (entry & LOSS_FLAG) != 0;
+                slice.values[index] = (byte) (loss ? TablebaseValue.loss(plies) : TablebaseValue.win(plies));
+                slice.index.decode(index, masks);
+                // Позиция записана с ходом белых; в настоящей позиции после хода
+                // предшественника ходят чёрные, а только что ходили белые.
+                int mover = TablebaseIndex.mirror(masks[1]);
+                int opponent = TablebaseIndex.mirror(masks[0]);
+                int kings = TablebaseIndex.mirror(masks[2]);
+                int parentId = pair.size() == 1 ? 0 : 1 - sliceId;
+                retract(pair.get(parentId), parentId, mover, opponent, kings, loss, plies, buckets);
+            }
+        }
+
+        for (Slice slice : pair) {
+            for (int i = 0; i < slice.size; i++) {
+                if (slice.values[i] == UNRESOLVED) {
+                    slice.values[i] = TablebaseValue.DRAW;
+                }
+            }
+        }
+    }
+
+    /**
+     * Прямой проход по номерам from..to-1 одного материала пары.
+     * Каждый номер принадлежит одной задаче, поэтому массивы среза
+     * пишутся без синхронизации; очереди у каждой задачи свои.
+     */
+    @NonNull
+    private Buckets scan(@NonNull List<Slice> pair, int sliceId, int from, int to) {
+        Slice slice = pair.get(sliceId);
+        int mirrorId = pair.size() == 1 ? 0 : 1 - sliceId;
+        Buckets buckets = new Buckets();
+        int[] masks = new int[3];
+        long[] moves = new long[BitboardPosition.MAX_MOVES];
+        for (int index = from; index < to; index++) {
+            if (!slice.index.decode(index, masks)) {
+                slice.values[index] = TablebaseValue.DRAW;
+                continue;
+            }
+            BitboardPosition position = new BitboardPosition(masks[0], masks[1], masks[2],
+                    Player.WHITE, Bitboards.NO_SQUARE, 0, true);
+            int count = position.generateMoves(moves);
+
+            int bestWin = Integer.MAX_VALUE;
+            int longestWinHalf = 0;
+            boolean cannotLose = false;
+            int unknown = 0;
+            for (int i = 0; i < count; i++) {
+                long move = moves[i];
+                if (!Bitboards.pathIsCapture(move) && !Bitboards.pathPromotes(move)) {
+                    unknown++;
+                    continue;
+                }
+                long undo = position.makeMove(move);
+                int child = childValue(position);
+                position.unmakeMove(move, undo);
+                if (TablebaseValue.isLoss(child)) {
+                    bestWin = Math.min(bestWin, TablebaseValue.plies(child) + 1);
+                } else if (TablebaseValue.isWin(child)) {
+                    longestWinHalf = Math.max(longestWinHalf, TablebaseValue.plies(child) / 2);
+                } else {
+                    cannotLose = true;
+                }
+            }
+            if (unknown > LOW_BITS) {
+                throw new IllegalStateException("Too many quiet moves: " + unknown);
+            }
+
+            if (bestWin != Integer.MAX_VALUE) {
+                // внутри пары может найтись выигрыш короче — очередь это учтёт
+                buckets.add(bestWin, entry(sliceId, index, false));
+                cannotLose = true;
+            } else if (unknown == 0) {
+                if (cannotLose) {
+                    slice.values[index] = TablebaseValue.DRAW;
+                } else {
+                    // ходов нет совсем (длина 0) или все ведут к выигрышу соперника
+                    buckets.add(count == 0 ? 0 : longestWinHalf * 2 + 2, entry(sliceId, index, true));
+                }
+            }
+            if (unknown > 0) {
+                slice.pending[index] = (byte) (HAS_QUIET_MOVES | unknown);
+                slice.longestWin[index] = (byte) (longestWinHalf | (cannotLose ? CANNOT_LOSE : 0));
+            }
+        }
+        return buckets;
+    }
+
+    /**
+     * Значение позиции после взятия или превращения (ходят чёрные) —
+     * из уже решённого материала.
+     */
+    private int childValue(@NonNull BitboardPosition position) {
+        int white = TablebaseIndex.mirror(position.getBlack());
+        int black = TablebaseIndex.mirror(position.getWhite());
+        int kings = TablebaseIndex.mirror(position.getKings());
+        if (white == 0) {
+            // фигур не осталось — ходить нечем
+            return TablebaseValue.loss(0);
+        }
+        Slice slice = solved.get(Material.of(white, black, kings));
+        if (slice == null) {
+            throw new IllegalStateException("Material not solved yet: " + Material.of(white, black, kings));
+        }
+        return slice.values[(int) slice.index.index(white, black, kings)] & 0xFF;
+    }
+
+    /**
+     * Предшественники решённой позиции: ход назад одной фигурой mover без взятия
+     * и без превращения. Их ход к этой позиции ведёт к значению value для соперника.
+     */
+    private static void retract(@NonNull Slice parents,
+                                int parentId,
+                                int mover,
+                                int opponent,
+                                int kings,
+                                boolean childLost,
+                                int plies,
+                                @NonNull Buckets buckets) {
+        int occupied = mover | opponent;
+        for (int m = mover & ~kings; m != 0; m &= m - 1) {
+            int square = Integer.numberOfTrailingZeros(m);
+            for (int direction = Bitboards.DOWN_LEFT; direction <= Bitboards.DOWN_RIGHT; direction++) {
+                int from = Bitboards.neighbor(square, direction);
+                if (from == Bitboards.NO_SQUARE || (occupied & (1 << from)) != 0) {
+                    continue;
+                }
+                int white = mover ^ (1 << square) ^ (1 << from);
+                update(parents, parentId, parents.index.index(white, opponent, kings),
+                        childLost, plies, buckets);
+            }
+        }
+        for (int k = mover & kings; k != 0; k &= k - 1) {
+            int square = Integer.numberOfTrailingZeros(k);
+            for (int direction = 0; direction < Bitboards.DIRECTIONS; direction++) {
+                for (int f = Bitboards.freeRayMask(square, direction, occupied); f != 0; f &= f - 1) {
+                    int fromBit = f & -f;
+                    int moved = (1 << square) ^ fromBit;
+                    update(parents, parentId, parents.index.index(mover ^ moved, opponent, kings ^ moved),
+                            childLost, plies, buckets);
+                }
+            }
+        }
+    }
+
+    private static void update(@NonNull Slice slice,
+                               int sliceId,
+                               long parentIndex,
+                               boolean childLost,
+                               int plies,
+                               @NonNull Buckets buckets) {
+        int index = (int) parentIndex;
+        int pending = slice.pending[index] & 0xFF;
+        // нет тихих ходов — значит, есть обязательное взятие и этого хода не было
+        if (slice.values[index] != UNRESOLVED || (pending & HAS_QUIET_MOVES) == 0) {
+            return;
+        }
+        if (childLost) {
+            buckets.add(plies + 1, entry(sliceId, index, false));
+            return;
+        }
+        int unknown = (pending & LOW_BITS) - 1;
+        int longest = slice.longestWin[index] & 0xFF;
+        int longestHalf = Math.max(longest & LOW_BITS, plies / 2);
+        slice.pending[index] = (byte) (HAS_QUIET_MOVES | unknown);
+        slice.longestWin[index] = (byte) ((longest & CANNOT_LOSE) | longestHalf);
+        if (unknown == 0 && (longest & CANNOT_LOSE) == 0) {
+            buckets.add(longestHalf * 2 + 2, entry(sliceId, index, true));
+        }
+    }
+
+    private static long entry(int sliceId, int index, boolean loss) {
+        return (index & 0xFFFFFFFFL) | ((long) sliceId << SLICE_SHIFT) | (loss ? LOSS_FLAG : 0L);
+    }
+
+    // ------------------------------------------------------------------
+    // Запись
+    // ------------------------------------------------------------------
+
+    private void write(@NonNull List<Slice> pair, @NonNull ExecutorService executor)
+            throws InterruptedException, ExecutionException {
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (Slice slice : pair) {
+            slice.releaseWorkArrays();
+            for (TablebaseFile.Kind kind : TablebaseFile.Kind.values()) {
+                tasks.add(() -> {
+                    File file = new File(outDir, TablebaseFile.fileName(slice.material, kind));
+                    TablebaseFile.write(file, slice.material, kind, slice.values);
+                    return null;
+                });
+            }
+        }
+        for (Future<Void> future : executor.invokeAll(tasks)) {
+            future.get();
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Структуры
+    // ------------------------------------------------------------------
+
+    /**
+     * Один материал: значения позиций и рабочие счётчики ретроградного прохода.
+     */
+    private static final class Slice {
+
+        @NonNull
+        final Material material;
+        @NonNull
+        final TablebaseIndex index;
+        final int size;
+        @NonNull
+        final byte[] values;
+        /** HAS_QUIET_MOVES | число ещё не решённых тихих ходов внутри пары. */
+        @Nullable
+        byte[] pending;
+        /** CANNOT_LOSE | половина длины самого долгого выигрыша соперника после своего хода. */
+        @Nullable
+        byte[] longestWin;
+
+        Slice(@NonNull Material material) {
+            this.material = material;
+            this.index = new TablebaseIndex(material);
+            if (index.size() > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Material too large: " + material);
+            }
+            this.size = (int) index.size();
+            this.values = new byte[size];
+            this.pending = new byte[size];
+            this.longestWin = new byte[size];
+            Arrays.fill(values, UNRESOLVED);
+        }
+
+        void releaseWorkArrays() {
+            pending = null;
+            longestWin = null;
+        }
+
+        void print(@NonNull PrintStream out, long elapsedNanos) {
+            long wins = 0L;
+            long losses = 0L;
+            long draws = 0L;
+            int longest = 0;
+            int[] masks = new int[3];
+            for (int i = 0; i < size; i++) {
+                int value = values[i] & 0xFF;
+                if (TablebaseValue.isWin(value)) {
+                    wins++;
+                    longest = Math.max(longest, TablebaseValue.plies(value));
+                } else if (TablebaseValue.isLoss(value)) {
+                    losses++;
+                } else if (index.decode(i, masks)) {
+                    draws++;
+                }
+            }
+            out.printf(Locale.US, "%s  %,13d  win %,13d  loss %,13d  draw %,13d  longest %3d  %.1f s%n",
+                    TablebaseFile.fileName(material, TablebaseFile.Kind.DTW),
+                    size, wins, losses, draws, longest, elapsedNanos / 1e9);
+        }
+    }
+
+    /**
+     * Очереди позиций по длине партии в полуходах.
+     */
+    private static final class Buckets {
+
+        @NonNull
+        private final LongList[] lists = new LongList[TablebaseValue.MAX_PLIES + 1];
+
+        void add(int plies, long entry) {
+            if (plies > TablebaseValue.MAX_PLIES) {
+                throw new IllegalStateException("Distance exceeds " + TablebaseValue.MAX_PLIES + " plies");
+            }
+            LongList list = lists[plies];
+            if (list == null) {
+                list = new LongList();
+                lists[plies] = list;
+            }
+            list.add(entry);
+        }
+
+        @Nullable
+        LongList get(int plies) {
+            return lists[plies];
+        }
+
+        void addAll(@NonNull Buckets other) {
+            for (int plies = 0; plies < lists.length; plies++) {
+                LongList list = other.lists[plies];
+                for (int i = 0; list != null && i < list.size; i++) {
+                    add(plies, list.items[i]);
+                }
+            }
+        }
+    }
+
+    private static final class LongList {
+
+        @NonNull
+        long[] items = new long[16];
+        int size;
+
+        void add(long value) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, size * 2);
+            }
+            items[size++] = value;
+        }
+    }
+}
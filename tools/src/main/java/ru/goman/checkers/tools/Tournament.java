@@ -0,0 +1,197 @@
+package ru.goman.checkers.tools;
+
+import androidx.annotation.NonNull;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import ru.goman.checkers.logic.Position;
+
+/**
+ * Турнир двух настроек движка без UI: сила против скорости для каждой правки.
+ * Каждый дебют (см. Openings) играется парой партий со сменой цветов,
+ * партии идут параллельно на всех ядрах.
+ * Итог — победы/ничьи/поражения первого движка, разница в Эло с 95%
+ * интервалом, среднее время на ход и узлы в секунду обоих движков.
+ *
+ * Запуск: ./gradlew :tools:run --args="EXPERT HARD --games 200"
+ */
+public final class Tournament {
+
+    private static final String USAGE = String.join("\n",
+            "Usage: Tournament <engineA> <engineB> [options]",
+            "  engine:            LEVEL[:threads=N][:tt=BITS][:tb=DIR], e.g. EXPERT or GRANDMASTER:tt=18",
+            "  --games N          number of games, default 100 (rounded up to pairs)",
+            "  --parallel N       games played at once, default: all cores",
+            "  --opening-plies N  plies in each opening, default 2",
+            "  --max-plies N      draw after this many plies, default 300");
+
+    private int games = 100;
+    private int parallel = Runtime.getRuntime().availableProcessors();
+    private int openingPlies = 2;
+    private int maxPlies = 300;
+
+    private Tournament() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Tournament tournament = new Tournament();
+        EngineConfig engineA;
+        EngineConfig engineB;
+        try {
+            if (args.length < 2) {
+                throw new IllegalArgumentException("Two engines are required");
+            }
+            engineA = EngineConfig.parse(args[0]);
+            engineB = EngineConfig.parse(args[1]);
+            tournament.parseOptions(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        tournament.run(engineA, engineB);
+    }
+
+    private void parseOptions(@NonNull String[] args) {
+        for (int i = 2; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + args[i]);
+            }
+            int value;
+            try {
+                value = Integer.parseInt(args[i + 1]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Bad number for " + args[i] + ": " + args[i + 1]);
+            }
+            switch (args[i]) {
+                case "--games":
+                    games = requirePositive(args[i], value);
+                    break;
+                case "--parallel":
+                    parallel = requirePositive(args[i], value);
+                    break;
+                case "--opening-plies":
+                    if (value < 0) {
+                        throw new IllegalArgumentException(args[i] + " must be >= 0, got " + value);
+                    }
+                    openingPlies = value;
+                    break;
+                case "--max-plies":
+                    maxPlies = requirePositive(args[i], value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+    }
+
+    private static int requirePositive(@NonNull String option, int value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException(option + " must be > 0, got " + value);
+        }
+        return value;
+    }
+
+    private void run(@NonNull EngineConfig engineA, @NonNull EngineConfig engineB)
+            throws InterruptedException {
+        List<Position> openings = Openings.generate(openingPlies);
+        int pairs = (games + 1) / 2;
+        int total = pairs * 2;
+        System.out.printf(Locale.US, "%s vs %s: %d games, %d openings, %d in parallel%n",
+                engineA, engineB, total, openings.size(), parallel);
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallel);
+        CompletionService<GameRecord> completion = new ExecutorCompletionService<>(executor);
+        for (int game = 0; game < total; game++) {
+            Position opening = openings.get((game / 2) % openings.size());
+            boolean aIsWhite = game % 2 == 0;
+            completion.submit(() -> new GameRecord(aIsWhite, aIsWhite
+                    ? SelfPlayGame.play(opening, engineA, engineB, maxPlies)
+                    : SelfPlayGame.play(opening, engineB, engineA, maxPlies)));
+        }
+
+        int wins = 0;
+        int draws = 0;
+        int losses = 0;
+        long plies = 0L;
+        EngineStats statsA = new EngineStats();
+        EngineStats statsB = new EngineStats();
+        int reportEvery = Math.max(1, total / 10);
+        try {
+            for (int done = 1; done <= total; done++) {
+                GameRecord record = completion.take().get();
+                SelfPlayGame.Result result = record.result;
+                statsA.add(record.aIsWhite ? result.white : result.black);
+                statsB.add(record.aIsWhite ? result.black : result.white);
+                plies += result.plies;
+                switch (record.scoreForA()) {
+                    case 1:
+                        wins++;
+                        break;
+                    case -1:
+                        losses++;
+                        break;
+                    default:
+                        draws++;
+                        break;
+                }
+                if (done % reportEvery == 0 || done == total) {
+                    System.out.printf(Locale.US, "[%d/%d] +%d =%d -%d  Elo %s%n",
+                            done, total, wins, draws, losses, EloEstimate.of(wins, draws, losses));
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Game failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        System.out.println();
+        System.out.printf(Locale.US, "Score of %s vs %s: %d - %d - %d  [%.3f]%n",
+                engineA, engineB, wins, losses, draws,
+                (wins + 0.5 * draws) / total);
+        System.out.printf(Locale.US, "Elo difference: %s (95%%)%n", EloEstimate.of(wins, draws, losses));
+        System.out.printf(Locale.US, "Average game length: %.1f plies%n", (double) plies / total);
+        printEngine(engineA, statsA);
+        printEngine(engineB, statsB);
+    }
+
+    private static void printEngine(@NonNull EngineConfig engine, @NonNull EngineStats stats) {
+        System.out.printf(Locale.US, "%-24s %8.1f ms/move  %,12d nodes/s  (%d moves)%n",
+                engine, stats.getAverageMoveMs(), stats.getNodesPerSecond(), stats.moves);
+    }
+
+    /**
+     * Партия с точки зрения движка A.
+     */
+    private static final class GameRecord {
+
+        final boolean aIsWhite;
+        @NonNull
+        final SelfPlayGame.Result result;
+
+        GameRecord(boolean aIsWhite, @NonNull SelfPlayGame.Result result) {
+            this.aIsWhite = aIsWhite;
+            this.result = result;
+        }
+
+        /** 1 — A выиграл, -1 — проиграл, 0 — ничья. */
+        int scoreForA() {
+            switch (result.outcome) {
+                case WHITE_WINS:
+                    return aIsWhite ? 1 : -1;
+                case BLACK_WINS:
+                    return aIsWhite ? -1 : 1;
+                default:
+                    return 0;
+            }
+        }
+    }
+}
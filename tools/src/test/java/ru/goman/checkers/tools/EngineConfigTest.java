@@ -0,0 +1,42 @@
+package ru.goman.checkers.tools;
+
+import org.junit.Test;
+
+import ru.goman.checkers.engine.AiDifficulty;
+
+import static org.junit.Assert.*;
+
+/**
+ * Разбор строки участника турнира: ошибки должны всплывать при разборе,
+ * вместе с подсказкой по использованию, а не посреди партий.
+ */
+public class EngineConfigTest {
+
+    @Test
+    public void parsesLevelAndOptions() {
+        EngineConfig config = EngineConfig.parse("expert:threads=2:tt=18");
+        assertEquals(AiDifficulty.EXPERT, config.getDifficulty());
+        assertEquals("expert:threads=2:tt=18", config.toString());
+    }
+
+    @Test
+    public void acceptsTableSizeBounds() {
+        EngineConfig.parse("HARD:tt=1");
+        EngineConfig.parse("HARD:tt=26");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTableTooLarge() {
+        EngineConfig.parse("HARD:tt=27");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsZeroTableSize() {
+        EngineConfig.parse("HARD:tt=0");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsUnknownOption() {
+        EngineConfig.parse("HARD:depth=5");
+    }
+}
@@ -0,0 +1,139 @@
+package ru.goman.checkers.tools;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.File;
+
+import ru.goman.checkers.logic.BitboardPosition;
+import ru.goman.checkers.logic.Bitboards;
+import ru.goman.checkers.model.Player;
+import ru.goman.checkers.tablebase.Material;
+import ru.goman.checkers.tablebase.TablebaseFile;
+import ru.goman.checkers.tablebase.TablebaseIndex;
+import ru.goman.checkers.tablebase.TablebaseProbe;
+import ru.goman.checkers.tablebase.TablebaseValue;
+
+import static org.junit.Assert.*;
+
+/**
+ * База окончаний до трёх фигур: известные позиции и сверка всех двухфигурных
+ * материалов с перебором на несколько полуходов вперёд.
+ */
+public class TablebaseGeneratorTest {
+
+    /** Горизонт перебора в полуходах. */
+    private static final int HORIZON = 4;
+
+    /** Перебор не дошёл до конца партии. */
+    private static final int UNKNOWN = -1;
+
+    private static File directory;
+    private static TablebaseProbe probe;
+
+    @BeforeClass
+    public static void openTablebase() throws Exception {
+        directory = TestTablebase.directory();
+        probe = TablebaseProbe.open(directory);
+    }
+
+    @Test
+    public void writesBothKindsForEveryMaterial() {
+        for (Material material : Material.upTo(TestTablebase.MAX_PIECES)) {
+            for (TablebaseFile.Kind kind : TablebaseFile.Kind.values()) {
+                assertTrue(new File(directory, TablebaseFile.fileName(material, kind)).isFile());
+            }
+        }
+        assertEquals(TestTablebase.MAX_PIECES, probe.getMaxPieces());
+    }
+
+    @Test
+    public void kingOnManPromotionSquare_manCannotMove() {
+        // белая простая на a7, чёрная дамка на b8 — на её единственном поле превращения
+        int man = bit(1, 0);
+        int king = bit(0, 1);
+        assertEquals(TablebaseValue.loss(0), probe.probe(man, king, king, Player.WHITE));
+    }
+
+    @Test
+    public void blockedMan_hasNoMoves() {
+        // белая простая на a1, впереди две чёрные простые в линию — ни хода, ни взятия
+        int man = bit(7, 0);
+        int black = bit(6, 1) | bit(5, 2);
+        assertEquals(TablebaseValue.loss(0), probe.probe(man, black, 0, Player.WHITE));
+    }
+
+    @Test
+    public void kingTakesLastMan_winsInOne() {
+        // дальнобойная дамка на a1 бьёт простую на c3
+        int king = bit(7, 0);
+        int man = bit(5, 2);
+        assertEquals(TablebaseValue.win(1), probe.probe(king, man, king, Player.WHITE));
+    }
+
+    @Test
+    public void twoPieceMaterials_matchShortSearch() {
+        int[] masks = new int[3];
+        for (Material material : Material.upTo(2)) {
+            TablebaseIndex index = new TablebaseIndex(material);
+            for (long i = 0; i < index.size(); i++) {
+                if (!index.decode(i, masks)) {
+                    continue;
+                }
+                BitboardPosition position = new BitboardPosition(masks[0], masks[1], masks[2],
+                        Player.WHITE, Bitboards.NO_SQUARE, 0, true);
+                int expected = solve(position, HORIZON);
+                int value = probe.probe(masks[0], masks[1], masks[2], Player.WHITE);
+                String message = material.getName() + " #" + i;
+                if (expected != UNKNOWN) {
+                    assertEquals(message, expected, value);
+                } else {
+                    // за горизонтом: ничья или партия длиннее HORIZON полуходов
+                    assertTrue(message, value == TablebaseValue.DRAW || TablebaseValue.plies(value) > HORIZON);
+                }
+            }
+        }
+    }
+
+    // ----------------------------------------------------------------------
+    // Вспомогательные методы
+    // ----------------------------------------------------------------------
+
+    /**
+     * Значение TablebaseValue для стороны, которая ходит, если партия
+     * кончается не дальше depth полуходов, иначе UNKNOWN.
+     */
+    private static int solve(BitboardPosition position, int depth) {
+        long[] moves = new long[BitboardPosition.MAX_MOVES];
+        int count = position.generateMoves(moves);
+        if (count == 0) {
+            return TablebaseValue.loss(0);
+        }
+        if (depth == 0) {
+            return UNKNOWN;
+        }
+        int shortestWin = Integer.MAX_VALUE;
+        int longestLoss = -1;
+        boolean unknown = false;
+        for (int i = 0; i < count; i++) {
+            long undo = position.makeMove(moves[i]);
+            int child = solve(position, depth - 1);
+            position.unmakeMove(moves[i], undo);
+            if (child == UNKNOWN || child == TablebaseValue.DRAW) {
+                unknown = true;
+            } else if (TablebaseValue.isLoss(child)) {
+                shortestWin = Math.min(shortestWin, TablebaseValue.plies(child) + 1);
+            } else {
+                longestLoss = Math.max(longestLoss, TablebaseValue.plies(child) + 1);
+            }
+        }
+        if (shortestWin != Integer.MAX_VALUE) {
+            return TablebaseValue.win(shortestWin);
+        }
+        return unknown ? UNKNOWN : TablebaseValue.loss(longestLoss);
+    }
+
+    private static int bit(int row, int col) {
+        return 1 << Bitboards.square(row, col);
+    }
+}
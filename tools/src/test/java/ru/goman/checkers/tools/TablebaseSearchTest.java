@@ -0,0 +1,139 @@
+package ru.goman.checkers.tools;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import ru.goman.checkers.engine.AiDifficulty;
+import ru.goman.checkers.engine.SimpleAiStrategy;
+import ru.goman.checkers.engine.TranspositionTable;
+import ru.goman.checkers.logic.GameLogic;
+import ru.goman.checkers.logic.Position;
+import ru.goman.checkers.model.Move;
+import ru.goman.checkers.model.Player;
+import ru.goman.checkers.tablebase.TablebaseProbe;
+import ru.goman.checkers.tablebase.TablebaseValue;
+
+import static org.junit.Assert.*;
+import static ru.goman.checkers.logic.TestBoards.*;
+
+/**
+ * Результаты базы окончаний и настоящие концы партии в поиске лежат на одной
+ * шкале: победа сейчас лучше победы по базе, а проигрывающий выбирает долгий
+ * проигрыш по базе, а не быстрый настоящий. В корне фигур больше, чем в базе,
+ * так что база опрашивается внутри поиска, а не вместо него.
+ * Позиции записаны строками, как в TestBoards.
+ */
+public class TablebaseSearchTest {
+
+    /**
+     * Обе белые дамки обязаны бить: f8 забирает обе чёрные фигуры и выигрывает сразу,
+     * b8 бьёт одну простую и выигрывает только по базе.
+     */
+    private static final String WIN_NOW_OR_BY_TABLEBASE =
+            ".W...W../..b...B./......../......../......../......../......../........";
+
+    /**
+     * У белых только тихие ходы: после одних чёрная дамка сразу бьёт всё,
+     * после других чёрные обязаны бить в позицию из базы, проигранную белыми не сразу.
+     */
+    private static final String LOSE_NOW_OR_BY_TABLEBASE =
+            ".b....../......../...w...w/......../......../B......./......../........";
+
+    /**
+     * Три фигуры, выигрыш белых: из восьми ходов выигрыш сохраняет только один,
+     * остальные ведут к ничьей.
+     */
+    private static final String ONE_WINNING_MOVE =
+            "...W..../w......./......../......../......../......../......../......B.";
+
+    private static TablebaseProbe probe;
+    private static TablebaseProbe wldProbe;
+
+    private SimpleAiStrategy strategy;
+
+    @BeforeClass
+    public static void openTablebase() throws Exception {
+        probe = TablebaseProbe.open(TestTablebase.directory());
+        wldProbe = TablebaseProbe.open(TestTablebase.wldDirectory());
+    }
+
+    @Before
+    public void setUp() {
+        strategy = new SimpleAiStrategy(new TranspositionTable(16,
+                TranspositionTable.ReplacementPolicy.DEPTH_PREFERRED), 1);
+        strategy.setTablebase(probe);
+    }
+
+    @After
+    public void tearDown() {
+        strategy.shutdown();
+    }
+
+    @Test
+    public void winNow_beatsTablebaseWin() {
+        GameLogic logic = logic(WIN_NOW_OR_BY_TABLEBASE, Player.WHITE);
+        GameLogic.MoveResult result = playFullMove(logic);
+        assertTrue(result.isGameOver());
+        assertEquals(Player.WHITE, result.getWinner());
+    }
+
+    @Test
+    public void tablebaseLoss_beatsLosingNow() {
+        GameLogic logic = logic(LOSE_NOW_OR_BY_TABLEBASE, Player.WHITE);
+        assertFalse(playFullMove(logic).isGameOver());
+        assertNoReplyEndsGame(logic);
+    }
+
+    @Test
+    public void wldOnly_scoresStillOrdered() {
+        strategy.setTablebase(wldProbe);
+        GameLogic.MoveResult result = playFullMove(logic(WIN_NOW_OR_BY_TABLEBASE, Player.WHITE));
+        assertTrue(result.isGameOver());
+        assertEquals(Player.WHITE, result.getWinner());
+
+        GameLogic logic = logic(LOSE_NOW_OR_BY_TABLEBASE, Player.WHITE);
+        assertFalse(playFullMove(logic).isGameOver());
+        assertNoReplyEndsGame(logic);
+    }
+
+    @Test
+    public void wldOnly_keepsTheWin() {
+        strategy.setTablebase(wldProbe);
+        GameLogic logic = logic(ONE_WINNING_MOVE, Player.WHITE);
+        assertFalse(playFullMove(logic).isGameOver());
+
+        // проверка по полной базе: после хода белых чёрные проиграны
+        Position position = Position.fromGameLogic(logic);
+        int value = probe.probe(position.getWhite(), position.getBlack(), position.getKings(), Player.BLACK);
+        assertTrue(TablebaseValue.isLoss(value));
+    }
+
+    // ----------------------------------------------------------------------
+    // Вспомогательные методы
+    // ----------------------------------------------------------------------
+
+    /** Ход белых целиком, вместе с продолжением цепочки взятий. */
+    private GameLogic.MoveResult playFullMove(GameLogic logic) {
+        GameLogic.MoveResult result;
+        do {
+            Move move = strategy.chooseMove(logic, Player.WHITE, AiDifficulty.HARD);
+            assertNotNull(move);
+            result = logic.applyMove(move);
+        } while (result.isCaptureChainContinues());
+        return result;
+    }
+
+    /** Ни один ответ чёрных не заканчивает партию сразу. */
+    private static void assertNoReplyEndsGame(GameLogic logic) {
+        for (Move reply : logic.getAllMovesForCurrentPlayer()) {
+            GameLogic copy = logic.copy();
+            GameLogic.MoveResult result = copy.applyMove(reply);
+            while (result.isCaptureChainContinues()) {
+                result = copy.applyMove(copy.getAllMovesForCurrentPlayer().get(0));
+            }
+            assertFalse(reply.toString(), result.isGameOver());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package ru.goman.checkers.tools;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import ru.goman.checkers.tablebase.TablebaseFile;
+
+/**
+ * База окончаний до трёх фигур для тестов: генерируется один раз на JVM
+ * во временный каталог и удаляется при выходе.
+ */
+final class TestTablebase {
+
+    static final int MAX_PIECES = 3;
+
+    @Nullable
+    private static File directory;
+
+    @Nullable
+    private static File wldDirectory;
+
+    private TestTablebase() {
+    }
+
+    /** Каталог со всеми файлами базы (DTW и WLD). */
+    @NonNull
+    static synchronized File directory() throws IOException, InterruptedException {
+        if (directory == null) {
+            File dir = createTempDirectory("tablebase");
+            new TablebaseGenerator(MAX_PIECES, dir, 2, null).run();
+            directory = dir;
+        }
+        return directory;
+    }
+
+    /** Та же база, но только WLD-файлы — как на телефоне. */
+    @NonNull
+    static synchronized File wldDirectory() throws IOException, InterruptedException {
+        if (wldDirectory == null) {
+            File[] files = directory().listFiles();
+            if (files == null) {
+                throw new IOException("Cannot list " + directory);
+            }
+            File dir = createTempDirectory("tablebase-wld");
+            for (File file : files) {
+                if (file.getName().endsWith("." + TablebaseFile.Kind.WLD.getExtension())) {
+                    Files.copy(file.toPath(), new File(dir, file.getName()).toPath());
+                }
+            }
+            wldDirectory = dir;
+        }
+        return wldDirectory;
+    }
+
+    @NonNull
+    private static File createTempDirectory(@NonNull String prefix) throws IOException {
+        File dir = Files.createTempDirectory(prefix).toFile();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> delete(dir)));
+        return dir;
+    }
+
+    private static void delete(@NonNull File dir) {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+}